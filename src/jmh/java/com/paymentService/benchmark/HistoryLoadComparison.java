@@ -0,0 +1,161 @@
+package com.paymentService.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load comparison of the blocking and reactive history endpoints against a running instance.
+ * Unlike the JMH benchmarks this needs the service and its database, so it is a plain main class:
+ * <pre>
+ * mvn -Pbenchmarks -DskipTests test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.paymentService.benchmark.HistoryLoadComparison \
+ *   -Dexec.args="http://localhost:8080 &lt;customerId&gt; [concurrentClients] [seconds] [bearerToken]"
+ * </pre>
+ * Each client sends its next request as soon as the previous response body has been read. Raise
+ * payment.admission.client.* on the target for the run, or most requests will be answered with 429.
+ */
+public class HistoryLoadComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: HistoryLoadComparison <baseUrl> <customerId> [concurrentClients] [seconds] [bearerToken]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        String customerId = args[1];
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        String token = args.length > 4 ? args[4] : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(executor)
+            .build();
+        try {
+            String[][] endpoints = {
+                {"blocking", baseUrl + "/api/payment/customer/" + customerId + "/payments"},
+                {"reactive", baseUrl + "/api/payment/reactive/customer/" + customerId + "/payments"}
+            };
+            for (String[] endpoint : endpoints) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(endpoint[1])).timeout(Duration.ofSeconds(60));
+                if (token != null) {
+                    request.header("Authorization", "Bearer " + token);
+                }
+                run(client, request.build(), clients, 5);
+                Result result = run(client, request.build(), clients, seconds);
+                System.out.println(result.describe(endpoint[0], seconds));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<ClientLoop> loops = new ArrayList<>(clients);
+        CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            ClientLoop loop = new ClientLoop(client, request, deadline);
+            loops.add(loop);
+            done[i] = loop.start();
+        }
+        CompletableFuture.allOf(done).join();
+        return Result.merge(loops);
+    }
+
+    /**
+     * One simulated client; its requests are strictly sequential, so its fields need no synchronization
+     */
+    private static final class ClientLoop {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long deadline;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long[] latencies = new long[256];
+        private int count;
+        private int errors;
+
+        ClientLoop(HttpClient client, HttpRequest request, long deadline) {
+            this.client = client;
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        CompletableFuture<Void> start() {
+            next();
+            return done;
+        }
+
+        private void next() {
+            if (System.nanoTime() - deadline >= 0) {
+                done.complete(null);
+                return;
+            }
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                    errors++;
+                } else {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                next();
+            });
+        }
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final long errors;
+
+        private Result(long[] latencies, long errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+
+        static Result merge(List<ClientLoop> loops) {
+            int total = 0;
+            long errors = 0;
+            for (ClientLoop loop : loops) {
+                total += loop.count;
+                errors += loop.errors;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (ClientLoop loop : loops) {
+                System.arraycopy(loop.latencies, 0, all, offset, loop.count);
+                offset += loop.count;
+            }
+            Arrays.sort(all);
+            return new Result(all, errors);
+        }
+
+        String describe(String name, int seconds) {
+            return String.format("%-8s ok=%d errors=%d throughput=%.1f/s p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                name, latencies.length, errors, (double) latencies.length / seconds,
+                percentile(0.50), percentile(0.90), percentile(0.99), percentile(1.0));
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = Math.min(latencies.length - 1, (int) Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.paymentService.benchmark;
+
+import com.paymentService.id.IdGenerator;
+import com.paymentService.id.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a transactions-shaped table, keyed by random and by time-ordered ids.
+ * The table lives in a file-backed H2 database and is preloaded, so each insert has to find its place in
+ * primary-key and transfer-id indexes that no longer fit in a few pages. Postgres B-trees react to random
+ * keys the same way, only with far larger tables.
+ * Reported scores are rows per second; the generation cost alone is measured by {@link #nextId}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdInsertBenchmark {
+    private static final int PRELOADED_ROWS = 500_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"random", "time-ordered"})
+    public String generator;
+
+    private IdGenerator ids;
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private final UUID paymentId = UUID.randomUUID();
+    private final BigDecimal amount = new BigDecimal("19.99");
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        ids = generator.equals("random") ? UUID::randomUUID : new TimeOrderedIdGenerator(0);
+        directory = Files.createTempDirectory("id-insert-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("ids") + ";CACHE_SIZE=16384");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE transactions (id UUID PRIMARY KEY, transaction_id VARCHAR(255) NOT NULL UNIQUE, "
+                + "payment_id UUID NOT NULL, amount DECIMAL(19, 2) NOT NULL, status SMALLINT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO transactions (id, transaction_id, payment_id, amount, status, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < PRELOADED_ROWS; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Inserts and commits one JDBC batch, as a bulk transfer chunk does
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, ids.nextId());
+            insert.setString(2, ids.nextId().toString());
+            insert.setObject(3, paymentId);
+            insert.setBigDecimal(4, amount);
+            insert.setShort(5, (short) 1);
+            insert.setTimestamp(6, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    @Benchmark
+    public UUID nextId() {
+        return ids.nextId();
+    }
+}
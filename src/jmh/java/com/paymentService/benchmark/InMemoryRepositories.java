@@ -0,0 +1,227 @@
+package com.paymentService.benchmark;
+
+import com.paymentService.model.CounterpartyAccount;
+import com.paymentService.model.Customer;
+import com.paymentService.model.Payment;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.model.repository.CounterpartyAccountRepository;
+import com.paymentService.model.repository.CustomerRepository;
+import com.paymentService.model.repository.PaymentRepository;
+import com.paymentService.model.repository.PaymentSummaryRepository;
+import com.paymentService.model.repository.TransactionArchiveRepository;
+import com.paymentService.model.repository.TransactionRepository;
+import com.paymentService.model.repository.TransferStatusEventRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for the JPA repositories, so benchmarks measure service logic rather than a database.
+ * Only the repository methods used by the service are implemented; anything else fails loudly.
+ */
+final class InMemoryRepositories {
+    private final Map<UUID, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<UUID, Customer> customersByExternalId = new ConcurrentHashMap<>();
+    private final Map<UUID, Payment> payments = new ConcurrentHashMap<>();
+    private final Map<UUID, Payment> paymentsByCustomerId = new ConcurrentHashMap<>();
+    private final Map<UUID, Transaction> transactions = new ConcurrentHashMap<>();
+    private final Map<String, Transaction> transactionsByTransferId = new ConcurrentHashMap<>();
+    private final Map<List<String>, CounterpartyAccount> counterpartyAccounts = new ConcurrentHashMap<>();
+    private final Map<Long, CounterpartyAccount> counterpartyAccountsById = new ConcurrentHashMap<>();
+    private final AtomicLong counterpartyAccountIds = new AtomicLong();
+
+    final CustomerRepository customerRepository;
+    final PaymentRepository paymentRepository;
+    final TransactionRepository transactionRepository;
+    final TransferStatusEventRepository transferStatusEventRepository;
+    final PaymentSummaryRepository paymentSummaryRepository;
+    final TransactionArchiveRepository transactionArchiveRepository;
+    final CounterpartyAccountRepository counterpartyAccountRepository;
+
+    InMemoryRepositories() {
+        Map<String, Function<Object[], Object>> customerMethods = new HashMap<>();
+        customerMethods.put("save", args -> saveCustomer((Customer) args[0]));
+        customerMethods.put("findByCustomerId", args -> customersByExternalId.get((UUID) args[0]));
+        customerMethods.put("findAllByCustomerIdIn", args -> findAll(customersByExternalId, (Collection<?>) args[0]));
+        customerMethods.put("saveAll", args -> saveAll((Iterable<?>) args[0], c -> saveCustomer((Customer) c)));
+        customerMethods.put("upsertByCustomerId", args -> customersByExternalId.computeIfAbsent((UUID) args[1], customerId -> {
+            Customer customer = new Customer();
+            customer.setId((UUID) args[0]);
+            customer.setCustomerId(customerId);
+            customer.setCreatedAt((LocalDateTime) args[2]);
+            customers.put(customer.getId(), customer);
+            return customer;
+        }).getId());
+        customerRepository = proxy(CustomerRepository.class, customerMethods);
+
+        Map<String, Function<Object[], Object>> paymentMethods = new HashMap<>();
+        paymentMethods.put("save", args -> savePayment((Payment) args[0]));
+        paymentMethods.put("findById", args -> Optional.ofNullable(payments.get((UUID) args[0])));
+        paymentMethods.put("findByCustomerId", args -> paymentsByCustomerId.get((UUID) args[0]));
+        paymentMethods.put("findAllByCustomerIdIn", args -> findAll(paymentsByCustomerId, (Collection<?>) args[0]));
+        paymentMethods.put("saveAll", args -> saveAll((Iterable<?>) args[0], p -> savePayment((Payment) p)));
+        paymentMethods.put("upsertByCustomerId", args -> paymentsByCustomerId.computeIfAbsent((UUID) args[1], customerId -> {
+            Payment payment = new Payment();
+            payment.setId((UUID) args[0]);
+            payment.setCustomerId(customerId);
+            payment.setCreatedAt((LocalDateTime) args[2]);
+            payments.put(payment.getId(), payment);
+            return payment;
+        }).getId());
+        paymentMethods.put("updateTransferStatus", args -> {
+            Payment payment = payments.get((UUID) args[0]);
+            if (payment == null) {
+                return 0;
+            }
+            payment.setTransferStatus((String) args[1]);
+            payment.setUpdatedAt((LocalDateTime) args[2]);
+            return 1;
+        });
+        paymentRepository = proxy(PaymentRepository.class, paymentMethods);
+
+        Map<String, Function<Object[], Object>> transactionMethods = new HashMap<>();
+        transactionMethods.put("save", args -> saveTransaction((Transaction) args[0]));
+        transactionMethods.put("findByTransactionId", args -> transactionsByTransferId.get((String) args[0]));
+        transactionMethods.put("findAllByPaymentIdAndCreatedAtGreaterThanEqual", args -> {
+            List<Transaction> result = new ArrayList<>();
+            for (Transaction transaction : transactions.values()) {
+                if (transaction.getPaymentId().equals(args[0])) {
+                    result.add(transaction);
+                }
+            }
+            return result;
+        });
+        transactionMethods.put("updateStatus", args -> {
+            Transaction transaction = transactionsByTransferId.get((String) args[0]);
+            if (transaction == null || !transaction.getStatus().equals(args[1])) {
+                return 0;
+            }
+            transaction.setStatus((TransferStatus) args[2]);
+            transaction.setUpdatedAt((LocalDateTime) args[3]);
+            return 1;
+        });
+        transactionRepository = proxy(TransactionRepository.class, transactionMethods);
+
+        // Outbox events are accepted and dropped; the relay is not part of the measured paths
+        Map<String, Function<Object[], Object>> outboxMethods = new HashMap<>();
+        outboxMethods.put("save", args -> args[0]);
+        transferStatusEventRepository = proxy(TransferStatusEventRepository.class, outboxMethods);
+
+        // Summary deltas are accepted and dropped; the upsert itself is a single database statement
+        Map<String, Function<Object[], Object>> summaryMethods = new HashMap<>();
+        summaryMethods.put("applyDelta", args -> 1);
+        paymentSummaryRepository = proxy(PaymentSummaryRepository.class, summaryMethods);
+
+        // Nothing is ever archived
+        Map<String, Function<Object[], Object>> archiveMethods = new HashMap<>();
+        archiveMethods.put("findAllByOrderByRangeStartAsc", args -> List.of());
+        transactionArchiveRepository = proxy(TransactionArchiveRepository.class, archiveMethods);
+
+        Map<String, Function<Object[], Object>> counterpartyMethods = new HashMap<>();
+        counterpartyMethods.put("upsert", args -> counterpartyAccounts.computeIfAbsent(
+            List.of((String) args[0], (String) args[1], (String) args[2]), key -> {
+                CounterpartyAccount account = new CounterpartyAccount();
+                account.setId(counterpartyAccountIds.incrementAndGet());
+                account.setRoutingNumber(key.get(0));
+                account.setAccountNumber(key.get(1));
+                account.setAccountHolderName(key.get(2));
+                counterpartyAccountsById.put(account.getId(), account);
+                return account;
+            }).getId());
+        counterpartyMethods.put("findById", args -> Optional.ofNullable(counterpartyAccountsById.get((Long) args[0])));
+        counterpartyAccountRepository = proxy(CounterpartyAccountRepository.class, counterpartyMethods);
+    }
+
+    /**
+     * Drops all stored rows; called between iterations so the maps do not grow without bound.
+     */
+    void clear() {
+        customers.clear();
+        customersByExternalId.clear();
+        payments.clear();
+        paymentsByCustomerId.clear();
+        transactions.clear();
+        transactionsByTransferId.clear();
+    }
+
+    private Customer saveCustomer(Customer customer) {
+        if (customer.getId() == null) {
+            customer.setId(UUID.randomUUID());
+        }
+        customers.put(customer.getId(), customer);
+        customersByExternalId.put(customer.getCustomerId(), customer);
+        return customer;
+    }
+
+    private Payment savePayment(Payment payment) {
+        if (payment.getId() == null) {
+            payment.setId(UUID.randomUUID());
+        }
+        payments.put(payment.getId(), payment);
+        if (payment.getCustomerId() != null) {
+            paymentsByCustomerId.put(payment.getCustomerId(), payment);
+        }
+        return payment;
+    }
+
+    private Transaction saveTransaction(Transaction transaction) {
+        if (transaction.getId() == null) {
+            transaction.setId(UUID.randomUUID());
+        }
+        transactions.put(transaction.getId(), transaction);
+        if (transaction.getTransactionId() != null) {
+            transactionsByTransferId.put(transaction.getTransactionId(), transaction);
+        }
+        return transaction;
+    }
+
+    private static <T> List<T> findAll(Map<UUID, T> index, Collection<?> keys) {
+        List<T> result = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            T value = index.get((UUID) key);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private static List<Object> saveAll(Iterable<?> entities, Function<Object, Object> save) {
+        List<Object> saved = new ArrayList<>();
+        for (Object entity : entities) {
+            saved.add(save.apply(entity));
+        }
+        return saved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+        });
+    }
+}
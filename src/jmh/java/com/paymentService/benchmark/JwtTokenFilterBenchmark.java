@@ -0,0 +1,87 @@
+package com.paymentService.benchmark;
+
+import com.paymentService.metrics.PaymentMetrics;
+import com.paymentService.securityConfig.JwtTokenFilter;
+import com.paymentService.securityConfig.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: the full filter with a repeat token, and a first-seen token that must be verified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-of-material";
+
+    private JwtUtil jwtUtil;
+    private JwtTokenFilter filter;
+    private String token;
+    private String tokenWithoutExpiry;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = new JwtUtil(new PaymentMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "tokenCacheMaximumSize", 10_000L);
+        Method init = JwtUtil.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(jwtUtil);
+        filter = new JwtTokenFilter(jwtUtil);
+        token = Jwts.builder()
+            .setSubject("benchmark-user")
+            .claim("roles", List.of("USER"))
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+        tokenWithoutExpiry = Jwts.builder()
+            .setSubject("benchmark-user")
+            .claim("roles", List.of("USER"))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payment/customer/1/payments");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * Full parse and signature verification: tokens without an expiration are never cached.
+     */
+    @Benchmark
+    public Object verifyUncached() {
+        return jwtUtil.verify(tokenWithoutExpiry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.paymentService.benchmark;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import com.paymentService.dto.request.MakePaymentRequest;
+import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.dto.response.MakePaymentResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level cost of the payment and transfer hot paths, with repositories and the bank stubbed in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentServiceBenchmark {
+    private static final int CUSTOMERS = 1024;
+
+    private ServiceFixture fixture;
+    private MakePaymentRequest[] paymentRequests;
+    private BankTransferRequest transferRequest;
+    private BankTransferRequest invalidRoutingRequest;
+    private BankTransferRequest badCheckDigitRequest;
+    private BankTransferRequest unknownRoutingRequest;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new ServiceFixture();
+        paymentRequests = new MakePaymentRequest[CUSTOMERS];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            MakePaymentRequest request = new MakePaymentRequest();
+            request.setCustomerId(UUID.randomUUID());
+            request.setAmount(new BigDecimal("25.00"));
+            request.setPaymentMethod("card");
+            paymentRequests[i] = request;
+        }
+        transferRequest = transferRequest("021000021");
+        invalidRoutingRequest = transferRequest("02100002X");
+        badCheckDigitRequest = transferRequest("021000022");
+        // Well-formed, but above every routing number in the fixture's directory
+        unknownRoutingRequest = transferRequest(ServiceFixture.withCheckDigit("92107642"));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearRepositories() {
+        fixture.repositories.clear();
+    }
+
+    /**
+     * Payment for a rotating set of customers; after the first pass every customer resolves from the cache.
+     */
+    @Benchmark
+    public MakePaymentResponse makePayment() {
+        MakePaymentRequest request = paymentRequests[next++ & (CUSTOMERS - 1)];
+        return fixture.paymentService.makePayment(request);
+    }
+
+    @Benchmark
+    public BankTransferResponse processBankTransfer() {
+        return fixture.paymentService.processBankTransfer(transferRequest);
+    }
+
+    /**
+     * Cost of turning away a transfer with a malformed routing number.
+     */
+    @Benchmark
+    public Object rejectInvalidRoutingNumber() {
+        try {
+            return fixture.paymentService.processBankTransfer(invalidRoutingRequest);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Cost of turning away a transfer whose routing number fails the ABA check digit.
+     */
+    @Benchmark
+    public Object rejectBadCheckDigit() {
+        try {
+            return fixture.paymentService.processBankTransfer(badCheckDigitRequest);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Cost of turning away a well-formed routing number that is not in the bank directory.
+     */
+    @Benchmark
+    public Object rejectUnknownRoutingNumber() {
+        try {
+            return fixture.paymentService.processBankTransfer(unknownRoutingRequest);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    private static BankTransferRequest transferRequest(String routingNumber) {
+        BankTransferRequest request = new BankTransferRequest();
+        request.setAccountNumber("000123456789");
+        request.setRoutingNumber(routingNumber);
+        request.setAccountHolderName("Jane Doe");
+        request.setAmount(new BigDecimal("150.00"));
+        request.setCurrency("USD");
+        request.setDescription("benchmark transfer");
+        return request;
+    }
+}
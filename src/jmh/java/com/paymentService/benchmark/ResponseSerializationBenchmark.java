@@ -0,0 +1,65 @@
+package com.paymentService.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.dto.response.MakePaymentResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of response lists with the same ObjectMapper configuration Spring Boot uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<MakePaymentResponse> payments;
+    private List<BankTransferResponse> transfers;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        payments = new ArrayList<>(size);
+        transfers = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            payments.add(new MakePaymentResponse(UUID.randomUUID(), new BigDecimal("19.99"), "COMPLETED", now.plusSeconds(i)));
+            transfers.add(new BankTransferResponse(UUID.randomUUID().toString(), "000123456789", "021000021",
+                "Jane Doe", new BigDecimal("150.00"), "USD", "COMPLETED", now.plusSeconds(i), "invoice " + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePayments() throws Exception {
+        return objectMapper.writeValueAsBytes(payments);
+    }
+
+    @Benchmark
+    public byte[] serializeTransfers() throws Exception {
+        return objectMapper.writeValueAsBytes(transfers);
+    }
+}
@@ -0,0 +1,129 @@
+package com.paymentService.benchmark;
+
+import com.paymentService.archive.ArchivedTransactionReader;
+import com.paymentService.cache.CustomerPaymentCache;
+import com.paymentService.datasource.RecentWriteTracker;
+import com.paymentService.dto.response.GatewayMetricsResponse;
+import com.paymentService.gateway.BankTransferInstruction;
+import com.paymentService.gateway.BankTransferOutcome;
+import com.paymentService.gateway.BankingGateway;
+import com.paymentService.id.IdGenerator;
+import com.paymentService.id.TimeOrderedIdGenerator;
+import com.paymentService.metrics.PaymentMetrics;
+import com.paymentService.model.repository.TransferRetryRepository;
+import com.paymentService.retry.TransferRetryQueue;
+import com.paymentService.routing.RoutingNumberDirectory;
+import com.paymentService.service.implementations.BankTransferValidation;
+import com.paymentService.service.implementations.CounterpartyAccountResolver;
+import com.paymentService.service.implementations.BankTransferDispatcher;
+import com.paymentService.service.implementations.BankTransferProcessor;
+import com.paymentService.service.implementations.PaymentServiceImpl;
+import com.paymentService.service.implementations.PaymentSummaryUpdater;
+import com.paymentService.service.implementations.SettlementBatcher;
+import com.paymentService.service.implementations.TransferStateMachine;
+import com.paymentService.velocity.VelocityChecker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires a {@link PaymentServiceImpl} against in-memory repositories and an always-accepting bank,
+ * the same way the application context would but without Spring, a database or the network.
+ */
+final class ServiceFixture {
+    /** Size of the synthetic routing directory, roughly the number of FedACH participants */
+    static final int DIRECTORY_SIZE = 20_000;
+
+    final InMemoryRepositories repositories = new InMemoryRepositories();
+    final PaymentServiceImpl paymentService;
+
+    ServiceFixture() {
+        BankingGateway bank = new BankingGateway() {
+            @Override
+            public BankTransferOutcome submitTransfer(BankTransferInstruction instruction) {
+                return BankTransferOutcome.ACCEPTED;
+            }
+
+            @Override
+            public GatewayMetricsResponse metrics() {
+                return null;
+            }
+        };
+        PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+        IdGenerator idGenerator = new TimeOrderedIdGenerator(0);
+        PaymentSummaryUpdater summaryUpdater = new PaymentSummaryUpdater(
+            repositories.transactionRepository, repositories.paymentSummaryRepository);
+        TransferStateMachine stateMachine = new TransferStateMachine(
+            repositories.paymentRepository, repositories.transactionRepository, repositories.transferStatusEventRepository,
+            summaryUpdater, new JdbcTemplate());
+        BankTransferProcessor processor = new BankTransferProcessor(repositories.transactionRepository, stateMachine, bank, metrics,
+            new CounterpartyAccountResolver(repositories.counterpartyAccountRepository, new JdbcTemplate(), 100_000), idGenerator,
+            new TransferRetryQueue(unsupported(TransferRetryRepository.class), new JdbcTemplate(), new SimpleMeterRegistry(),
+                8, 1_000, 300_000, 60_000));
+        SettlementBatcher batcher = new SettlementBatcher(processor, new ThreadPoolTaskExecutor(), false, 500, 200, 10_000);
+        BankTransferDispatcher dispatcher = new BankTransferDispatcher(new ThreadPoolTaskExecutor(), processor, batcher, metrics, 30_000);
+        paymentService = new PaymentServiceImpl(
+            repositories.customerRepository,
+            repositories.paymentRepository,
+            repositories.transactionRepository,
+            unsupported(EntityManager.class),
+            processor,
+            dispatcher,
+            new CustomerPaymentCache(100_000, 600),
+            metrics,
+            repositories.paymentSummaryRepository,
+            summaryUpdater,
+            new ArchivedTransactionReader(repositories.transactionArchiveRepository, 60_000, 24),
+            new RecentWriteTracker(5_000, 100_000),
+            new BankTransferValidation(new RoutingNumberDirectory(routingDirectory().toString())),
+            // Disabled: the transfer benchmarks send every transfer to the same account
+            new VelocityChecker(new SimpleMeterRegistry(), false, "", 0),
+            idGenerator);
+    }
+
+    /**
+     * Appends the ABA check digit to the first eight digits of a routing number
+     */
+    static String withCheckDigit(String eightDigits) {
+        int[] weights = {3, 7, 1, 3, 7, 1, 3, 7};
+        int sum = 0;
+        for (int i = 0; i < 8; i++) {
+            sum += (eightDigits.charAt(i) - '0') * weights[i];
+        }
+        return eightDigits + (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Writes a directory of {@link #DIRECTORY_SIZE} valid routing numbers, 021000021 among them
+     */
+    private static Path routingDirectory() {
+        List<String> lines = new ArrayList<>(DIRECTORY_SIZE);
+        lines.add("021000021");
+        for (int i = 1; i < DIRECTORY_SIZE; i++) {
+            lines.add(withCheckDigit(String.format("%08d", 1_000_000 + i * 3_001)));
+        }
+        try {
+            Path file = Files.createTempFile("routing-directory", ".txt");
+            file.toFile().deleteOnExit();
+            return Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unsupported(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
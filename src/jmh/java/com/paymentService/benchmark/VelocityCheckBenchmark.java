@@ -0,0 +1,76 @@
+package com.paymentService.benchmark;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import com.paymentService.exception.VelocityLimitExceededException;
+import com.paymentService.velocity.VelocityChecker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of the velocity check on the transfer path, from several threads at once.
+ * Run with sample-time mode's percentiles in view: the check has to stay well under a millisecond at p99.
+ * {@code admitted} uses limits no account reaches; {@code rejected} uses limits every account has reached,
+ * so each check ends in the exception the controller maps to TOO_MANY_REQUESTS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class VelocityCheckBenchmark {
+    private static final int ACCOUNTS = 1 << 16;
+
+    @Param({"admitted", "rejected"})
+    public String outcome;
+
+    private VelocityChecker checker;
+    private BankTransferRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        String rules = outcome.equals("admitted")
+            ? "burst:1m:count=1000000000;hourly:1h:count=1000000000,amount=1000000000000.00"
+            : "burst:1m:count=1;hourly:1h:count=1000000000,amount=1000000000000.00";
+        checker = new VelocityChecker(new SimpleMeterRegistry(), true, rules, 100_000);
+        requests = new BankTransferRequest[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BankTransferRequest request = new BankTransferRequest();
+            request.setRoutingNumber("021000021");
+            request.setAccountNumber(String.valueOf(100_000_000L + i));
+            request.setAccountHolderName("Benchmark Holder");
+            request.setAmount(new BigDecimal("125.00"));
+            request.setCurrency("USD");
+            requests[i] = request;
+            if (outcome.equals("rejected")) {
+                checker.check(request);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean check() {
+        try {
+            checker.check(requests[ThreadLocalRandom.current().nextInt(ACCOUNTS)]);
+            return true;
+        } catch (VelocityLimitExceededException e) {
+            return false;
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.paymentService;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
 /**
  * Main Spring Boot application class for the Payment Service.
  * This class serves as the entry point for the Spring Boot application and enables auto-configuration.
+ * R2DBC auto-configuration is excluded: its ConnectionFactory bean would replace the JDBC DataSource
+ * (see {@link com.paymentService.config.ReactiveDatabaseConfig}).
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class PaymentServiceApplication {
 
 	/**
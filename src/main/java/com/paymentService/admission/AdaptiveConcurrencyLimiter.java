@@ -0,0 +1,112 @@
+package com.paymentService.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Global in-flight request limit that adapts to observed latency.
+ * <p>
+ * Latency samples are accumulated in striped adders. Once per window, whichever releasing thread wins
+ * a CAS on the window deadline compares the window's mean latency with a slowly moving long-term baseline:
+ * while latency stays within {@code tolerance} of the baseline the limit grows by roughly its square root,
+ * and when requests start queueing (latency rising above the baseline) the limit shrinks in proportion,
+ * by at most half per window. Acquiring a permit is a single CAS on the in-flight counter.
+ */
+final class AdaptiveConcurrencyLimiter {
+    /** Number of windows the long-term latency baseline averages over */
+    private static final double BASELINE_WINDOWS = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+    private final LongAdder windowLatencySum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong nextUpdate;
+    private volatile double limit;
+    private volatile double baselineLatency;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, long windowNanos) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = windowNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.nextUpdate = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * Takes a permit if fewer than the current limit of requests are in flight
+     * @return true if admitted; the caller must then call {@link #release(long)} exactly once
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        peakInFlight.accumulate(current + 1);
+        return true;
+    }
+
+    /**
+     * Returns a permit and records the latency of the admitted request
+     * @param latencyNanos Time the request spent in the service
+     */
+    void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        windowLatencySum.add(latencyNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        long deadline = nextUpdate.get();
+        if (now - deadline >= 0 && nextUpdate.compareAndSet(deadline, now + windowNanos)) {
+            adjust();
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust() {
+        long samples = windowSamples.sumThenReset();
+        long latencySum = windowLatencySum.sumThenReset();
+        long peak = peakInFlight.getThenReset();
+        if (samples == 0) {
+            return;
+        }
+        double latency = (double) latencySum / samples;
+        double baseline = baselineLatency == 0 ? latency : baselineLatency + (latency - baselineLatency) / BASELINE_WINDOWS;
+        // After a sustained slowdown the baseline has crept up; let it fall back quickly once latency recovers
+        if (baseline > 2 * latency) {
+            baseline = baseline * 0.95;
+        }
+        baselineLatency = baseline;
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / latency));
+        double target = current * gradient + Math.sqrt(current);
+        // Traffic that never came close to the limit says nothing about whether a higher one is safe
+        if (target > current && peak < current / 2) {
+            return;
+        }
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
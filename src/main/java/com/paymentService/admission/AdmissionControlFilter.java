@@ -0,0 +1,166 @@
+package com.paymentService.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for the payment endpoints.
+ * Runs after {@link com.paymentService.securityConfig.JwtTokenFilter} so that requests are rate limited per
+ * authenticated subject (anonymous requests per remote address), then bounded by a global concurrency limit
+ * that adapts to latency. Requests over either limit are answered immediately with TOO_MANY_REQUESTS and a
+ * Retry-After header instead of waiting for a database connection.
+ * <p>
+ * A request holds its permit until its response is complete: for streaming and deferred responses, which
+ * leave the filter chain while still being written, that is when the container completes the async context.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final String pathPrefix;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ClientRateLimiter clientRateLimiter;
+    private final Counter concurrencyRejections;
+    private final Counter rateRejections;
+
+    public AdmissionControlFilter(MeterRegistry registry,
+                                  @Value("${payment.admission.enabled:true}") boolean enabled,
+                                  @Value("${payment.admission.path-prefix:/api/payment/}") String pathPrefix,
+                                  @Value("${payment.admission.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${payment.admission.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${payment.admission.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${payment.admission.concurrency.latency-tolerance:1.5}") double latencyTolerance,
+                                  @Value("${payment.admission.concurrency.smoothing:0.2}") double smoothing,
+                                  @Value("${payment.admission.concurrency.window-ms:100}") long windowMs,
+                                  @Value("${payment.admission.client.rate-per-second:50}") double clientRate,
+                                  @Value("${payment.admission.client.burst:100}") int clientBurst,
+                                  @Value("${payment.admission.client.max-clients:100000}") long maxClients) {
+        this.enabled = enabled;
+        this.pathPrefix = pathPrefix;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTolerance,
+            smoothing, TimeUnit.MILLISECONDS.toNanos(windowMs));
+        this.clientRateLimiter = new ClientRateLimiter(clientRate, clientBurst, maxClients);
+        Gauge.builder("payment.admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit of the payment endpoints")
+            .register(registry);
+        Gauge.builder("payment.admission.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Admitted payment requests currently in progress")
+            .register(registry);
+        this.concurrencyRejections = rejections(registry, "concurrency");
+        this.rateRejections = rejections(registry, "client_rate");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(pathPrefix);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+        long waitNanos = clientRateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(response, 1);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Streaming and deferred responses are still being written; hold the permit until they finish
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(start));
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Returns the permit of an asynchronously completed request once, whichever of completion, error or
+     * timeout the container reports first
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the new cycle; the permit is still held
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+            return "sub:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("payment.admission.rejected")
+            .description("Payment requests rejected by admission control")
+            .tag("reason", reason)
+            .register(registry);
+    }
+}
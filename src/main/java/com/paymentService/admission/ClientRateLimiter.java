@@ -0,0 +1,59 @@
+package com.paymentService.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, implemented with the generic cell rate algorithm.
+ * <p>
+ * Each client's bucket is a single {@link AtomicLong} holding its theoretical arrival time: the instant at
+ * which the bucket would be full again. A request is admitted by advancing that time by one emission
+ * interval with a CAS, as long as it stays within the burst allowance of now. Buckets of idle clients are
+ * evicted; a re-created bucket starts full, which is the same state an idle bucket would have reached.
+ */
+final class ClientRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstAllowanceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param ratePerSecond Sustained requests per second per client
+     * @param burst Requests a client may make at once after being idle
+     * @param maxClients Maximum number of client buckets held in memory
+     */
+    ClientRateLimiter(double ratePerSecond, int burst, long maxClients) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Client rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstAllowanceNanos = emissionIntervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofNanos(burstAllowanceNanos).plusSeconds(1))
+            .build();
+    }
+
+    /**
+     * Takes one token from the client's bucket
+     * @param client The client key
+     * @return 0 if admitted, otherwise the nanoseconds until a token will be available
+     */
+    long tryAcquire(String client) {
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = bucket.get();
+            long next = (arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival) + emissionIntervalNanos;
+            long wait = next - now - burstAllowanceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
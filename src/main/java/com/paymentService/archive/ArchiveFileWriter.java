@@ -0,0 +1,151 @@
+package com.paymentService.archive;
+
+import com.paymentService.csv.CsvWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes an archived partition as gzip-compressed CSV with a per-payment index.
+ * Rows must arrive ordered by payment id. Each payment's rows form a separate gzip member, so the
+ * data file is still a single valid {@code .csv.gz} while one payment's history can be read by
+ * seeking to its member. The index file lists payment id, member offset and member length in
+ * payment id order (see {@link ArchiveIndex}).
+ */
+final class ArchiveFileWriter implements Closeable {
+    static final String[] COLUMNS = {"id", "transaction_id", "payment_id", "amount", "currency", "account_number",
+        "routing_number", "account_holder_name", "status", "description", "created_at", "updated_at"};
+
+    private final FileChannel dataChannel;
+    private final CountingOutputStream data;
+    private final Path indexFile;
+    private final List<long[]> entries = new ArrayList<>();
+
+    private UUID currentPayment;
+    private long memberStart;
+    private GZIPOutputStream member;
+    private Writer memberWriter;
+    private CsvWriter csv;
+    private long rowCount;
+
+    ArchiveFileWriter(Path dataFile, Path indexFile) throws IOException {
+        this.dataChannel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+        this.data = new CountingOutputStream(new BufferedOutputStream(Channels.newOutputStream(dataChannel), 1 << 16));
+        this.indexFile = indexFile;
+        startMember();
+        csv.writeRecord(COLUMNS);
+        finishMember();
+    }
+
+    /**
+     * Appends one row
+     * @param paymentId The row's payment id; must not be lower than the previous row's
+     * @param fields The row values in {@link #COLUMNS} order
+     */
+    void write(UUID paymentId, String[] fields) throws IOException {
+        if (!paymentId.equals(currentPayment)) {
+            if (currentPayment != null) {
+                finishMember();
+                entries.add(new long[] {currentPayment.getMostSignificantBits(), currentPayment.getLeastSignificantBits(),
+                    memberStart, data.count - memberStart});
+            }
+            currentPayment = paymentId;
+            startMember();
+        }
+        csv.writeRecord(fields);
+        rowCount++;
+    }
+
+    /**
+     * Completes the data file, writes the index and forces both to disk
+     * @return The number of rows written
+     */
+    long finish() throws IOException {
+        if (currentPayment != null) {
+            finishMember();
+            entries.add(new long[] {currentPayment.getMostSignificantBits(), currentPayment.getLeastSignificantBits(),
+                memberStart, data.count - memberStart});
+            currentPayment = null;
+        }
+        data.flush();
+        dataChannel.force(true);
+
+        try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream index = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(indexChannel)));
+            index.writeInt(ArchiveIndex.MAGIC);
+            index.writeInt(entries.size());
+            for (long[] entry : entries) {
+                for (long value : entry) {
+                    index.writeLong(value);
+                }
+            }
+            index.flush();
+            indexChannel.force(true);
+        }
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataChannel.close();
+    }
+
+    private void startMember() throws IOException {
+        memberStart = data.count;
+        member = new GZIPOutputStream(new FilterOutputStream(data) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+                // Members share the data stream; it is only closed by the writer itself
+            }
+        }, 1 << 14);
+        memberWriter = new OutputStreamWriter(member, StandardCharsets.UTF_8);
+        csv = new CsvWriter(memberWriter);
+    }
+
+    private void finishMember() throws IOException {
+        memberWriter.flush();
+        member.finish();
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.paymentService.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * In-memory index of an archive data file: for each payment, the offset and length of the gzip member
+ * holding its rows. Entries are sorted by payment id in the database's uuid order (unsigned byte order),
+ * matching the order in which they were exported.
+ */
+final class ArchiveIndex {
+    static final int MAGIC = 0x50545831;
+
+    private final long[] mostSignificant;
+    private final long[] leastSignificant;
+    private final long[] offsets;
+    private final long[] lengths;
+
+    private ArchiveIndex(int size) {
+        mostSignificant = new long[size];
+        leastSignificant = new long[size];
+        offsets = new long[size];
+        lengths = new long[size];
+    }
+
+    static ArchiveIndex load(Path indexFile) throws IOException {
+        try (InputStream in = Files.newInputStream(indexFile)) {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not an archive index: " + indexFile);
+            }
+            ArchiveIndex index = new ArchiveIndex(data.readInt());
+            for (int i = 0; i < index.offsets.length; i++) {
+                index.mostSignificant[i] = data.readLong();
+                index.leastSignificant[i] = data.readLong();
+                index.offsets[i] = data.readLong();
+                index.lengths[i] = data.readLong();
+            }
+            return index;
+        }
+    }
+
+    /**
+     * @return The slot of the given payment, or -1 if the archive holds no rows for it
+     */
+    int find(UUID paymentId) {
+        long msb = paymentId.getMostSignificantBits();
+        long lsb = paymentId.getLeastSignificantBits();
+        int low = 0;
+        int high = offsets.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compareUnsigned(mostSignificant[mid], msb);
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(leastSignificant[mid], lsb);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    long offset(int slot) {
+        return offsets[slot];
+    }
+
+    long length(int slot) {
+        return lengths[slot];
+    }
+}
@@ -0,0 +1,288 @@
+package com.paymentService.archive;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentService.csv.CsvReader;
+import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.dto.response.MakePaymentResponse;
+import com.paymentService.model.TransactionArchive;
+import com.paymentService.model.repository.TransactionArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves payment history from archived partitions.
+ * The list of archives is cached and refreshed periodically; each archive's index is loaded on first
+ * use, so reading one payment's archived rows decompresses only that payment's block of the file.
+ * History reads take a {@link Snapshot} and use it for both the archived part and the lower bound of
+ * the live query, so rows are never returned twice or skipped while a partition is being archived.
+ */
+@Component
+public class ArchivedTransactionReader {
+    /** Lower bound for live queries when nothing has been archived */
+    private static final LocalDateTime NO_ARCHIVE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final long refreshIntervalNanos;
+    private final Cache<String, ArchiveIndex> indexes;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile long loadedAtNanos;
+
+    public ArchivedTransactionReader(TransactionArchiveRepository transactionArchiveRepository,
+                                     @Value("${payment.archive.refresh-interval-ms:60000}") long refreshIntervalMs,
+                                     @Value("${payment.archive.index-cache-size:24}") long indexCacheSize) {
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.refreshIntervalNanos = refreshIntervalMs * 1_000_000L;
+        this.indexes = Caffeine.newBuilder().maximumSize(indexCacheSize).build();
+    }
+
+    /**
+     * @return The current view of the archives; refreshed at most once per refresh interval
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - loadedAtNanos > refreshIntervalNanos) {
+            if (current == null) {
+                refreshLock.lock();
+            } else if (!refreshLock.tryLock()) {
+                // Another thread is reloading; the current view stays valid meanwhile
+                return current;
+            }
+            try {
+                if (snapshot == current) {
+                    load();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reloads the list of archives immediately
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void load() {
+        List<TransactionArchive> archives = transactionArchiveRepository.findAllByOrderByRangeStartAsc();
+        snapshot = new Snapshot(archives);
+        loadedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * An immutable view of the archives at one point in time.
+     */
+    public class Snapshot {
+        private final List<TransactionArchive> archives;
+        private final LocalDateTime liveFrom;
+
+        private Snapshot(List<TransactionArchive> archives) {
+            this.archives = archives;
+            LocalDateTime end = NO_ARCHIVE;
+            for (TransactionArchive archive : archives) {
+                if (archive.getRangeEnd().isAfter(end)) {
+                    end = archive.getRangeEnd();
+                }
+            }
+            this.liveFrom = end;
+        }
+
+        /**
+         * @return The created_at lower bound for reading the transactions table; everything older is served from archives
+         */
+        public LocalDateTime liveFrom() {
+            return liveFrom;
+        }
+
+        /**
+         * Reads a payment's archived history in (createdAt, id) order
+         *
+         * @param paymentId The payment whose history is read
+         * @param afterCreatedAt Keyset position to read after, or null to read from the start
+         * @param afterId Keyset position to read after, or null to read from the start
+         * @param limit The maximum number of rows to deliver
+         * @param consumer Receives each row
+         * @return The number of rows delivered
+         */
+        public int readHistory(UUID paymentId, LocalDateTime afterCreatedAt, UUID afterId, int limit,
+                               Consumer<MakePaymentResponse> consumer) {
+            int delivered = 0;
+            for (TransactionArchive archive : archives) {
+                if (delivered >= limit) {
+                    break;
+                }
+                if (afterCreatedAt != null && !archive.getRangeEnd().isAfter(afterCreatedAt)) {
+                    continue;
+                }
+                ArchiveIndex index = index(archive);
+                int slot = index.find(paymentId);
+                if (slot < 0) {
+                    continue;
+                }
+                delivered += readBlock(Paths.get(archive.getDataFile()), index.offset(slot), index.length(slot),
+                    afterCreatedAt, afterId, limit - delivered, consumer);
+            }
+            return delivered;
+        }
+
+        /**
+         * Reads every archived transaction created in [from, to), one archive file after another
+         *
+         * @param from Inclusive lower bound of created_at
+         * @param to Exclusive upper bound of created_at
+         * @param consumer Receives each row, in file order
+         */
+        public void scan(LocalDateTime from, LocalDateTime to, Consumer<BankTransferResponse> consumer) {
+            for (TransactionArchive archive : archives) {
+                if (archive.getRangeEnd().isAfter(from) && archive.getRangeStart().isBefore(to)) {
+                    scanFile(Paths.get(archive.getDataFile()), from, to, consumer);
+                }
+            }
+        }
+    }
+
+    private ArchiveIndex index(TransactionArchive archive) {
+        return indexes.get(archive.getIndexFile(), file -> {
+            try {
+                return ArchiveIndex.load(Paths.get(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load archive index " + file, e);
+            }
+        });
+    }
+
+    private static int readBlock(Path dataFile, long offset, long length, LocalDateTime afterCreatedAt, UUID afterId,
+                                 int limit, Consumer<MakePaymentResponse> consumer) {
+        int delivered = 0;
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            channel.position(offset);
+            InputStream member = new GZIPInputStream(new BoundedInputStream(Channels.newInputStream(channel), length), 1 << 14);
+            CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(member, StandardCharsets.UTF_8)));
+            List<String> record;
+            while (delivered < limit && (record = csv.readRecord()) != null) {
+                UUID id = UUID.fromString(record.get(0));
+                LocalDateTime createdAt = LocalDateTime.parse(record.get(10));
+                if (afterCreatedAt != null && compare(createdAt, id, afterCreatedAt, afterId) <= 0) {
+                    continue;
+                }
+                consumer.accept(new MakePaymentResponse(id, new BigDecimal(record.get(3)), record.get(8), createdAt));
+                delivered++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive " + dataFile, e);
+        }
+        return delivered;
+    }
+
+    /**
+     * Reads a whole archive file; its gzip members decompress as one stream, the first holding the header row
+     */
+    private static void scanFile(Path dataFile, LocalDateTime from, LocalDateTime to, Consumer<BankTransferResponse> consumer) {
+        try (InputStream data = new GZIPInputStream(Files.newInputStream(dataFile), 1 << 16)) {
+            CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8), 1 << 16));
+            csv.readRecord();
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                LocalDateTime createdAt = LocalDateTime.parse(record.get(10));
+                if (createdAt.isBefore(from) || !createdAt.isBefore(to)) {
+                    continue;
+                }
+                consumer.accept(new BankTransferResponse(record.get(1), record.get(5), record.get(6), record.get(7),
+                    new BigDecimal(record.get(3)), record.get(4), record.get(8), createdAt, record.get(9)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive " + dataFile, e);
+        }
+    }
+
+    /**
+     * Orders rows the way the database orders (created_at, id); uuids compare as unsigned bytes
+     */
+    private static int compare(LocalDateTime createdAt, UUID id, LocalDateTime otherCreatedAt, UUID otherId) {
+        int cmp = createdAt.compareTo(otherCreatedAt);
+        if (cmp != 0 || otherId == null) {
+            return cmp;
+        }
+        cmp = Long.compareUnsigned(id.getMostSignificantBits(), otherId.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(id.getLeastSignificantBits(), otherId.getLeastSignificantBits());
+    }
+
+    /**
+     * Limits reading to one gzip member, so the decompressor does not continue into the next payment's block
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.paymentService.archive;
+
+import com.paymentService.model.CurrencyConverter;
+import com.paymentService.model.TransactionArchive;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.model.repository.TransactionArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves closed monthly partitions of the transactions table to compressed archive files.
+ * A partition is closed once it is older than the retention period. Archiving happens in two runs:
+ * the first exports the partition and records the archive together with the partition's per-payment summary
+ * totals, after which history reads on every node start serving that month from the archive; a later run, once the detach grace period has passed,
+ * detaches the partition. Only one node archives at a time.
+ * Enabled with {@code payment.archive.enabled=true}; requires partitioning to be enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TransactionArchiver {
+    private static final long ADVISORY_LOCK_KEY = 0x7472616e73L;
+    /** Produces the archive columns ({@link ArchiveFileWriter#COLUMNS}) from a partition joined with its counterparty accounts */
+    private static final String[] SELECT_COLUMNS = {"t.id", "t.transaction_id", "t.payment_id", "t.amount", "t.currency",
+        "c.account_number", "c.routing_number", "c.account_holder_name", "t.status", "t.description", "t.created_at", "t.updated_at"};
+    private static final int CURRENCY = 4;
+    private static final int STATUS = 8;
+
+    private final TransactionPartitionManager partitionManager;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedTransactionReader archivedTransactionReader;
+
+    @Value("${payment.archive.directory:./archive}")
+    private String directory;
+
+    @Value("${payment.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${payment.archive.detach-grace-minutes:10}")
+    private long detachGraceMinutes;
+
+    @Value("${payment.archive.drop-detached:false}")
+    private boolean dropDetached;
+
+    @Value("${payment.archive.fetch-size:5000}")
+    private int fetchSize;
+
+    /**
+     * Exports closed partitions that have no archive yet, and detaches archived partitions whose grace period has passed
+     */
+    @Scheduled(cron = "${payment.archive.cron:0 45 1 * * *}")
+    public void archiveClosedPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<TransactionPartition> detachable = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Transaction-scoped advisory lock, released when the exports are committed
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            for (TransactionPartition partition : partitionManager.listPartitions()) {
+                if (partition.getMonth() == null || !partition.getMonth().isBefore(cutoff)) {
+                    continue;
+                }
+                TransactionArchive archive = transactionArchiveRepository.findById(partition.getName()).orElse(null);
+                if (archive == null) {
+                    transactionArchiveRepository.save(export(partition));
+                    recordSummaries(partition);
+                } else if (archive.getArchivedAt().plusMinutes(detachGraceMinutes).isBefore(LocalDateTime.now())) {
+                    detachable.add(partition);
+                }
+            }
+        });
+        archivedTransactionReader.refresh();
+
+        // A concurrent detach cannot run inside a transaction block
+        for (TransactionPartition partition : detachable) {
+            detach(partition);
+        }
+    }
+
+    /**
+     * Streams a partition through a server-side cursor into its archive files
+     */
+    private TransactionArchive export(TransactionPartition partition) {
+        String name = TransactionPartitionManager.checkedName(partition.getName());
+        Path dir = Paths.get(directory);
+        Path dataFile = dir.resolve(name + ".csv.gz");
+        Path indexFile = dir.resolve(name + ".idx");
+        Path dataTemp = dir.resolve(name + ".csv.gz.tmp");
+        Path indexTemp = dir.resolve(name + ".idx.tmp");
+        long rows;
+        try {
+            Files.createDirectories(dir);
+            try (ArchiveFileWriter writer = new ArchiveFileWriter(dataTemp, indexTemp)) {
+                String[] fields = new String[ArchiveFileWriter.COLUMNS.length];
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT " + String.join(", ", SELECT_COLUMNS)
+                        + " FROM " + name + " t LEFT JOIN counterparty_accounts c ON c.id = t.counterparty_account_id"
+                        + " ORDER BY t.payment_id, t.created_at, t.id");
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, rs -> {
+                    for (int i = 0; i < fields.length; i++) {
+                        Object value = rs.getObject(i + 1);
+                        fields[i] = value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime().toString()
+                            : value == null ? null : value.toString();
+                    }
+                    // Archives keep the readable spelling of the coded columns
+                    fields[CURRENCY] = fields[CURRENCY] == null ? null
+                        : CurrencyConverter.fromCode(Integer.parseInt(fields[CURRENCY])).getCurrencyCode();
+                    fields[STATUS] = TransferStatus.fromCode(Integer.parseInt(fields[STATUS])).name();
+                    try {
+                        writer.write(UUID.fromString(fields[2]), fields);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                rows = writer.finish();
+            }
+            Files.move(indexTemp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(dataTemp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archiving " + name + " failed", e);
+        }
+
+        TransactionArchive archive = new TransactionArchive();
+        archive.setPartitionName(name);
+        archive.setRangeStart(partition.getMonth().atDay(1).atStartOfDay());
+        archive.setRangeEnd(partition.getMonth().plusMonths(1).atDay(1).atStartOfDay());
+        archive.setDataFile(dataFile.toAbsolutePath().toString());
+        archive.setIndexFile(indexFile.toAbsolutePath().toString());
+        archive.setRowCount(rows);
+        archive.setArchivedAt(LocalDateTime.now());
+        return archive;
+    }
+
+    /**
+     * Records the partition's per-payment totals, which summary rebuilds count in place of its rows from now on.
+     * Runs in the transaction that records the archive, so both appear together.
+     */
+    private void recordSummaries(TransactionPartition partition) {
+        String name = TransactionPartitionManager.checkedName(partition.getName());
+        jdbcTemplate.update("DELETE FROM archived_payment_summaries WHERE partition_name = ?", name);
+        // Statuses are matched by their stored codes, as in the summary rebuild
+        jdbcTemplate.update("INSERT INTO archived_payment_summaries (partition_name, payment_id, transaction_count, "
+            + "total_amount, pending_count, pending_amount, processing_count, processing_amount, "
+            + "completed_count, completed_amount, failed_count, failed_amount, last_activity_at) "
+            + "SELECT ?, payment_id, count(*), coalesce(sum(amount), 0), "
+            + "count(*) FILTER (WHERE status = 1), coalesce(sum(amount) FILTER (WHERE status = 1), 0), "
+            + "count(*) FILTER (WHERE status = 2), coalesce(sum(amount) FILTER (WHERE status = 2), 0), "
+            + "count(*) FILTER (WHERE status = 3), coalesce(sum(amount) FILTER (WHERE status = 3), 0), "
+            + "count(*) FILTER (WHERE status = 4), coalesce(sum(amount) FILTER (WHERE status = 4), 0), "
+            + "max(coalesce(updated_at, created_at)) "
+            + "FROM " + name + " WHERE payment_id IS NOT NULL GROUP BY payment_id", name);
+    }
+
+    private void detach(TransactionPartition partition) {
+        try {
+            partitionManager.detachPartition(partition, dropDetached);
+        } catch (DataAccessException e) {
+            // Another node may have detached it in the meantime
+            boolean stillAttached = partitionManager.listPartitions().stream()
+                .anyMatch(attached -> attached.getName().equals(partition.getName()));
+            if (stillAttached) {
+                throw e;
+            }
+        }
+        transactionArchiveRepository.findById(partition.getName()).ifPresent(archive -> {
+            if (archive.getDetachedAt() == null) {
+                archive.setDetachedAt(LocalDateTime.now());
+                transactionArchiveRepository.save(archive);
+            }
+        });
+    }
+}
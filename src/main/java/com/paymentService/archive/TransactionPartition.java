@@ -0,0 +1,17 @@
+package com.paymentService.archive;
+
+import lombok.Value;
+
+import java.time.YearMonth;
+
+/**
+ * A partition attached to the transactions table.
+ */
+@Value
+public class TransactionPartition {
+    String name;
+    /** The month it covers, or null if the name does not follow the monthly naming scheme */
+    YearMonth month;
+    /** true if a concurrent detach was started but not finalized */
+    boolean detachPending;
+}
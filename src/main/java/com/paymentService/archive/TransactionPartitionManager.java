@@ -0,0 +1,119 @@
+package com.paymentService.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of the transactions table.
+ * Partitions are created ahead of time so that inserts never hit a missing range. The table itself
+ * is converted to a partitioned table by {@code db/transactions_partitioning.sql}.
+ * Enabled with {@code payment.partitioning.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.partitioning.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TransactionPartitionManager {
+    private static final Pattern PARTITION_NAME = Pattern.compile("^transactions_p(\\d{4})(\\d{2})$");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${payment.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * Creates the partitions for the current month and the configured number of months ahead, if missing
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payment.partitioning.maintenance-cron:0 15 0 * * *}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * Lists the partitions currently attached to the transactions table, oldest first
+     */
+    public List<TransactionPartition> listPartitions() {
+        return jdbcTemplate.query("SELECT c.relname, i.inhdetachpending FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname = 'transactions' ORDER BY c.relname",
+            (rs, rowNum) -> new TransactionPartition(rs.getString(1), monthOf(rs.getString(1)), rs.getBoolean(2)));
+    }
+
+    /**
+     * Detaches a partition from the transactions table without blocking concurrent reads and writes,
+     * and optionally drops it
+     */
+    public void detachPartition(TransactionPartition partition, boolean drop) {
+        String name = checkedName(partition.getName());
+        if (partition.isDetachPending()) {
+            jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + name + " FINALIZE");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + name + " CONCURRENTLY");
+        }
+        if (drop) {
+            jdbcTemplate.execute("DROP TABLE " + name);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF transactions "
+            + "FOR VALUES FROM ('" + start + "') TO ('" + start.plusMonths(1) + "')";
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            // Another node may have created the same partition concurrently
+            if (!partitionExists(month)) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(month));
+    }
+
+    /**
+     * @return The table name of the partition covering the given month
+     */
+    public static String partitionName(YearMonth month) {
+        return String.format("transactions_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * @return The month covered by a partition, or null if the name is not a monthly partition name
+     */
+    public static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    /**
+     * Partition names are interpolated into DDL, so only names of the monthly scheme are accepted
+     */
+    static String checkedName(String partitionName) {
+        if (monthOf(partitionName) == null) {
+            throw new IllegalArgumentException("Not a monthly transactions partition: " + partitionName);
+        }
+        return partitionName;
+    }
+}
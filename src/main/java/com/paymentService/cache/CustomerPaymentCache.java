@@ -0,0 +1,128 @@
+package com.paymentService.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentService.dto.response.CacheStatsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of external customer id to internal customer and payment ids.
+ * <p>
+ * Loads are de-duplicated per key: concurrent callers for the same customer wait on the first
+ * caller's load instead of racing to create the same rows. The load itself runs on the calling
+ * thread outside of the cache's internal locks, so a slow database round-trip for one customer
+ * never blocks lookups of other customers. Loads that return {@code null} or fail are not cached.
+ */
+@Component
+public class CustomerPaymentCache {
+    private final AsyncCache<UUID, ResolvedCustomer> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    public CustomerPaymentCache(@Value("${payment.cache.customer.maximum-size:100000}") long maximumSize,
+                                @Value("${payment.cache.customer.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .buildAsync();
+    }
+
+    /**
+     * Returns the cached ids for a customer, loading them with the given function on a miss
+     * @param customerId The external customer id
+     * @param loader Resolves the ids from the database; may return null if the customer does not exist
+     * @return The resolved ids, or null if the loader returned null
+     */
+    public ResolvedCustomer get(UUID customerId, Function<UUID, ResolvedCustomer> loader) {
+        CompletableFuture<ResolvedCustomer> cached = cache.getIfPresent(customerId);
+        if (cached != null) {
+            hits.increment();
+            return join(cached);
+        }
+        CompletableFuture<ResolvedCustomer> load = new CompletableFuture<>();
+        CompletableFuture<ResolvedCustomer> existing = cache.asMap().putIfAbsent(customerId, load);
+        if (existing != null) {
+            hits.increment();
+            return join(existing);
+        }
+        misses.increment();
+        try {
+            ResolvedCustomer resolved = loader.apply(customerId);
+            load.complete(resolved);
+            return resolved;
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the ids of a customer whose rows are known to exist
+     * @param customerId The external customer id
+     * @param resolved The internal ids
+     */
+    public void put(UUID customerId, ResolvedCustomer resolved) {
+        cache.put(customerId, CompletableFuture.completedFuture(resolved));
+    }
+
+    /**
+     * Returns the cached ids for a customer without loading
+     * @param customerId The external customer id
+     * @return The cached ids, or null if absent or still loading
+     */
+    public ResolvedCustomer getIfPresent(UUID customerId) {
+        CompletableFuture<ResolvedCustomer> cached = cache.getIfPresent(customerId);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return null;
+        }
+        return cached.join();
+    }
+
+    /**
+     * Removes a customer's cached ids
+     * @param customerId The external customer id
+     */
+    public void invalidate(UUID customerId) {
+        cache.synchronous().invalidate(customerId);
+    }
+
+    /**
+     * Returns hit, miss and eviction statistics for the cache
+     * @return CacheStatsResponse containing the current statistics
+     */
+    public CacheStatsResponse stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStatsResponse(
+            cache.synchronous().estimatedSize(),
+            hitCount,
+            missCount,
+            requests == 0 ? 0.0 : (double) hitCount / requests,
+            loadFailures.sum(),
+            cache.synchronous().stats().evictionCount()
+        );
+    }
+
+    private static ResolvedCustomer join(CompletableFuture<ResolvedCustomer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.paymentService.cache;
+
+import lombok.Value;
+import java.util.UUID;
+
+/**
+ * Internal identifiers resolved for an external customer id.
+ */
+@Value
+public class ResolvedCustomer {
+    UUID customerId;
+    UUID paymentId;
+}
@@ -0,0 +1,37 @@
+package com.paymentService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the asynchronous bank-transfer pipeline.
+ * Transfers accepted by the async endpoint are executed on a bounded pool so that
+ * external bank latency never holds a servlet thread or a pooled JDBC connection.
+ */
+@Configuration
+public class AsyncTransferConfig {
+
+    /**
+     * Creates the bounded executor that performs external bank calls.
+     * When both the workers and the queue are saturated, submissions are rejected instead of queued without bound.
+     *
+     * @param workers Number of worker threads calling the external bank
+     * @param queueCapacity Maximum number of accepted transfers waiting for a worker
+     * @return The configured executor
+     */
+    @Bean(name = "bankTransferExecutor")
+    public ThreadPoolTaskExecutor bankTransferExecutor(
+            @Value("${payment.transfer.async.workers:8}") int workers,
+            @Value("${payment.transfer.async.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bank-transfer-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,137 @@
+package com.paymentService.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the external banking gateway.
+ * Builds a single pooled, keep-alive HTTP client with explicit timeouts, plus the bulkhead and
+ * circuit breaker that protect the service when the bank slows down or fails.
+ */
+@Configuration
+public class BankingGatewayConfig {
+
+    /**
+     * Creates the connection pool shared by all calls to the bank.
+     *
+     * @param maxConnections Maximum number of pooled connections to the bank
+     * @param connectTimeoutMs TCP/TLS connect timeout in milliseconds
+     * @param readTimeoutMs Socket read timeout in milliseconds
+     * @return The pooled connection manager
+     */
+    @Bean(name = "bankingConnectionManager")
+    public PoolingHttpClientConnectionManager bankingConnectionManager(
+            @Value("${banking.gateway.max-connections:50}") int maxConnections,
+            @Value("${banking.gateway.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${banking.gateway.read-timeout-ms:5000}") long readTimeoutMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                .build())
+            .build();
+    }
+
+    /**
+     * Creates the HTTP client used for bank calls.
+     *
+     * @param connectionManager The pooled connection manager
+     * @param readTimeoutMs Maximum time to wait for the bank's response, in milliseconds
+     * @param poolTimeoutMs Maximum time to wait for a free pooled connection, in milliseconds
+     * @return The HTTP client; closed together with the application context
+     */
+    @Bean(name = "bankingHttpClient")
+    public CloseableHttpClient bankingHttpClient(
+            @Qualifier("bankingConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${banking.gateway.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${banking.gateway.pool-timeout-ms:500}") long poolTimeoutMs) {
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build())
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .evictExpiredConnections()
+            .build();
+    }
+
+    /**
+     * Creates the REST client bound to the bank's base URL.
+     *
+     * @param builder Spring Boot's preconfigured RestClient builder
+     * @param httpClient The pooled HTTP client
+     * @param baseUrl Base URL of the external banking API
+     * @return The REST client
+     */
+    @Bean(name = "bankingRestClient")
+    public RestClient bankingRestClient(
+            RestClient.Builder builder,
+            @Qualifier("bankingHttpClient") CloseableHttpClient httpClient,
+            @Value("${banking.gateway.base-url}") String baseUrl) {
+        return builder
+            .baseUrl(baseUrl)
+            .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+            .build();
+    }
+
+    /**
+     * Creates the circuit breaker guarding bank calls.
+     * It opens when the failure or slow-call rate over the sliding window crosses the threshold,
+     * and fails fast until the open period has elapsed.
+     *
+     * @return The circuit breaker
+     */
+    @Bean(name = "bankingCircuitBreaker")
+    public CircuitBreaker bankingCircuitBreaker(
+            @Value("${banking.gateway.circuit.window-size:50}") int windowSize,
+            @Value("${banking.gateway.circuit.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${banking.gateway.circuit.slow-call-ms:3000}") long slowCallMs,
+            @Value("${banking.gateway.circuit.open-ms:10000}") long openMs) {
+        return CircuitBreaker.of("banking", CircuitBreakerConfig.custom()
+            .slidingWindowSize(windowSize)
+            .minimumNumberOfCalls(Math.min(windowSize, 10))
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+            .waitDurationInOpenState(Duration.ofMillis(openMs))
+            .permittedNumberOfCallsInHalfOpenState(5)
+            .build());
+    }
+
+    /**
+     * Creates the bulkhead capping the number of in-flight bank calls.
+     *
+     * @return The bulkhead
+     */
+    @Bean(name = "bankingBulkhead")
+    public Bulkhead bankingBulkhead(
+            @Value("${banking.gateway.max-concurrent-calls:32}") int maxConcurrentCalls,
+            @Value("${banking.gateway.max-wait-ms:50}") long maxWaitMs) {
+        return Bulkhead.of("banking", BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+            .build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.paymentService.config;
+
+import com.paymentService.datasource.DataSourceRouteInterceptor;
+import com.paymentService.datasource.RecentWriteTracker;
+import com.paymentService.datasource.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for routing reads to a replica database.
+ * Active only when a replica is configured; otherwise Spring Boot's single data source is used unchanged.
+ * The primary pool keeps the spring.datasource settings; the replica pool is configured under
+ * payment.datasource.replica, with credentials defaulting to the primary's.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Creates the writable primary pool from the standard spring.datasource properties.
+     *
+     * @param properties The spring.datasource properties
+     * @return The primary pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the read-only replica pool.
+     *
+     * @param properties The spring.datasource properties, for the driver
+     * @param url JDBC URL of the replica
+     * @param username Replica user
+     * @param password Replica password
+     * @return The replica pool
+     */
+    @Bean
+    @ConfigurationProperties("payment.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${payment.datasource.replica.url}") String url,
+            @Value("${payment.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${payment.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        replica.setPoolName("payment-service-replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * Creates the application data source, used by JPA and JdbcTemplate alike.
+     *
+     * @param primary The primary pool
+     * @param replica The replica pool
+     * @return A data source choosing a pool per transaction
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return RoutingDataSource.lazy(primary, replica);
+    }
+
+    /**
+     * Applies {@link com.paymentService.datasource.DataSourceRoute} and
+     * {@link com.paymentService.datasource.ConsistencyKey} ahead of the transaction interceptor.
+     *
+     * @param recentWriteTracker Recent writes for the read-your-writes window
+     * @return The routing advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor dataSourceRouteAdvisor(RecentWriteTracker recentWriteTracker) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(DataSourceRouteInterceptor.pointcut(),
+            new DataSourceRouteInterceptor(recentWriteTracker));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.paymentService.config;
+
+import com.paymentService.id.EntityIdGenerator;
+import com.paymentService.id.IdGenerator;
+import com.paymentService.id.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Configuration of the ids given to customers, payments, transactions and transfers.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    /**
+     * Creates the id generator and makes it the generator of entity keys as well
+     *
+     * @param strategy "time-ordered" for UUIDv7 ids, or "random" for random (version 4) UUIDs
+     * @param nodeId This instance's node id, 0 to 1023, unique per running instance; negative to derive one
+     *               from the host name and process id
+     * @return The configured generator
+     */
+    @Bean
+    public IdGenerator idGenerator(
+            @Value("${payment.id.generator:time-ordered}") String strategy,
+            @Value("${payment.id.node-id:-1}") int nodeId) {
+        IdGenerator generator = switch (strategy) {
+            case "time-ordered" -> new TimeOrderedIdGenerator(nodeId < 0 ? TimeOrderedIdGenerator.defaultNodeId() : nodeId);
+            case "random" -> UUID::randomUUID;
+            default -> throw new IllegalArgumentException("Unknown payment.id.generator: " + strategy);
+        };
+        EntityIdGenerator.use(generator);
+        return generator;
+    }
+}
@@ -0,0 +1,61 @@
+package com.paymentService.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking database access for the reactive read endpoints.
+ * The R2DBC pool is deliberately not exposed as a ConnectionFactory bean: Spring Boot backs off its JDBC
+ * DataSource auto-configuration when one exists, and the JPA write path must keep its Hikari pool.
+ * Only reads go through this client, so no reactive transaction manager is configured.
+ */
+@Configuration
+public class ReactiveDatabaseConfig {
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Creates the client used by the reactive read endpoints.
+     *
+     * @param url R2DBC URL of the payment database
+     * @param username Database user
+     * @param password Database password
+     * @param maxSize Maximum number of pooled connections; a handful serves many concurrent streams
+     * @return The configured client
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${payment.reactive.r2dbc.url:r2dbc:postgresql://localhost:5432/paymentService}") String url,
+            @Value("${payment.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${payment.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${payment.reactive.r2dbc.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("payment-service-reactive")
+            .initialSize(Math.min(2, maxSize))
+            .maxSize(maxSize)
+            .maxIdleTime(Duration.ofMinutes(10))
+            .maxAcquireTime(Duration.ofSeconds(5))
+            .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
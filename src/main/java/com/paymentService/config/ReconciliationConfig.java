@@ -0,0 +1,49 @@
+package com.paymentService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for settlement reconciliation.
+ * Jobs run one at a time on their own thread; each job fans its partition work out over a worker pool
+ * sized to the machine so a reconciliation uses every core without competing with the bank-transfer pool.
+ */
+@Configuration
+public class ReconciliationConfig {
+
+    /**
+     * Creates the executor that runs reconciliation jobs one after another.
+     *
+     * @param maxQueuedJobs Maximum number of uploaded settlement files waiting for the running job to finish
+     * @return The configured executor
+     */
+    @Bean(name = "reconciliationJobExecutor")
+    public ThreadPoolTaskExecutor reconciliationJobExecutor(
+            @Value("${payment.reconciliation.max-queued-jobs:4}") int maxQueuedJobs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(maxQueuedJobs);
+        executor.setThreadNamePrefix("reconciliation-");
+        return executor;
+    }
+
+    /**
+     * Creates the pool that spills the ledger and matches partitions for the running job.
+     *
+     * @param threads Number of worker threads; 0 uses one per available processor
+     * @return The configured executor
+     */
+    @Bean(name = "reconciliationWorkerExecutor")
+    public ThreadPoolTaskExecutor reconciliationWorkerExecutor(
+            @Value("${payment.reconciliation.threads:0}") int threads) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("reconciliation-worker-");
+        return executor;
+    }
+}
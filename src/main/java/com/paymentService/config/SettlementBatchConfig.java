@@ -0,0 +1,37 @@
+package com.paymentService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for windowed batch submission of transfers to the external bank.
+ */
+@Configuration
+public class SettlementBatchConfig {
+
+    /**
+     * Creates the executor that settles closed batches, one batch per thread.
+     * It has no queue: when all threads are busy the batch runs on the collecting thread, which then stops
+     * forming new batches, so waiting transfers accumulate in the batcher's bounded queue instead.
+     *
+     * @param concurrentBatches Maximum number of batch calls in flight to the bank
+     * @return The configured executor
+     */
+    @Bean(name = "settlementBatchExecutor")
+    public ThreadPoolTaskExecutor settlementBatchExecutor(
+            @Value("${payment.settlement.concurrent-batches:4}") int concurrentBatches) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrentBatches);
+        executor.setMaxPoolSize(concurrentBatches);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("settlement-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.paymentService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for bank-transfer file ingestion.
+ * Files are ingested one at a time; each file's chunks are validated and persisted on a worker pool sized
+ * to the machine, while a dedicated thread feeds the persisted transfers to the bank-transfer pool.
+ */
+@Configuration
+public class TransferFileIngestionConfig {
+
+    /**
+     * Creates the executor that runs ingestion jobs one after another.
+     *
+     * @param maxQueuedJobs Maximum number of uploaded files waiting for the running job to finish
+     * @return The configured executor
+     */
+    @Bean(name = "transferFileJobExecutor")
+    public ThreadPoolTaskExecutor transferFileJobExecutor(
+            @Value("${payment.ingestion.max-queued-jobs:4}") int maxQueuedJobs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(maxQueuedJobs);
+        executor.setThreadNamePrefix("transfer-file-");
+        return executor;
+    }
+
+    /**
+     * Creates the pool that validates and persists chunks of the running job.
+     * The job bounds the chunks it has in flight, so the queue needs no capacity limit.
+     *
+     * @param threads Number of worker threads; 0 uses one per available processor
+     * @return The configured executor
+     */
+    @Bean(name = "transferFileWorkerExecutor")
+    public ThreadPoolTaskExecutor transferFileWorkerExecutor(
+            @Value("${payment.ingestion.threads:0}") int threads) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("transfer-file-worker-");
+        return executor;
+    }
+
+    /**
+     * Creates the executor whose thread hands the running job's persisted transfers to the bank-transfer pool.
+     *
+     * @return The configured executor
+     */
+    @Bean(name = "transferFileSubmissionExecutor")
+    public ThreadPoolTaskExecutor transferFileSubmissionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("transfer-file-submitter-");
+        return executor;
+    }
+}
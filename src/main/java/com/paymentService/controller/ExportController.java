@@ -0,0 +1,82 @@
+package com.paymentService.controller;
+
+import com.paymentService.export.ExportFormat;
+import com.paymentService.export.TransactionExporter;
+import com.paymentService.model.TransferStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/payment/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final TransactionExporter transactionExporter;
+
+    /**
+     * Streams every transaction created in a date range, including archived months, as CSV or NDJSON.
+     * The response is compressed with gzip when the client accepts it.
+     * 
+     * @param from First day of the range (ISO date, inclusive)
+     * @param to Last day of the range (ISO date, inclusive)
+     * @param status Optional status filter
+     * @param currency Optional currency filter
+     * @param format csv (default) or ndjson
+     * @param acceptEncoding The client's accepted content codings
+     * @return ResponseEntity streaming one transaction per row,
+     *         or BAD_REQUEST for an empty range, unknown status or unknown format
+     */
+    @GetMapping("/transactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat;
+        TransferStatus statusFilter;
+        try {
+            exportFormat = ExportFormat.fromValue(format);
+            statusFilter = status == null ? null : TransferStatus.fromValue(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String currencyFilter = currency == null ? null : currency.trim().toUpperCase();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 1 << 16) : out;
+            transactionExporter.export(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), statusFilter, currencyFilter,
+                exportFormat, target);
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + from + "-" + to + "."
+                + exportFormat.getExtension() + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,175 @@
+package com.paymentService.controller;
+
+import com.paymentService.cache.CustomerPaymentCache;
+import com.paymentService.dto.response.CacheStatsResponse;
+import com.paymentService.dto.response.GatewayMetricsResponse;
+import com.paymentService.gateway.BankingGateway;
+import com.paymentService.dto.response.ReconciliationJobResponse;
+import com.paymentService.outbox.TransferOutboxRelay;
+import com.paymentService.outbox.TransferStatusChangedEvent;
+import com.paymentService.reconciliation.ReconciliationService;
+import com.paymentService.dto.response.RoutingDirectoryResponse;
+import com.paymentService.routing.RoutingNumberDirectory;
+import com.paymentService.service.implementations.PaymentSummaryUpdater;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.springframework.web.bind.annotation.PostMapping;
+import java.util.Map;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Operations endpoints: gateway and cache metrics, transfer events, summary rebuilds, reconciliation and the
+ * routing directory. {@link com.paymentService.securityConfig.SecurityConfig} restricts them to the ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class OperationsController {
+
+    private final BankingGateway bankingGateway;
+    private final CustomerPaymentCache customerPaymentCache;
+    private final TransferOutboxRelay transferOutboxRelay;
+    private final PaymentSummaryUpdater paymentSummaryUpdater;
+    private final ReconciliationService reconciliationService;
+    private final RoutingNumberDirectory routingNumberDirectory;
+
+    /**
+     * Retrieves call, resilience and connection-pool metrics of the external banking gateway
+     * 
+     * @return ResponseEntity containing the current gateway metrics
+     */
+    @GetMapping("/bank-gateway/metrics")
+    public ResponseEntity<GatewayMetricsResponse> getBankGatewayMetrics() {
+        return ResponseEntity.ok(bankingGateway.metrics());
+    }
+
+    /**
+     * Retrieves hit, miss and eviction statistics of the customer/payment resolution cache
+     * 
+     * @return ResponseEntity containing the current cache statistics
+     */
+    @GetMapping("/cache/customer-payments")
+    public ResponseEntity<CacheStatsResponse> getCustomerPaymentCacheStats() {
+        return ResponseEntity.ok(customerPaymentCache.stats());
+    }
+
+    /**
+     * Reads the transfer status-change feed in sequence order
+     * 
+     * @param after The last sequence number already consumed; 0 to read from the oldest retained event
+     * @param limit The maximum number of events to return, at most 1000
+     * @return ResponseEntity containing the next events of the feed
+     */
+    @GetMapping("/transfer-events")
+    public ResponseEntity<List<TransferStatusChangedEvent>> getTransferEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(transferOutboxRelay.readFeed(after, Math.min(limit, 1000)));
+    }
+
+    /**
+     * Recomputes all payment summaries from the transactions table.
+     * Summary updates by concurrent payments wait until the rebuild completes.
+     * 
+     * @return ResponseEntity containing the number of summaries written
+     */
+    @PostMapping("/payment-summaries/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildPaymentSummaries() {
+        return ResponseEntity.ok(Map.of("summaries", paymentSummaryUpdater.rebuild()));
+    }
+
+    /**
+     * Uploads the bank's settlement file for a business day and queues its reconciliation against the ledger
+     * 
+     * @param file Settlement CSV with a header row containing at least transaction_id, amount and status
+     * @param date The business day to reconcile (ISO date)
+     * @param correct Whether to move ledger transfers to the settled status where allowed
+     * @return ACCEPTED with the queued job and its status location,
+     *         SERVICE_UNAVAILABLE if too many reconciliations are queued,
+     *         or INTERNAL_SERVER_ERROR if the file could not be stored
+     */
+    @PostMapping(value = "/reconciliations", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ReconciliationJobResponse> startReconciliation(
+            @RequestParam MultipartFile file,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean correct) {
+        try (InputStream settlementFile = file.getInputStream()) {
+            ReconciliationJobResponse response = reconciliationService.submit(settlementFile, date, correct);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/reconciliations/" + response.getJobId()))
+                .body(response);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "60").build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the progress and mismatch counts of a reconciliation
+     * 
+     * @param jobId The job id returned when the settlement file was uploaded
+     * @return ResponseEntity containing the job, or NOT_FOUND if the job is unknown or has expired
+     */
+    @GetMapping("/reconciliations/{jobId}")
+    public ResponseEntity<ReconciliationJobResponse> getReconciliation(@PathVariable String jobId) {
+        ReconciliationJobResponse response = reconciliationService.getJob(jobId);
+        return response == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(response);
+    }
+
+    /**
+     * Downloads the mismatch report of a completed reconciliation as CSV
+     * 
+     * @param jobId The job id returned when the settlement file was uploaded
+     * @return ResponseEntity streaming the report, or NOT_FOUND if the job is unknown or not completed
+     */
+    @GetMapping("/reconciliations/{jobId}/report")
+    public ResponseEntity<Resource> getReconciliationReport(@PathVariable String jobId) {
+        Path report = reconciliationService.getReport(jobId);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reconciliation-" + jobId + ".csv\"")
+            .body(new FileSystemResource(report));
+    }
+
+    /**
+     * Reloads the routing-number directory if its file has changed, without waiting for the periodic check
+     * 
+     * @return ResponseEntity containing the size of the directory in use and whether it was reloaded,
+     *         or INTERNAL_SERVER_ERROR if the file could not be read (the previous directory stays in use)
+     */
+    @PostMapping("/routing-directory/reload")
+    public ResponseEntity<RoutingDirectoryResponse> reloadRoutingDirectory() {
+        try {
+            boolean reloaded = routingNumberDirectory.reload();
+            return ResponseEntity.ok(new RoutingDirectoryResponse(routingNumberDirectory.size(),
+                routingNumberDirectory.loadedAt(), reloaded));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
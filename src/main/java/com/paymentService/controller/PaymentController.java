@@ -14,8 +14,33 @@ import java.util.UUID;
 import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import com.paymentService.dto.request.BankTransferRequest;
 import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.dto.response.BatchPaymentResponse;
+import com.paymentService.exception.TransferQueueFullException;
+import com.paymentService.exception.VelocityLimitExceededException;
+import com.paymentService.exception.IdempotencyConflictException;
+import com.paymentService.exception.IdempotencyInProgressException;
+import com.paymentService.idempotency.IdempotencyService;
+import org.springframework.web.bind.annotation.RequestHeader;
+import java.util.function.Supplier;
+import com.paymentService.dto.response.TransactionPageResponse;
+import com.paymentService.dto.response.PaymentSummaryResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/payment")
@@ -23,19 +48,49 @@ import com.paymentService.dto.response.BankTransferResponse;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     /**
      * Processes a payment request from a customer
      * 
      * @param request The payment request containing payment details
+     * @param idempotencyKey Optional key making retries of this request return the original response
      * @return ResponseEntity containing the payment response if successful,
      *         or an error status if the payment processing fails
      */
     @PostMapping("/make-payment")
-    public ResponseEntity<MakePaymentResponse> makePayment(@RequestBody  MakePaymentRequest request) {
+    public ResponseEntity<?> makePayment(
+            @RequestBody  MakePaymentRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent("make-payment", idempotencyKey, request, MakePaymentResponse.class, () -> {
+            try {
+                MakePaymentResponse response = paymentService.makePayment(request);
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
+    }
+
+    /**
+     * Processes a batch of payment requests in a single call
+     * 
+     * @param requests The payment requests to process
+     * @return ResponseEntity containing per-item results if the batch was processed,
+     *         BAD_REQUEST if the batch is empty or too large, or an error status if processing fails
+     */
+    @PostMapping("/make-payment/batch")
+    public ResponseEntity<BatchPaymentResponse> makePayments(@RequestBody List<MakePaymentRequest> requests) {
         try {
-            MakePaymentResponse response = paymentService.makePayment(request);
+            BatchPaymentResponse response = paymentService.makePayments(requests);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -60,20 +115,202 @@ public class PaymentController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+    /**
+     * Retrieves one page of a customer's payment history, oldest first
+     * 
+     * @param customerId The unique identifier of the customer
+     * @param cursor The cursor returned with the previous page; omit for the first page
+     * @param limit The maximum number of payments to return; capped at the configured maximum
+     * @return ResponseEntity containing the page and the cursor of the next page,
+     *         NOT_FOUND if the customer has no payments, BAD_REQUEST for an invalid cursor or limit,
+     *         or an error status if the retrieval fails
+     */
+    @GetMapping("/customer/{customerId}/payments/page")
+    public ResponseEntity<TransactionPageResponse> getPaymentsPage(
+            @PathVariable UUID customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            TransactionPageResponse page = paymentService.getPaymentsPage(customerId, cursor, limit);
+            if (page == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves a customer's payment totals: transaction counts and amounts by status, and last activity
+     * 
+     * @param customerId The unique identifier of the customer
+     * @return ResponseEntity containing the payment summary,
+     *         NOT_FOUND if the customer has no payment record, or an error status if the lookup fails
+     */
+    @GetMapping("/customer/{customerId}/summary")
+    public ResponseEntity<PaymentSummaryResponse> getPaymentSummary(@PathVariable UUID customerId) {
+        try {
+            PaymentSummaryResponse summary = paymentService.getPaymentSummary(customerId);
+            if (summary == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Streams a customer's full payment history as newline-delimited JSON, oldest first
+     * 
+     * @param customerId The unique identifier of the customer
+     * @return ResponseEntity streaming one payment per line,
+     *         NOT_FOUND if the customer has no payments, or an error status if the lookup fails
+     */
+    @GetMapping("/customer/{customerId}/payments/stream")
+    public ResponseEntity<StreamingResponseBody> streamPaymentsByCustomerId(@PathVariable UUID customerId) {
+        try {
+            if (!paymentService.customerExists(customerId)) {
+                return ResponseEntity.notFound().build();
+            }
+            ObjectWriter writer = objectMapper.writerFor(MakePaymentResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            StreamingResponseBody body = out -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    paymentService.streamPaymentsByCustomerId(customerId, payment -> {
+                        try {
+                            writer.writeValue(generator, payment);
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            };
+            return ResponseEntity.ok().contentType(NDJSON).body(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Processes a bank transfer request
      * 
      * @param request The bank transfer request containing transfer details
+     * @param idempotencyKey Optional key making retries of this request return the original response
+     *                       without calling the bank again
      * @return ResponseEntity containing the bank transfer response if successful,
-     *         or an error status if the transfer processing fails
+     *         ACCEPTED with the PROCESSING transfer and its status location if the bank could not be reached
+     *         and the transfer will be retried, or it was not settled within the sync timeout,
+     *         BAD_REQUEST with the reason for invalid input, TOO_MANY_REQUESTS if the account exceeded a velocity
+     *         limit, SERVICE_UNAVAILABLE if the settlement queue is full, or an error status if the transfer
+     *         processing fails
      */
     @PostMapping("/bank-transfer")
-    public ResponseEntity<BankTransferResponse> processBankTransfer(@RequestBody BankTransferRequest request) {
+    public ResponseEntity<?> processBankTransfer(
+            @RequestBody BankTransferRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent("bank-transfer", idempotencyKey, request, BankTransferResponse.class, () -> {
+            try {
+                BankTransferResponse response = paymentService.processBankTransfer(request);
+                if (TransferStatus.PROCESSING.name().equals(response.getStatus())) {
+                    return ResponseEntity.accepted()
+                        .location(URI.create("/api/payment/bank-transfer/" + response.getTransferId()))
+                        .body(response);
+                }
+                return ResponseEntity.ok(response);
+            } catch (IllegalArgumentException e) {
+                // Not a response to record: rethrown past the idempotency layer and answered with its reason there
+                throw e;
+            } catch (VelocityLimitExceededException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+            } catch (TransferQueueFullException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
+    }
+
+    /**
+     * Accepts a bank transfer for asynchronous processing
+     * 
+     * @param request The bank transfer request containing transfer details
+     * @param idempotencyKey Optional key making retries of this request return the original response
+     * @return ACCEPTED with the PENDING transfer and its status location,
+     *         BAD_REQUEST with the reason for invalid input, TOO_MANY_REQUESTS if the account exceeded a velocity limit,
+     *         SERVICE_UNAVAILABLE if the transfer queue is full,
+     *         or an error status if the transfer could not be accepted
+     */
+    @PostMapping("/bank-transfer/async")
+    public ResponseEntity<?> submitBankTransfer(
+            @RequestBody BankTransferRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent("bank-transfer-async", idempotencyKey, request, BankTransferResponse.class, () -> {
+            try {
+                BankTransferResponse response = paymentService.submitBankTransfer(request);
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/payment/bank-transfer/" + response.getTransferId()))
+                    .body(response);
+            } catch (IllegalArgumentException e) {
+                // Not a response to record: rethrown past the idempotency layer and answered with its reason there
+                throw e;
+            } catch (VelocityLimitExceededException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+            } catch (TransferQueueFullException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
+    }
+
+    /**
+     * Retrieves the current status of a bank transfer
+     * 
+     * @param transferId The transfer id returned when the transfer was created
+     * @return ResponseEntity containing the transfer if it exists,
+     *         NOT_FOUND if it does not, or an error status if the lookup fails
+     */
+    @GetMapping("/bank-transfer/{transferId}")
+    public ResponseEntity<BankTransferResponse> getBankTransfer(@PathVariable String transferId) {
         try {
-            BankTransferResponse response = paymentService.processBankTransfer(request);
+            BankTransferResponse response = paymentService.getBankTransfer(transferId);
+            if (response == null) {
+                return ResponseEntity.notFound().build();
+            }
             return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Runs an endpoint action under the Idempotency-Key contract.
+     * A reused key with a different payload yields UNPROCESSABLE_ENTITY; a duplicate whose original is
+     * still running past the wait timeout yields CONFLICT. Keys are scoped to the authenticated subject. An invalid key, or an IllegalArgumentException thrown
+     * by the action, yields BAD_REQUEST with the reason as a problem detail; the key is not used up by it.
+     */
+    private <T> ResponseEntity<?> idempotent(String scope, String idempotencyKey, Object request, Class<T> bodyType,
+                                             Supplier<ResponseEntity<T>> action) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String client = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+            return idempotencyService.execute(scope, client, idempotencyKey, request, bodyType, action);
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (IdempotencyInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header("Retry-After", "1").build();
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.badRequest().body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
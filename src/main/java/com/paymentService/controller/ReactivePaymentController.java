@@ -0,0 +1,63 @@
+package com.paymentService.controller;
+
+import com.paymentService.dto.response.MakePaymentResponse;
+import com.paymentService.dto.response.PaymentSummaryResponse;
+import com.paymentService.service.implementations.ReactivePaymentQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking variants of the history and summary reads.
+ * Handlers return without holding a servlet thread or a JDBC connection; results are produced over R2DBC
+ * and written as the client consumes them.
+ */
+@RestController
+@RequestMapping("/api/payment/reactive")
+@RequiredArgsConstructor
+public class ReactivePaymentController {
+
+    private final ReactivePaymentQueryService reactivePaymentQueryService;
+
+    /**
+     * Streams a customer's full payment history as newline-delimited JSON, oldest first
+     * 
+     * @param customerId The unique identifier of the customer
+     * @return ResponseEntity streaming one payment per line,
+     *         NOT_FOUND if the customer has no payment record, or an error status if the lookup fails
+     */
+    @GetMapping(value = "/customer/{customerId}/payments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<MakePaymentResponse>>> streamPaymentsByCustomerId(@PathVariable UUID customerId) {
+        return reactivePaymentQueryService.resolveCustomer(customerId)
+            .map(resolved -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactivePaymentQueryService.streamHistory(resolved)))
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    /**
+     * Retrieves a customer's payment totals: transaction counts and amounts by status, and last activity
+     * 
+     * @param customerId The unique identifier of the customer
+     * @return ResponseEntity containing the payment summary,
+     *         NOT_FOUND if the customer has no payment record, or an error status if the lookup fails
+     */
+    @GetMapping("/customer/{customerId}/summary")
+    public Mono<ResponseEntity<PaymentSummaryResponse>> getPaymentSummary(@PathVariable UUID customerId) {
+        return reactivePaymentQueryService.resolveCustomer(customerId)
+            .flatMap(resolved -> reactivePaymentQueryService.getSummary(customerId, resolved))
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.paymentService.controller;
+
+import com.paymentService.dto.response.TransferFileJobResponse;
+import com.paymentService.dto.response.TransferFileRejectResponse;
+import com.paymentService.ingestion.TransferFileFormat;
+import com.paymentService.ingestion.TransferFileIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payment/bank-transfer/files")
+@RequiredArgsConstructor
+public class TransferFileController {
+
+    private final TransferFileIngestionService transferFileIngestionService;
+
+    /**
+     * Uploads a batch file of bank transfers and queues its ingestion.
+     * Valid records become PENDING transfers and are submitted to the bank as the transfer pool has room;
+     * invalid records are reported by line.
+     * 
+     * @param file The batch file
+     * @param format csv (default) or fixed-width
+     * @return ACCEPTED with the queued job and its status location,
+     *         BAD_REQUEST for an unknown format, SERVICE_UNAVAILABLE if too many files are queued,
+     *         or INTERNAL_SERVER_ERROR if the file could not be stored
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TransferFileJobResponse> uploadTransferFile(
+            @RequestParam MultipartFile file,
+            @RequestParam(defaultValue = "csv") String format) {
+        TransferFileFormat fileFormat;
+        try {
+            fileFormat = TransferFileFormat.fromValue(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (InputStream transferFile = file.getInputStream()) {
+            TransferFileJobResponse response = transferFileIngestionService.submit(transferFile, fileFormat);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/payment/bank-transfer/files/" + response.getJobId()))
+                .body(response);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "60").build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the progress of a file ingestion
+     * 
+     * @param jobId The job id returned when the file was uploaded
+     * @return ResponseEntity containing the job, or NOT_FOUND if the job is unknown or has expired
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<TransferFileJobResponse> getTransferFile(@PathVariable String jobId) {
+        TransferFileJobResponse response = transferFileIngestionService.getJob(jobId);
+        return response == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves the rejected records of a file ingestion in line order
+     * 
+     * @param jobId The job id returned when the file was uploaded
+     * @param offset Number of rejects to skip
+     * @param limit The maximum number of rejects to return, at most 1000
+     * @return ResponseEntity containing the page of rejects, or NOT_FOUND if the job is unknown or has expired
+     */
+    @GetMapping("/{jobId}/rejects")
+    public ResponseEntity<List<TransferFileRejectResponse>> getTransferFileRejects(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<TransferFileRejectResponse> rejects = transferFileIngestionService.getRejects(jobId,
+            Math.max(0, offset), Math.max(1, Math.min(limit, 1000)));
+        return rejects == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(rejects);
+    }
+}
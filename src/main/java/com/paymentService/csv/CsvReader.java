@@ -0,0 +1,95 @@
+package com.paymentService.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader, the counterpart of {@link CsvWriter}.
+ * Quoted fields may contain separators, doubled quotes and line breaks; empty fields are read as null.
+ * The underlying reader should be buffered.
+ */
+public class CsvReader {
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private boolean eof;
+    private long lines;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record
+     * @return The record's fields, or null at end of input
+     * @throws IOException if reading fails or a quoted field is not terminated
+     */
+    public List<String> readRecord() throws IOException {
+        if (eof) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int c = in.read();
+        if (c == -1) {
+            eof = true;
+            return null;
+        }
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lines++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(take(wasQuoted));
+                wasQuoted = false;
+            } else if (c == '\n' || c == -1) {
+                fields.add(take(wasQuoted));
+                if (c == -1) {
+                    eof = true;
+                } else {
+                    lines++;
+                }
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    /**
+     * @return The number of line breaks read so far, including those inside quoted fields; one less than
+     *         the physical line the next record starts on
+     */
+    public long getLinesRead() {
+        return lines;
+    }
+
+    private String take(boolean wasQuoted) {
+        String value = field.length() == 0 && !wasQuoted ? null : field.toString();
+        field.setLength(0);
+        return value;
+    }
+}
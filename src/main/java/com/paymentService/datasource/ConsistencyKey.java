@@ -0,0 +1,18 @@
+package com.paymentService.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the parameter identifying whose data a read returns, typically the customer id.
+ * If a write was recorded for that key in {@link RecentWriteTracker} within the read-your-writes window,
+ * the read is routed to the primary so the caller sees its own write despite replica lag.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConsistencyKey {
+}
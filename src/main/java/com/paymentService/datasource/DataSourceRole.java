@@ -0,0 +1,11 @@
+package com.paymentService.datasource;
+
+/**
+ * Connection pools a statement can be routed to.
+ */
+public enum DataSourceRole {
+    /** The writable primary database */
+    PRIMARY,
+    /** A read-only replica of the primary, possibly lagging behind it */
+    REPLICA
+}
@@ -0,0 +1,19 @@
+package com.paymentService.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the connections used by a method, and everything it calls, to the given pool.
+ * Without this annotation, read-only transactions use the replica and all other work uses the primary.
+ * Ignored inside a read-write transaction, which always stays on the primary.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DataSourceRoute {
+    DataSourceRole value();
+}
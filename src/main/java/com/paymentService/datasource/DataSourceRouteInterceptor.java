@@ -0,0 +1,97 @@
+package com.paymentService.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link DataSourceRoute} and {@link ConsistencyKey} to service calls.
+ * The routing spec of each method is resolved once and cached; a call then costs one map lookup and,
+ * for methods with a consistency key, one cache probe.
+ */
+public class DataSourceRouteInterceptor implements MethodInterceptor {
+    private static final RouteSpec UNROUTED = new RouteSpec(null, -1);
+
+    private final RecentWriteTracker recentWriteTracker;
+    private final Map<Method, RouteSpec> specs = new ConcurrentHashMap<>();
+
+    public DataSourceRouteInterceptor(RecentWriteTracker recentWriteTracker) {
+        this.recentWriteTracker = recentWriteTracker;
+    }
+
+    /**
+     * @return A pointcut matching methods with a route or a consistency key, declared on them or on their class
+     */
+    public static StaticMethodMatcherPointcut pointcut() {
+        return new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return resolve(AopUtils.getMostSpecificMethod(method, targetClass)) != UNROUTED;
+            }
+        };
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // A read-write transaction already holds its primary connection
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return invocation.proceed();
+        }
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        RouteSpec spec = specs.computeIfAbsent(AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass),
+            DataSourceRouteInterceptor::resolve);
+        DataSourceRole role = spec.declared;
+        if (spec.keyIndex >= 0 && recentWriteTracker.recentlyWritten(invocation.getArguments()[spec.keyIndex])) {
+            role = DataSourceRole.PRIMARY;
+        }
+        if (role == null) {
+            return invocation.proceed();
+        }
+        DataSourceRole previous = DataSourceRouting.bind(role);
+        try {
+            return invocation.proceed();
+        } finally {
+            DataSourceRouting.restore(previous);
+        }
+    }
+
+    private static RouteSpec resolve(Method method) {
+        DataSourceRoute route = AnnotatedElementUtils.findMergedAnnotation(method, DataSourceRoute.class);
+        if (route == null) {
+            route = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), DataSourceRoute.class);
+        }
+        int keyIndex = -1;
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length && keyIndex < 0; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ConsistencyKey) {
+                    keyIndex = i;
+                    break;
+                }
+            }
+        }
+        if (route == null && keyIndex < 0) {
+            return UNROUTED;
+        }
+        return new RouteSpec(route == null ? null : route.value(), keyIndex);
+    }
+
+    private static final class RouteSpec {
+        final DataSourceRole declared;
+        final int keyIndex;
+
+        RouteSpec(DataSourceRole declared, int keyIndex) {
+            this.declared = declared;
+            this.keyIndex = keyIndex;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.paymentService.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Thread-bound routing decision consulted when a physical connection is obtained.
+ */
+final class DataSourceRouting {
+    private static final ThreadLocal<DataSourceRole> ROUTE = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * @return The explicitly bound role, otherwise the replica inside read-only transactions and the primary elsewhere
+     */
+    static DataSourceRole current() {
+        DataSourceRole route = ROUTE.get();
+        if (route != null) {
+            return route;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? DataSourceRole.REPLICA : DataSourceRole.PRIMARY;
+    }
+
+    /**
+     * Binds a role to the current thread
+     * @return The previously bound role, to be passed to {@link #restore(DataSourceRole)}
+     */
+    static DataSourceRole bind(DataSourceRole role) {
+        DataSourceRole previous = ROUTE.get();
+        ROUTE.set(role);
+        return previous;
+    }
+
+    static void restore(DataSourceRole previous) {
+        if (previous == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(previous);
+        }
+    }
+}
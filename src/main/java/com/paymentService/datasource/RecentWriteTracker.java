@@ -0,0 +1,65 @@
+package com.paymentService.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Remembers which consistency keys were written recently on this node.
+ * Reads for those keys are routed to the primary until the window, sized above the expected replica lag,
+ * has passed. The window restarts when the writing transaction commits.
+ */
+@Component
+public class RecentWriteTracker {
+    private final Cache<Object, Boolean> recentWrites;
+
+    public RecentWriteTracker(@Value("${payment.datasource.read-your-writes-ms:5000}") long windowMs,
+                              @Value("${payment.datasource.read-your-writes-maximum-size:100000}") long maximumSize) {
+        this.recentWrites = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMillis(windowMs))
+            .build();
+    }
+
+    /**
+     * Records a write for the given key
+     * @param key The consistency key, typically the external customer id
+     */
+    public void recordWrite(Object key) {
+        recordWrites(List.of(key));
+    }
+
+    /**
+     * Records writes for all given keys, with a single commit callback for the current transaction
+     * @param keys The consistency keys, typically external customer ids
+     */
+    public void recordWrites(Collection<?> keys) {
+        for (Object key : keys) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Object key : keys) {
+                        recentWrites.put(key, Boolean.TRUE);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * @return true if a write for the key was recorded within the read-your-writes window
+     */
+    public boolean recentlyWritten(Object key) {
+        return key != null && recentWrites.getIfPresent(key) != null;
+    }
+}
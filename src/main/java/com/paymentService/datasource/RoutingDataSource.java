@@ -0,0 +1,44 @@
+package com.paymentService.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * Chooses the primary or replica pool per physical connection.
+ * Use it through {@link #lazy(DataSource, DataSource)}: transaction managers fetch a connection when the
+ * transaction begins, before its read-only flag is published, so the choice must be deferred to the first statement.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    RoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Creates the application data source routing between the given pools
+     * @param primary The writable primary pool
+     * @param replica The read-only replica pool
+     * @return A data source that picks a pool when a connection is first used
+     */
+    public static DataSource lazy(DataSource primary, DataSource replica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(new RoutingDataSource(primary, replica));
+        // Known defaults avoid borrowing a connection at startup just to detect them
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRouting.current();
+    }
+}
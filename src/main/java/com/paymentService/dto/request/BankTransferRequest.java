@@ -9,6 +9,7 @@ public class BankTransferRequest {
     private String routingNumber;
     private String accountHolderName;
     private BigDecimal amount;
+    /** Optional ISO 4217 three-letter code; rejected only if given and not a known currency */
     private String currency;
     private String description;
 }
@@ -0,0 +1,18 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.UUID;
+
+/**
+ * Outcome of a single entry of a batch payment request.
+ * Exactly one of {@code payment} or {@code error} is set.
+ */
+@Data
+@AllArgsConstructor
+public class BatchPaymentItemResponse {
+    private int index;
+    private UUID customerId;
+    private MakePaymentResponse payment;
+    private String error;
+}
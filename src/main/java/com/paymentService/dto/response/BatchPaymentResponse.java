@@ -0,0 +1,14 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchPaymentResponse {
+    private int received;
+    private int succeeded;
+    private int failed;
+    private List<BatchPaymentItemResponse> results;
+}
@@ -0,0 +1,15 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long loadFailures;
+    private long evictions;
+}
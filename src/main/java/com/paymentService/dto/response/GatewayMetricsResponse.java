@@ -0,0 +1,20 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GatewayMetricsResponse {
+    private long calls;
+    private long accepted;
+    private long rejected;
+    private long errors;
+    private long shortCircuited;
+    private long bulkheadRejected;
+    private double averageLatencyMillis;
+    private String circuitState;
+    private int availableConcurrentCalls;
+    private int leasedConnections;
+    private int availableConnections;
+}
@@ -1,5 +1,6 @@
 package com.paymentService.dto.response;
 
+import com.paymentService.model.TransferStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.math.BigDecimal;
@@ -13,4 +14,8 @@ public class MakePaymentResponse {
     private BigDecimal amount;
     private String status;
     private LocalDateTime createdAt;
+
+    public MakePaymentResponse(UUID transactionId, BigDecimal amount, TransferStatus status, LocalDateTime createdAt) {
+        this(transactionId, amount, status.name(), createdAt);
+    }
 }
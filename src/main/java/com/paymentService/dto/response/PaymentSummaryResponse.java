@@ -0,0 +1,25 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class PaymentSummaryResponse {
+    private UUID customerId;
+    private long transactionCount;
+    private BigDecimal totalAmount;
+    private long pendingCount;
+    private BigDecimal pendingAmount;
+    private long processingCount;
+    private BigDecimal processingAmount;
+    private long completedCount;
+    private BigDecimal completedAmount;
+    private long failedCount;
+    private BigDecimal failedAmount;
+    private LocalDateTime lastActivityAt;
+}
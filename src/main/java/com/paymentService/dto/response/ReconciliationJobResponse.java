@@ -0,0 +1,25 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ReconciliationJobResponse {
+    private String jobId;
+    private LocalDate businessDate;
+    private String status;
+    private boolean correctStatuses;
+    private long settlementRows;
+    private long ledgerRows;
+    private long matched;
+    private Map<String, Long> mismatches;
+    private long corrected;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class RoutingDirectoryResponse {
+    private int routingNumbers;
+    private LocalDateTime loadedAt;
+    private boolean reloaded;
+}
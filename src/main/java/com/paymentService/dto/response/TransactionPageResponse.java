@@ -0,0 +1,16 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * One page of a customer's transaction history.
+ * {@code nextCursor} is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionPageResponse {
+    private List<MakePaymentResponse> items;
+    private String nextCursor;
+}
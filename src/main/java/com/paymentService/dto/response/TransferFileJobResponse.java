@@ -0,0 +1,22 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TransferFileJobResponse {
+    private String jobId;
+    private String format;
+    private String status;
+    private long records;
+    private long accepted;
+    private long rejected;
+    private long submitted;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime persistedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,11 @@
+package com.paymentService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TransferFileRejectResponse {
+    private long line;
+    private String reason;
+}
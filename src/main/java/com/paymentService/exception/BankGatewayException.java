@@ -0,0 +1,47 @@
+package com.paymentService.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the external bank could not be reached or did not give a usable answer.
+ * Unlike an explicit rejection by the bank, these failures say nothing about the transfer itself.
+ */
+public class BankGatewayException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL,
+        TIMEOUT,
+        UNAVAILABLE,
+        BAD_RESPONSE,
+        THROTTLED
+    }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public BankGatewayException(Reason reason, String message) {
+        this(reason, message, null, null);
+    }
+
+    public BankGatewayException(Reason reason, String message, Throwable cause) {
+        this(reason, message, cause, null);
+    }
+
+    public BankGatewayException(Reason reason, String message, Throwable cause, Duration retryAfter) {
+        super(message, cause);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return How long the bank asked us to wait before calling again, or null if it did not say
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
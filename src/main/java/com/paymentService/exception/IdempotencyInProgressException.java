@@ -0,0 +1,10 @@
+package com.paymentService.exception;
+
+/**
+ * Thrown when a request with the same idempotency key is still executing and did not finish in time.
+ */
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException(String message) {
+        super(message);
+    }
+}
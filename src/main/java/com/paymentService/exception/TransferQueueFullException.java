@@ -0,0 +1,10 @@
+package com.paymentService.exception;
+
+/**
+ * Thrown when the asynchronous bank-transfer pipeline cannot accept more work.
+ */
+public class TransferQueueFullException extends RuntimeException {
+    public TransferQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.paymentService.exception;
+
+/**
+ * Thrown when a transfer would exceed a velocity limit on its counterparty account.
+ */
+public class VelocityLimitExceededException extends RuntimeException {
+    private final String rule;
+    private final long retryAfterSeconds;
+
+    public VelocityLimitExceededException(String rule, long retryAfterSeconds) {
+        super("Transfer exceeds velocity limit '" + rule + "' for this account");
+        this.rule = rule;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return The name of the rule the transfer would break
+     */
+    public String getRule() {
+        return rule;
+    }
+
+    /**
+     * @return Seconds after which the rule's window no longer covers the transfers that filled it
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
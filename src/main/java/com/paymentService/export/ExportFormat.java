@@ -0,0 +1,35 @@
+package com.paymentService.export;
+
+/**
+ * Output formats of the transaction export.
+ */
+public enum ExportFormat {
+    /** RFC 4180 CSV with a header row */
+    CSV("text/csv", "csv"),
+    /** One JSON object per line */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Parses a format name case-insensitively
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static ExportFormat fromValue(String value) {
+        return ExportFormat.valueOf(value.trim().toUpperCase());
+    }
+}
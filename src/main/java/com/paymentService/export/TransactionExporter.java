@@ -0,0 +1,201 @@
+package com.paymentService.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.paymentService.archive.ArchivedTransactionReader;
+import com.paymentService.csv.CsvWriter;
+import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.model.CurrencyConverter;
+import com.paymentService.model.TransferStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams every transaction in a created_at range to an output stream.
+ * Archived months are read from their files, the rest from a server-side cursor over the transactions table
+ * inside one read-only transaction, so an export holds one connection and a constant amount of heap however
+ * many rows it writes. Each row passes through a transient {@link BankTransferResponse}, so exported fields
+ * have that class's names and order. Rows are written in storage order, not sorted.
+ */
+@Service
+public class TransactionExporter {
+    /** Column names of the CSV header, in {@link BankTransferResponse} field order */
+    private static final String[] CSV_HEADER = {"transferId", "accountNumber", "routingNumber", "accountHolderName",
+        "amount", "currency", "status", "transferDate", "description"};
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ArchivedTransactionReader archivedTransactionReader;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TransactionExporter(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ArchivedTransactionReader archivedTransactionReader,
+                               ObjectMapper objectMapper,
+                               @Value("${payment.export.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.archivedTransactionReader = archivedTransactionReader;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes all matching transactions to the given stream
+     *
+     * @param from Inclusive lower bound of created_at
+     * @param to Exclusive upper bound of created_at
+     * @param status Only export transactions in this status, or null for all
+     * @param currency Only export transactions in this currency, or null for all
+     * @param format The output format
+     * @param out Receives the export; flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    public void export(LocalDateTime from, LocalDateTime to, TransferStatus status, String currency,
+                       ExportFormat format, OutputStream out) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out, objectMapper);
+        Consumer<BankTransferResponse> sink = row -> {
+            try {
+                writer.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            ArchivedTransactionReader.Snapshot archives = archivedTransactionReader.snapshot();
+            if (from.isBefore(archives.liveFrom())) {
+                LocalDateTime archivedTo = to.isBefore(archives.liveFrom()) ? to : archives.liveFrom();
+                archives.scan(from, archivedTo, row -> {
+                    if (matches(row, status, currency)) {
+                        sink.accept(row);
+                    }
+                });
+            }
+            LocalDateTime liveFrom = from.isBefore(archives.liveFrom()) ? archives.liveFrom() : from;
+            if (liveFrom.isBefore(to)) {
+                exportLive(liveFrom, to, status, currency, sink);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private void exportLive(LocalDateTime from, LocalDateTime to, TransferStatus status, String currency,
+                            Consumer<BankTransferResponse> sink) {
+        StringBuilder sql = new StringBuilder("SELECT t.transaction_id, c.account_number, c.routing_number, c.account_holder_name, "
+            + "t.amount, t.currency, t.status, t.created_at, t.description FROM transactions t "
+            + "LEFT JOIN counterparty_accounts c ON c.id = t.counterparty_account_id "
+            + "WHERE t.created_at >= ? AND t.created_at < ?");
+        List<Object> parameters = new ArrayList<>(4);
+        parameters.add(Timestamp.valueOf(from));
+        parameters.add(Timestamp.valueOf(to));
+        if (status != null) {
+            sql.append(" AND t.status = ?");
+            parameters.add(status.getCode());
+        }
+        if (currency != null) {
+            Currency storedCurrency = CurrencyConverter.parse(currency);
+            if (storedCurrency == null) {
+                // No stored transaction can be in a currency that cannot be stored
+                return;
+            }
+            sql.append(" AND t.currency = ?");
+            parameters.add((short) storedCurrency.getNumericCode());
+        }
+        readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, rs -> {
+            short currencyCode = rs.getShort(6);
+            String currencyName = rs.wasNull() ? null : CurrencyConverter.fromCode(currencyCode).getCurrencyCode();
+            sink.accept(new BankTransferResponse(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getBigDecimal(5), currencyName, TransferStatus.fromCode(rs.getShort(7)).name(),
+                rs.getTimestamp(8).toLocalDateTime(), rs.getString(9)));
+        }));
+    }
+
+    private static boolean matches(BankTransferResponse row, TransferStatus status, String currency) {
+        return (status == null || status.name().equalsIgnoreCase(row.getStatus()))
+            && (currency == null || currency.equals(row.getCurrency()));
+    }
+
+    private interface RowWriter {
+        void write(BankTransferResponse row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+        private final CsvWriter csv;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.csv = new CsvWriter(this.out);
+            csv.writeRecord(CSV_HEADER);
+        }
+
+        @Override
+        public void write(BankTransferResponse row) throws IOException {
+            csv.writeRecord(row.getTransferId(), row.getAccountNumber(), row.getRoutingNumber(), row.getAccountHolderName(),
+                row.getAmount().toPlainString(), row.getCurrency(), row.getStatus(),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.getTransferDate()), row.getDescription());
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.writer = objectMapper.writerFor(BankTransferResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(BankTransferResponse row) throws IOException {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
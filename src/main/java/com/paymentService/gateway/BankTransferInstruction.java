@@ -0,0 +1,17 @@
+package com.paymentService.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * Payload sent to the external bank for a single transfer.
+ */
+@Data
+@AllArgsConstructor
+public class BankTransferInstruction {
+    private String transactionId;
+    private String accountNumber;
+    private String routingNumber;
+    private BigDecimal amount;
+}
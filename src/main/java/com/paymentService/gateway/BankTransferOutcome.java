@@ -0,0 +1,9 @@
+package com.paymentService.gateway;
+
+/**
+ * Definitive answer of the external bank for a submitted transfer.
+ */
+public enum BankTransferOutcome {
+    ACCEPTED,
+    REJECTED
+}
@@ -0,0 +1,41 @@
+package com.paymentService.gateway;
+
+import com.paymentService.dto.response.GatewayMetricsResponse;
+import com.paymentService.exception.BankGatewayException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client for the external banking API.
+ */
+public interface BankingGateway {
+    /**
+     * Submits a transfer to the external bank
+     * @param instruction The transfer to submit
+     * @return The bank's definitive answer for the transfer
+     * @throws BankGatewayException if the bank could not be reached, timed out, or the call was short-circuited
+     */
+    BankTransferOutcome submitTransfer(BankTransferInstruction instruction);
+
+    /**
+     * Submits several transfers to the external bank in one call.
+     * Gateways without a batch API submit the transfers one at a time.
+     * @param instructions The transfers to submit
+     * @return The bank's definitive answer for each transfer, in the order of the instructions
+     * @throws BankGatewayException if the bank could not be reached, timed out, or the call was short-circuited
+     */
+    default List<BankTransferOutcome> submitBatch(List<BankTransferInstruction> instructions) {
+        List<BankTransferOutcome> outcomes = new ArrayList<>(instructions.size());
+        for (BankTransferInstruction instruction : instructions) {
+            outcomes.add(submitTransfer(instruction));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the gateway's call, resilience and connection-pool metrics
+     * @return GatewayMetricsResponse containing the current metrics
+     */
+    GatewayMetricsResponse metrics();
+}
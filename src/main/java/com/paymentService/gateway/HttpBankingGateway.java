@@ -0,0 +1,233 @@
+package com.paymentService.gateway;
+
+import com.paymentService.dto.response.GatewayMetricsResponse;
+import com.paymentService.exception.BankGatewayException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@link BankingGateway} backed by a pooled HTTP client.
+ * Every call passes through a circuit breaker and a bulkhead, so an unhealthy or slow bank
+ * results in fast {@link BankGatewayException}s instead of piled-up threads.
+ */
+@Component
+public class HttpBankingGateway implements BankingGateway {
+    /** Request Timeout, Too Early and Too Many Requests: the bank did not judge the transfers */
+    private static final Set<Integer> TRANSIENT_CLIENT_ERRORS = Set.of(408, 425, 429);
+
+    private final RestClient restClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final String transfersPath;
+    private final String batchPath;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    public HttpBankingGateway(@Qualifier("bankingRestClient") RestClient restClient,
+                              @Qualifier("bankingCircuitBreaker") CircuitBreaker circuitBreaker,
+                              @Qualifier("bankingBulkhead") Bulkhead bulkhead,
+                              @Qualifier("bankingConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                              @Value("${banking.gateway.transfers-path:/transactions}") String transfersPath,
+                              @Value("${banking.gateway.batch-path:/transactions/batch}") String batchPath) {
+        this.restClient = restClient;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.connectionManager = connectionManager;
+        this.transfersPath = transfersPath;
+        this.batchPath = batchPath;
+    }
+
+    @Override
+    public BankTransferOutcome submitTransfer(BankTransferInstruction instruction) {
+        return post(transfersPath, instruction, 1,
+            body -> body.get("status") == null ? null : List.of(outcome(body.get("status")))).get(0);
+    }
+
+    /**
+     * Submits the transfers as one {@code POST} to the batch path, with body {@code {"transfers": [...]}}.
+     * The bank answers {@code {"results": [{"transactionId": ..., "status": ...}, ...]}} with one result per transfer;
+     * a response missing any of them counts as a failed call. A 4xx answer rejects the whole batch, except for
+     * 408, 425 and 429, which fail the call like a 5xx answer.
+     */
+    @Override
+    public List<BankTransferOutcome> submitBatch(List<BankTransferInstruction> instructions) {
+        if (instructions.isEmpty()) {
+            return List.of();
+        }
+        return post(batchPath, Map.of("transfers", instructions), instructions.size(), body -> {
+            if (!(body.get("results") instanceof List<?> results)) {
+                return null;
+            }
+            Map<Object, Object> statusById = new HashMap<>(results.size() * 2);
+            for (Object result : results) {
+                if (result instanceof Map<?, ?> item) {
+                    statusById.put(item.get("transactionId"), item.get("status"));
+                }
+            }
+            List<BankTransferOutcome> outcomes = new ArrayList<>(instructions.size());
+            for (BankTransferInstruction instruction : instructions) {
+                Object status = statusById.get(instruction.getTransactionId());
+                if (status == null) {
+                    return null;
+                }
+                outcomes.add(outcome(status));
+            }
+            return outcomes;
+        });
+    }
+
+    /**
+     * Makes one guarded call to the bank on behalf of the given number of transfers
+     *
+     * @param parse Maps the response body to one outcome per transfer, or null if the body is incomplete
+     */
+    private List<BankTransferOutcome> post(String path, Object payload, int transfers,
+                                           Function<Map<?, ?>, List<BankTransferOutcome>> parse) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            shortCircuited.increment();
+            throw new BankGatewayException(BankGatewayException.Reason.CIRCUIT_OPEN, "External bank circuit is open");
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            bulkheadRejected.increment();
+            throw new BankGatewayException(BankGatewayException.Reason.BULKHEAD_FULL, "Too many concurrent calls to the external bank");
+        }
+
+        calls.increment();
+        long start = System.nanoTime();
+        try {
+            Map<?, ?> body = restClient.post()
+                .uri(path)
+                .body(payload)
+                .retrieve()
+                .body(Map.class);
+            long elapsed = System.nanoTime() - start;
+            latencyNanos.add(elapsed);
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            List<BankTransferOutcome> outcomes = body == null ? null : parse.apply(body);
+            if (outcomes == null) {
+                errors.increment();
+                throw new BankGatewayException(BankGatewayException.Reason.BAD_RESPONSE, "External bank returned an empty or incomplete response");
+            }
+            for (BankTransferOutcome outcome : outcomes) {
+                (outcome == BankTransferOutcome.ACCEPTED ? accepted : rejected).increment();
+            }
+            return outcomes;
+        } catch (RestClientResponseException e) {
+            long elapsed = System.nanoTime() - start;
+            latencyNanos.add(elapsed);
+            int status = e.getStatusCode().value();
+            if (e.getStatusCode().is4xxClientError() && !TRANSIENT_CLIENT_ERRORS.contains(status)) {
+                // The bank answered and refused the transfers; that says nothing about the bank's health
+                circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                rejected.add(transfers);
+                return Collections.nCopies(transfers, BankTransferOutcome.REJECTED);
+            }
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+            errors.increment();
+            if (e.getStatusCode().is4xxClientError()) {
+                // Timed out, too early or throttled: the bank has not judged the transfers, so they can be retried
+                throw new BankGatewayException(BankGatewayException.Reason.THROTTLED,
+                    "External bank returned " + status, e, retryAfter(e.getResponseHeaders()));
+            }
+            throw new BankGatewayException(BankGatewayException.Reason.UNAVAILABLE,
+                "External bank returned " + status, e);
+        } catch (ResourceAccessException e) {
+            long elapsed = System.nanoTime() - start;
+            latencyNanos.add(elapsed);
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+            errors.increment();
+            BankGatewayException.Reason reason = e.getCause() instanceof SocketTimeoutException
+                ? BankGatewayException.Reason.TIMEOUT
+                : BankGatewayException.Reason.UNAVAILABLE;
+            throw new BankGatewayException(reason, "External bank call failed: " + e.getMessage(), e);
+        } catch (RestClientException e) {
+            long elapsed = System.nanoTime() - start;
+            latencyNanos.add(elapsed);
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+            errors.increment();
+            throw new BankGatewayException(BankGatewayException.Reason.BAD_RESPONSE, "External bank call failed: " + e.getMessage(), e);
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    /**
+     * Reads a Retry-After header given either as delay-seconds or as an HTTP date
+     *
+     * @return The delay, or null if the header is absent or malformed
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delay = Duration.between(Instant.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static BankTransferOutcome outcome(Object status) {
+        return "SUCCESS".equals(status) ? BankTransferOutcome.ACCEPTED : BankTransferOutcome.REJECTED;
+    }
+
+    @Override
+    public GatewayMetricsResponse metrics() {
+        long callCount = calls.sum();
+        PoolStats poolStats = connectionManager.getTotalStats();
+        return new GatewayMetricsResponse(
+            callCount,
+            accepted.sum(),
+            rejected.sum(),
+            errors.sum(),
+            shortCircuited.sum(),
+            bulkheadRejected.sum(),
+            callCount == 0 ? 0.0 : latencyNanos.sum() / (double) callCount / 1_000_000.0,
+            circuitBreaker.getState().name(),
+            bulkhead.getMetrics().getAvailableConcurrentCalls(),
+            poolStats.getLeased(),
+            poolStats.getAvailable()
+        );
+    }
+}
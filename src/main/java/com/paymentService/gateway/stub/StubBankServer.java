@@ -0,0 +1,144 @@
+package com.paymentService.gateway.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the external banking API, for offline development and load tests.
+ * Listens on {@code banking.stub.port} and answers {@code POST /transactions} and {@code POST /transactions/batch}
+ * after a configurable latency, rejecting a configurable fraction of transfers and failing a configurable
+ * fraction of calls. Point {@code banking.gateway.base-url} at {@code http://localhost:<port>} to use it.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.stub.enabled", havingValue = "true")
+public class StubBankServer implements InitializingBean, DisposableBean {
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private final long latencyMs;
+    private final double rejectionRate;
+    private final double errorRate;
+    private final int threads;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubBankServer(ObjectMapper objectMapper,
+                          @Value("${banking.stub.port:8089}") int port,
+                          @Value("${banking.stub.latency-ms:20}") long latencyMs,
+                          @Value("${banking.stub.rejection-rate:0.0}") double rejectionRate,
+                          @Value("${banking.stub.error-rate:0.0}") double errorRate,
+                          @Value("${banking.stub.threads:64}") int threads) {
+        this.objectMapper = objectMapper;
+        this.port = port;
+        this.latencyMs = latencyMs;
+        this.rejectionRate = rejectionRate;
+        this.errorRate = errorRate;
+        this.threads = threads;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(executor);
+        server.createContext("/transactions", this::handleTransfer);
+        server.createContext("/transactions/batch", this::handleBatch);
+        server.start();
+    }
+
+    @Override
+    public void destroy() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handleTransfer(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            try (InputStream body = exchange.getRequestBody()) {
+                objectMapper.readTree(body);
+            }
+            simulateLatency();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String status = roll < errorRate + rejectionRate ? "REJECTED" : "SUCCESS";
+            writeJson(exchange, Map.of("status", status));
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode transfers;
+            try (InputStream body = exchange.getRequestBody()) {
+                transfers = objectMapper.readTree(body).path("transfers");
+            }
+            simulateLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            List<Map<String, String>> results = new ArrayList<>(transfers.size());
+            for (JsonNode transfer : transfers) {
+                String status = random.nextDouble() < rejectionRate ? "REJECTED" : "SUCCESS";
+                results.add(Map.of("transactionId", transfer.path("transactionId").asText(), "status", status));
+            }
+            writeJson(exchange, Map.of("results", results));
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeJson(HttpExchange exchange, Object payload) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
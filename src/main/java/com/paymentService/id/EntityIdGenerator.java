@@ -0,0 +1,34 @@
+package com.paymentService.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of {@link GeneratedId}. Hibernate instantiates generators itself, so the configured
+ * {@link IdGenerator} is handed over through {@link #use}; until then a time-ordered generator with a
+ * derived node id is used.
+ */
+public class EntityIdGenerator implements BeforeExecutionGenerator {
+    private static volatile IdGenerator delegate = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.defaultNodeId());
+
+    /**
+     * Sets the generator of all {@link GeneratedId} keys
+     */
+    public static void use(IdGenerator generator) {
+        delegate = generator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return delegate.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,16 @@
+package com.paymentService.id;
+
+import java.util.UUID;
+
+/**
+ * Source of new primary keys and transfer ids.
+ * The implementation in use is chosen with {@code payment.id.generator}; see {@link com.paymentService.config.IdGeneratorConfig}.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @return A new id, unique across all nodes
+     */
+    UUID nextId();
+}
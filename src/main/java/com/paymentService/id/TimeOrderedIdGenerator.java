@@ -0,0 +1,97 @@
+package com.paymentService.id;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates UUID version 7 ids: a 48-bit Unix millisecond timestamp followed by a per-millisecond sequence,
+ * the node id and random bits. New ids therefore sort after older ones, both as UUIDs and as strings, and are
+ * appended at the right edge of B-tree indexes instead of splitting pages all over them.
+ * <p>
+ * Layout after the version and variant bits: 18 sequence bits (12 in rand_a, 6 in rand_b), 10 node bits and
+ * 46 random bits. Ids from one generator are strictly increasing: when the sequence of a millisecond is used
+ * up, or the clock moves backwards, the generator continues from the last millisecond it issued rather than
+ * from the clock. Distinct node ids make collisions between nodes impossible; without them the random bits
+ * make a collision within the same millisecond and sequence number negligible.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+    static final int SEQUENCE_BITS = 18;
+    static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long RANDOM_MASK = (1L << 46) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    private final long node;
+    private final LongSupplier clock;
+    /** The last id's millisecond and sequence number, packed as millis << SEQUENCE_BITS | sequence */
+    private final AtomicLong last = new AtomicLong();
+
+    public TimeOrderedIdGenerator(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(int node, LongSupplier clock) {
+        if (node < 0 || node >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID nextId() {
+        long now = clock.getAsLong();
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            // Within the same millisecond, or with the clock behind, take the next sequence number;
+            // an exhausted sequence carries into the millisecond
+            next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        long mostSignificant = millis << 16 | VERSION | sequence >>> 6;
+        long leastSignificant = VARIANT | (sequence & 0x3F) << 56 | node << 46
+            | ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Reads the creation time embedded in a version 7 id
+     *
+     * @param id An id in its string form
+     * @return The id's Unix millisecond timestamp, or -1 if the id is not a version 7 UUID, e.g. a random id
+     *         issued before time-ordered ids were introduced
+     */
+    public static long timestampMillis(String id) {
+        UUID uuid;
+        try {
+            uuid = id == null ? null : UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        return uuid != null && uuid.version() == 7 && uuid.variant() == 2 ? uuid.getMostSignificantBits() >>> 16 : -1;
+    }
+
+    /**
+     * Derives a node id from the host name and process id, for deployments that do not assign one.
+     * Two instances may derive the same node id; their ids then still differ in the random bits.
+     */
+    public static int defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "";
+        }
+        int hash = host.hashCode() * 31 + Long.hashCode(ProcessHandle.current().pid());
+        return (hash ^ hash >>> 16) & (1 << NODE_BITS) - 1;
+    }
+}
@@ -0,0 +1,260 @@
+package com.paymentService.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentService.exception.IdempotencyConflictException;
+import com.paymentService.exception.IdempotencyInProgressException;
+import com.paymentService.model.IdempotencyRecord;
+import com.paymentService.model.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes requests carrying an {@code Idempotency-Key} at most once and replays their response to retries.
+ * <p>
+ * Two layers back the guarantee:
+ * <ul>
+ *   <li>an in-memory layer: a TTL-evicted cache of finished responses, answering replays without any I/O,
+ *       and a concurrent map of in-flight keys on which duplicates arriving at this node wait for the
+ *       first request instead of executing again;</li>
+ *   <li>a persistent layer: a row per key, claimed with a single {@code INSERT ... ON CONFLICT DO NOTHING},
+ *       which deduplicates across instances and survives restarts.</li>
+ * </ul>
+ * Responses with a 5xx or 429 status are not recorded, so a retry after a server error or a rate-limit rejection
+ * executes again.
+ */
+@Service
+public class IdempotencyService {
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration waitTimeout;
+    private final Duration staleClaimAfter;
+
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${payment.idempotency.retention-hours:24}") long retentionHours,
+                              @Value("${payment.idempotency.cache.maximum-size:100000}") long cacheMaximumSize,
+                              @Value("${payment.idempotency.cache.ttl-seconds:600}") long cacheTtlSeconds,
+                              @Value("${payment.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                              @Value("${payment.idempotency.stale-claim-seconds:120}") long staleClaimSeconds) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.staleClaimAfter = Duration.ofSeconds(staleClaimSeconds);
+        this.completed = Caffeine.newBuilder()
+            .maximumSize(cacheMaximumSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .build();
+    }
+
+    /**
+     * Runs the action once per (scope, client, key) and returns the recorded response on every later call
+     * @param scope The endpoint the key belongs to; keys are not shared between endpoints
+     * @param client The authenticated subject, or null for anonymous callers; keys are not shared between
+     *               clients, so one client's key never replays another client's response. Anonymous callers
+     *               share one namespace
+     * @param key The client-supplied idempotency key, or null to run the action unconditionally
+     * @param request The request payload, used to detect a key being reused for a different request
+     * @param bodyType The response body type, used to rebuild replayed responses
+     * @param action Produces the response for the first execution
+     * @return The response of the first execution of this key
+     * @throws IllegalArgumentException if the key is blank or too long
+     * @throws IdempotencyConflictException if the key was used before with a different payload
+     * @throws IdempotencyInProgressException if another request with this key did not finish within the wait timeout
+     */
+    public <T> ResponseEntity<T> execute(String scope, String client, String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and 255 characters");
+        }
+        // The subject is hashed to bound the record id's length whatever the token contains
+        String id = scope + ":" + (client == null ? "anonymous" : digest(client).substring(0, 16)) + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse stored = completed.getIfPresent(id);
+        if (stored != null) {
+            return replay(stored, requestHash, bodyType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            // Another request with this key is executing on this node: wait for its outcome
+            stored = await(running);
+            if (stored != null) {
+                return replay(stored, requestHash, bodyType);
+            }
+            return execute(scope, client, key, request, bodyType, action);
+        }
+
+        try {
+            stored = claimOrAwait(id, requestHash);
+            if (stored != null) {
+                completed.put(id, stored);
+                mine.complete(stored);
+                return replay(stored, requestHash, bodyType);
+            }
+
+            ResponseEntity<T> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                repository.release(id);
+                mine.complete(null);
+                throw e;
+            }
+            if (response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429) {
+                repository.release(id);
+                mine.complete(null);
+                return response;
+            }
+
+            URI location = response.getHeaders().getLocation();
+            stored = new StoredResponse(requestHash, response.getStatusCode().value(), toJson(response.getBody()),
+                location == null ? null : location.toString());
+            repository.complete(id, stored.getStatus(), stored.getBody(), stored.getLocation());
+            completed.put(id, stored);
+            mine.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            mine.complete(null);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * Purges persisted keys past their retention period
+     */
+    @Scheduled(fixedDelayString = "${payment.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        repository.deleteExpired(LocalDateTime.now());
+    }
+
+    /**
+     * Claims the key in the database, or waits for the instance that holds it to finish.
+     * @return null if this caller now owns the key, otherwise the recorded response
+     */
+    private StoredResponse claimOrAwait(String id, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.claim(id, requestHash, now, now.plus(retention)) == 1) {
+                return null;
+            }
+            IdempotencyRecord record = repository.findById(id).orElse(null);
+            if (record != null && STATUS_COMPLETED.equals(record.getStatus())) {
+                return new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                    record.getResponseBody(), record.getLocation());
+            }
+            if (record != null && !record.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyConflictException("Idempotency-Key was already used with a different request");
+            }
+            if (record != null && repository.releaseStale(id, now.minus(staleClaimAfter)) == 1) {
+                continue;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyInProgressException("A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyInProgressException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyInProgressException("Interrupted while waiting for a request with the same Idempotency-Key");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> bodyType) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used with a different request");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotent-Replayed", "true");
+        if (stored.getLocation() != null) {
+            headers.setLocation(URI.create(stored.getLocation()));
+        }
+        T body;
+        try {
+            body = stored.getBody() == null ? null : objectMapper.readValue(stored.getBody(), bodyType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+        return ResponseEntity.status(stored.getStatus()).headers(headers).body(body);
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for idempotent replay", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return digest(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private static String digest(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyInProgressException("Interrupted while waiting for a request with the same Idempotency-Key");
+        }
+    }
+}
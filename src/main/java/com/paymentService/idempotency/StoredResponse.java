@@ -0,0 +1,14 @@
+package com.paymentService.idempotency;
+
+import lombok.Value;
+
+/**
+ * Response recorded for an idempotency key, replayed verbatim to retries.
+ */
+@Value
+class StoredResponse {
+    String requestHash;
+    int status;
+    String body;
+    String location;
+}
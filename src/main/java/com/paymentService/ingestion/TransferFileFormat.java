@@ -0,0 +1,26 @@
+package com.paymentService.ingestion;
+
+/**
+ * Supported layouts of uploaded transfer files.
+ */
+public enum TransferFileFormat {
+    /**
+     * CSV with a header row naming the columns account_number, routing_number, account_holder_name and amount,
+     * and optionally currency and description, in any order
+     */
+    CSV,
+    /**
+     * One transfer per line in fixed columns (1-based, inclusive): routing number 1-9, account number 10-26,
+     * amount in cents 27-38, currency 39-41, account holder name 42-63, description 64-143 (optional).
+     * Text fields are space-padded, the amount zero-padded.
+     */
+    FIXED_WIDTH;
+
+    /**
+     * Parses a format name case-insensitively; "fixed-width" and "fixed_width" are both accepted
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static TransferFileFormat fromValue(String value) {
+        return TransferFileFormat.valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,339 @@
+package com.paymentService.ingestion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentService.dto.request.BankTransferRequest;
+import com.paymentService.dto.response.TransferFileJobResponse;
+import com.paymentService.dto.response.TransferFileRejectResponse;
+import com.paymentService.exception.VelocityLimitExceededException;
+import com.paymentService.id.IdGenerator;
+import com.paymentService.model.CounterpartyAccount;
+import com.paymentService.model.CurrencyConverter;
+import com.paymentService.model.Payment;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.service.implementations.BankTransferDispatcher;
+import com.paymentService.service.implementations.BankTransferValidation;
+import com.paymentService.service.implementations.CounterpartyAccountResolver;
+import com.paymentService.service.implementations.TransferStateMachine;
+import com.paymentService.velocity.VelocityChecker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ingests uploaded bank-transfer files.
+ * The file is parsed as a stream and cut into chunks; chunks are validated and persisted in parallel on the
+ * ingestion worker pool, each as one database transaction of batched inserts, with a bounded number of chunks
+ * in flight so memory use does not grow with the file. Persisted transfers are PENDING and are handed to the
+ * bank-transfer pool by a submitter that backs off while that pool is full, so a large file never fails
+ * transfers for lack of queue space and never crowds out transfers submitted through the API for long.
+ */
+@Service
+public class TransferFileIngestionService {
+    private final TransferStateMachine transferStateMachine;
+    private final BankTransferDispatcher bankTransferDispatcher;
+    private final BankTransferValidation bankTransferValidation;
+    private final VelocityChecker velocityChecker;
+    private final CounterpartyAccountResolver counterpartyAccountResolver;
+    private final IdGenerator idGenerator;
+    private final TaskExecutor jobExecutor;
+    private final TaskExecutor workerExecutor;
+    private final TaskExecutor submissionExecutor;
+    private final Path directory;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxRejects;
+    private final long submitRetryMillis;
+    /** Queued and running jobs; never evicted, since their upload copy is still being read */
+    private final Map<String, TransferFileJob> unfinished = new ConcurrentHashMap<>();
+    /** Finished jobs, of which the most recent are retained */
+    private final Cache<String, TransferFileJob> jobs;
+
+    public TransferFileIngestionService(TransferStateMachine transferStateMachine,
+                                        BankTransferDispatcher bankTransferDispatcher,
+                                        BankTransferValidation bankTransferValidation,
+                                        VelocityChecker velocityChecker,
+                                        CounterpartyAccountResolver counterpartyAccountResolver,
+                                        IdGenerator idGenerator,
+                                        @Qualifier("transferFileJobExecutor") TaskExecutor jobExecutor,
+                                        @Qualifier("transferFileWorkerExecutor") TaskExecutor workerExecutor,
+                                        @Qualifier("transferFileSubmissionExecutor") TaskExecutor submissionExecutor,
+                                        @Value("${payment.ingestion.directory:./ingestion}") String directory,
+                                        @Value("${payment.ingestion.chunk-size:1000}") int chunkSize,
+                                        @Value("${payment.ingestion.max-chunks-in-flight:0}") int maxChunksInFlight,
+                                        @Value("${payment.ingestion.max-rejects:10000}") int maxRejects,
+                                        @Value("${payment.ingestion.submit-retry-millis:50}") long submitRetryMillis,
+                                        @Value("${payment.ingestion.retained-jobs:50}") long retainedJobs) {
+        this.transferStateMachine = transferStateMachine;
+        this.bankTransferDispatcher = bankTransferDispatcher;
+        this.bankTransferValidation = bankTransferValidation;
+        this.velocityChecker = velocityChecker;
+        this.counterpartyAccountResolver = counterpartyAccountResolver;
+        this.idGenerator = idGenerator;
+        this.jobExecutor = jobExecutor;
+        this.workerExecutor = workerExecutor;
+        this.submissionExecutor = submissionExecutor;
+        this.directory = Paths.get(directory);
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight > 0 ? maxChunksInFlight : 2 * Runtime.getRuntime().availableProcessors();
+        this.maxRejects = maxRejects;
+        this.submitRetryMillis = submitRetryMillis;
+        // Evicted jobs take their upload copy with them; only finished jobs are ever in here
+        this.jobs = Caffeine.newBuilder()
+            .maximumSize(retainedJobs)
+            .<String, TransferFileJob>removalListener((id, job, cause) -> {
+                if (job != null) {
+                    deleteDirectory(job.workDirectory);
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Stores a transfer file and queues its ingestion
+     *
+     * @param file The uploaded file, see {@link TransferFileFormat} for the layouts
+     * @param format The layout of the file
+     * @return The queued job
+     * @throws org.springframework.core.task.TaskRejectedException if too many files are already queued
+     */
+    public TransferFileJobResponse submit(InputStream file, TransferFileFormat format) throws IOException {
+        String id = UUID.randomUUID().toString();
+        TransferFileJob job = new TransferFileJob(id, format, directory.resolve(id), maxRejects);
+        Files.createDirectories(job.workDirectory);
+        Files.copy(file, job.uploadFile);
+        unfinished.put(id, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            unfinished.remove(id);
+            deleteDirectory(job.workDirectory);
+            throw e;
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * @return The job's current progress, or null if the job is unknown
+     */
+    public TransferFileJobResponse getJob(String jobId) {
+        TransferFileJob job = findJob(jobId);
+        return job == null ? null : job.toResponse();
+    }
+
+    /**
+     * @return A page of the job's rejected records in line order, or null if the job is unknown
+     */
+    public List<TransferFileRejectResponse> getRejects(String jobId, int offset, int limit) {
+        TransferFileJob job = findJob(jobId);
+        return job == null ? null : job.getRejects(offset, limit);
+    }
+
+    private TransferFileJob findJob(String jobId) {
+        TransferFileJob job = unfinished.get(jobId);
+        return job != null ? job : jobs.getIfPresent(jobId);
+    }
+
+    private void run(TransferFileJob job) {
+        job.started();
+        Semaphore inFlight = new Semaphore(maxChunksInFlight);
+        CompletableFuture<Void> submission = CompletableFuture.runAsync(() -> submit(job), submissionExecutor);
+        try (FileChannel channel = FileChannel.open(job.uploadFile, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), 1 << 16)) {
+            TransferRecordReader records = TransferRecordReader.open(job.format, reader);
+            List<TransferRecord> chunk = new ArrayList<>(chunkSize);
+            TransferRecord record;
+            while (!job.isFailed() && (record = records.next()) != null) {
+                job.records.increment();
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    persistAsync(job, chunk, inFlight);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty() && !job.isFailed()) {
+                persistAsync(job, chunk, inFlight);
+            }
+        } catch (Exception e) {
+            job.failed(e);
+        } finally {
+            // Wait for the chunks still being persisted before telling the submitter no more will come
+            inFlight.acquireUninterruptibly(maxChunksInFlight);
+            job.persisted();
+        }
+        try {
+            submission.join();
+            job.completed();
+            deleteUpload(job);
+        } finally {
+            // Retained from now on, so it becomes evictable; it is in one map or the other throughout
+            jobs.put(job.id, job);
+            unfinished.remove(job.id);
+        }
+    }
+
+    private void persistAsync(TransferFileJob job, List<TransferRecord> chunk, Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            workerExecutor.execute(() -> {
+                try {
+                    persist(job, chunk);
+                } catch (Exception e) {
+                    job.failed(e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Validates one chunk, counting each valid record against its account's velocity limits, and persists its valid records as PENDING transfers in a single transaction
+     */
+    private void persist(TransferFileJob job, List<TransferRecord> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> payments = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        List<CounterpartyAccount> accounts = new ArrayList<>(chunk.size());
+        for (TransferRecord record : chunk) {
+            String reason = record.getError() != null ? record.getError() : bankTransferValidation.rejectReason(record.getRequest());
+            if (reason != null) {
+                job.reject(record.getLine(), reason);
+                continue;
+            }
+            BankTransferRequest request = record.getRequest();
+            try {
+                velocityChecker.check(request);
+            } catch (VelocityLimitExceededException e) {
+                job.reject(record.getLine(), e.getMessage());
+                continue;
+            }
+            Currency currency = CurrencyConverter.parse(request.getCurrency());
+            Payment payment = new Payment();
+            payment.setId(idGenerator.nextId());
+            payment.setAccountNumber(request.getAccountNumber());
+            payment.setRoutingNumber(request.getRoutingNumber());
+            payment.setAccountHolderName(request.getAccountHolderName());
+            payment.setAmount(request.getAmount());
+            payment.setCurrency(currency == null ? null : currency.getCurrencyCode());
+            payment.setDescription(request.getDescription());
+            payment.setTransferStatus(TransferStatus.PENDING.name());
+            payment.setCreatedAt(now);
+            payment.setUpdatedAt(now);
+            payments.add(payment);
+
+            Transaction transaction = new Transaction();
+            transaction.setId(idGenerator.nextId());
+            transaction.setTransactionId(idGenerator.nextId().toString());
+            transaction.setPaymentId(payment.getId());
+            transaction.setAmount(request.getAmount());
+            transaction.setCurrency(currency);
+            transaction.setStatus(TransferStatus.PENDING);
+            transaction.setDescription(request.getDescription());
+            transaction.setCreatedAt(now);
+            transaction.setUpdatedAt(now);
+            transactions.add(transaction);
+
+            CounterpartyAccount account = new CounterpartyAccount();
+            account.setRoutingNumber(request.getRoutingNumber());
+            account.setAccountNumber(request.getAccountNumber());
+            account.setAccountHolderName(request.getAccountHolderName());
+            accounts.add(account);
+        }
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Long> accountIds = counterpartyAccountResolver.resolveAll(accounts);
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setCounterpartyAccountId(accountIds.get(i));
+        }
+        transferStateMachine.openAll(payments, transactions);
+        job.accepted.add(transactions.size());
+        List<String> transferIds = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            transferIds.add(transaction.getTransactionId());
+        }
+        job.pendingSubmission.add(transferIds);
+    }
+
+    /**
+     * Hands persisted transfers to the bank-transfer pool until persistence has finished and the queue is drained.
+     * While the pool is full the transfer stays PENDING and is offered again after a short pause.
+     */
+    private void submit(TransferFileJob job) {
+        try {
+            while (true) {
+                List<String> transferIds = job.pendingSubmission.poll(submitRetryMillis, TimeUnit.MILLISECONDS);
+                if (transferIds == null) {
+                    if (job.isPersistenceFinished() && job.pendingSubmission.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                for (String transferId : transferIds) {
+                    while (!bankTransferDispatcher.tryDispatch(transferId)) {
+                        Thread.sleep(submitRetryMillis);
+                    }
+                    job.submitted.increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed(e);
+        }
+    }
+
+    private static void deleteUpload(TransferFileJob job) {
+        try {
+            Files.deleteIfExists(job.uploadFile);
+        } catch (IOException e) {
+            // Removed with the job directory
+        }
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            // Best effort; the directory is reused by nothing else
+        }
+    }
+}
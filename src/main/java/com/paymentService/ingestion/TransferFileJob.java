@@ -0,0 +1,118 @@
+package com.paymentService.ingestion;
+
+import com.paymentService.dto.response.TransferFileJobResponse;
+import com.paymentService.dto.response.TransferFileRejectResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and results of one transfer file ingestion. Counters are updated concurrently by the chunk workers
+ * and the submitter.
+ */
+class TransferFileJob {
+    enum Status { QUEUED, RUNNING, SUBMITTING, COMPLETED, FAILED }
+
+    final String id;
+    final TransferFileFormat format;
+    final Path workDirectory;
+    final Path uploadFile;
+
+    final LongAdder records = new LongAdder();
+    final LongAdder accepted = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder submitted = new LongAdder();
+
+    /** Transfer ids of persisted chunks waiting to be handed to the bank-transfer pool */
+    final LinkedBlockingQueue<List<String>> pendingSubmission = new LinkedBlockingQueue<>();
+
+    private final int maxRejects;
+    private final List<TransferFileRejectResponse> rejects = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean persistenceFinished;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime persistedAt;
+    private volatile LocalDateTime finishedAt;
+
+    TransferFileJob(String id, TransferFileFormat format, Path workDirectory, int maxRejects) {
+        this.id = id;
+        this.format = format;
+        this.workDirectory = workDirectory;
+        this.uploadFile = workDirectory.resolve("upload");
+        this.maxRejects = maxRejects;
+    }
+
+    /**
+     * Counts a rejected record; only the first maxRejects reasons are kept
+     */
+    void reject(long line, String reason) {
+        rejected.increment();
+        synchronized (rejects) {
+            if (rejects.size() < maxRejects) {
+                rejects.add(new TransferFileRejectResponse(line, reason));
+            }
+        }
+    }
+
+    List<TransferFileRejectResponse> getRejects(int offset, int limit) {
+        List<TransferFileRejectResponse> sorted;
+        synchronized (rejects) {
+            sorted = new ArrayList<>(rejects);
+        }
+        sorted.sort(Comparator.comparingLong(TransferFileRejectResponse::getLine));
+        int from = Math.min(offset, sorted.size());
+        return new ArrayList<>(sorted.subList(from, Math.min(sorted.size(), from + limit)));
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Called once no more chunks will be queued for submission. A job whose persistence failed stays FAILED,
+     * but the transfers it did persist are still submitted.
+     */
+    void persisted() {
+        persistedAt = LocalDateTime.now();
+        persistenceFinished = true;
+        if (status != Status.FAILED) {
+            status = Status.SUBMITTING;
+        }
+    }
+
+    boolean isPersistenceFinished() {
+        return persistenceFinished;
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        if (status != Status.FAILED) {
+            status = Status.COMPLETED;
+        }
+    }
+
+    synchronized void failed(Exception e) {
+        if (status == Status.FAILED) {
+            return;
+        }
+        error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        status = Status.FAILED;
+    }
+
+    boolean isFailed() {
+        return status == Status.FAILED;
+    }
+
+    TransferFileJobResponse toResponse() {
+        return new TransferFileJobResponse(id, format.name(), status.name(), records.sum(), accepted.sum(),
+            rejected.sum(), submitted.sum(), error, startedAt, persistedAt, finishedAt);
+    }
+}
@@ -0,0 +1,15 @@
+package com.paymentService.ingestion;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import lombok.Value;
+
+/**
+ * One parsed record of a transfer file: either a request or the reason it could not be parsed.
+ */
+@Value
+class TransferRecord {
+    /** Physical line of the file the record starts on, counting from 1 */
+    long line;
+    BankTransferRequest request;
+    String error;
+}
@@ -0,0 +1,149 @@
+package com.paymentService.ingestion;
+
+import com.paymentService.csv.CsvReader;
+import com.paymentService.dto.request.BankTransferRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Reads transfer records from a file one at a time, so files of any size are parsed in constant memory.
+ * Parse problems are returned as records carrying an error rather than thrown; validation of the
+ * parsed request is left to the caller.
+ */
+abstract class TransferRecordReader {
+    /** Currency of records that do not state one; ACH-style files are dollar-denominated */
+    static final String DEFAULT_CURRENCY = "USD";
+
+    /**
+     * @return The next record, or null at the end of the file
+     */
+    abstract TransferRecord next() throws IOException;
+
+    static TransferRecordReader open(TransferFileFormat format, BufferedReader reader) throws IOException {
+        return format == TransferFileFormat.CSV ? new Csv(reader) : new FixedWidth(reader);
+    }
+
+    static BankTransferRequest request(String accountNumber, String routingNumber, String accountHolderName,
+                                       BigDecimal amount, String currency, String description) {
+        BankTransferRequest request = new BankTransferRequest();
+        request.setAccountNumber(accountNumber);
+        request.setRoutingNumber(routingNumber);
+        request.setAccountHolderName(accountHolderName);
+        request.setAmount(amount);
+        request.setCurrency(currency == null || currency.isEmpty() ? DEFAULT_CURRENCY : currency.toUpperCase());
+        request.setDescription(description == null || description.isEmpty() ? null : description);
+        return request;
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static final class Csv extends TransferRecordReader {
+        private final CsvReader csv;
+        private final int accountNumber;
+        private final int routingNumber;
+        private final int accountHolderName;
+        private final int amount;
+        private final int currency;
+        private final int description;
+        private final int columns;
+
+        Csv(BufferedReader reader) throws IOException {
+            this.csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("Transfer file is empty");
+            }
+            this.columns = header.size();
+            this.accountNumber = column(header, "account_number", true);
+            this.routingNumber = column(header, "routing_number", true);
+            this.accountHolderName = column(header, "account_holder_name", true);
+            this.amount = column(header, "amount", true);
+            this.currency = column(header, "currency", false);
+            this.description = column(header, "description", false);
+        }
+
+        @Override
+        TransferRecord next() throws IOException {
+            List<String> record;
+            long line;
+            do {
+                // Records may span lines inside quoted fields; a reject reports the line the record starts on
+                line = csv.getLinesRead() + 1;
+                record = csv.readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0) == null);
+            if (record.size() != columns) {
+                return new TransferRecord(line, null, "Expected " + columns + " fields but found " + record.size());
+            }
+            BigDecimal value;
+            try {
+                value = new BigDecimal(trimmed(record.get(amount)));
+            } catch (NumberFormatException | NullPointerException e) {
+                return new TransferRecord(line, null, "Amount is not a number");
+            }
+            if (value.stripTrailingZeros().scale() > 2) {
+                return new TransferRecord(line, null, "Amount has more than two decimal places");
+            }
+            return new TransferRecord(line, request(trimmed(record.get(accountNumber)), trimmed(record.get(routingNumber)),
+                trimmed(record.get(accountHolderName)), value,
+                currency < 0 ? null : trimmed(record.get(currency)),
+                description < 0 ? null : trimmed(record.get(description))), null);
+        }
+
+        private static int column(List<String> header, String name, boolean required) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i) != null && header.get(i).trim().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            if (required) {
+                throw new IllegalArgumentException("Transfer file has no " + name + " column");
+            }
+            return -1;
+        }
+    }
+
+    private static final class FixedWidth extends TransferRecordReader {
+        private static final int MINIMUM_LENGTH = 63;
+        private static final int MAXIMUM_LENGTH = 143;
+
+        private final BufferedReader reader;
+        private long line;
+
+        FixedWidth(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        TransferRecord next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+            if (text.length() < MINIMUM_LENGTH || text.length() > MAXIMUM_LENGTH) {
+                return new TransferRecord(line, null,
+                    "Record must be " + MINIMUM_LENGTH + " to " + MAXIMUM_LENGTH + " characters long");
+            }
+            String cents = text.substring(26, 38);
+            for (int i = 0; i < cents.length(); i++) {
+                if (cents.charAt(i) < '0' || cents.charAt(i) > '9') {
+                    return new TransferRecord(line, null, "Amount is not a zero-padded number of cents");
+                }
+            }
+            return new TransferRecord(line, request(text.substring(9, 26).trim(), text.substring(0, 9).trim(),
+                text.substring(41, 63).trim(), BigDecimal.valueOf(Long.parseLong(cents), 2),
+                text.substring(38, 41).trim(), text.length() > 63 ? text.substring(63).trim() : null), null);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One payment's transaction counts and amounts by status within an archived partition, recorded when the
+ * partition is exported. A summary rebuild adds these to what is still in the transactions table, so
+ * archiving a month does not change any payment's summary.
+ */
+@Data
+@Entity
+@IdClass(ArchivedPaymentSummary.Key.class)
+@Table(name = "archived_payment_summaries", indexes = {
+    @Index(name = "idx_archived_payment_summaries_payment", columnList = "payment_id")
+})
+public class ArchivedPaymentSummary {
+
+    /** Name of the archived partition, see {@link TransactionArchive#getPartitionName()} */
+    @Id
+    @Column(length = 63)
+    private String partitionName;
+
+    @Id
+    private UUID paymentId;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private long pendingCount;
+
+    @Column(nullable = false)
+    private BigDecimal pendingAmount;
+
+    @Column(nullable = false)
+    private long processingCount;
+
+    @Column(nullable = false)
+    private BigDecimal processingAmount;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private BigDecimal completedAmount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Column(nullable = false)
+    private BigDecimal failedAmount;
+
+    private LocalDateTime lastActivityAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String partitionName;
+        private UUID paymentId;
+    }
+}
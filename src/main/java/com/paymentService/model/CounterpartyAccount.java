@@ -0,0 +1,35 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * A bank account transfers are sent to, stored once and referenced from every transaction to it.
+ * Rows are immutable; a different holder name for the same account is a different row, so each
+ * transaction keeps exactly the details it was submitted with.
+ */
+@Data
+@Entity
+@Table(name = "counterparty_accounts", uniqueConstraints = @UniqueConstraint(name = "uk_counterparty_accounts_account",
+    columnNames = {"routing_number", "account_number", "account_holder_name"}))
+public class CounterpartyAccount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String routingNumber;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private String accountHolderName;
+}
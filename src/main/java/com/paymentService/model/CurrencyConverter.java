@@ -0,0 +1,68 @@
+package com.paymentService.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Comparator;
+import java.util.Currency;
+
+/**
+ * Stores a {@link Currency} as its two-byte ISO 4217 numeric code rather than its three-letter code.
+ * A few historic currencies share a numeric code with another or have none; those cannot be stored,
+ * see {@link #parse}.
+ */
+@Converter
+public class CurrencyConverter implements AttributeConverter<Currency, Short> {
+    private static final Currency[] BY_CODE = new Currency[1000];
+
+    static {
+        Currency.getAvailableCurrencies().stream()
+            .sorted(Comparator.comparing(Currency::getCurrencyCode))
+            .filter(currency -> currency.getNumericCode() > 0 && currency.getNumericCode() < BY_CODE.length)
+            .forEach(currency -> {
+                if (BY_CODE[currency.getNumericCode()] == null) {
+                    BY_CODE[currency.getNumericCode()] = currency;
+                }
+            });
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(Currency currency) {
+        return currency == null ? null : (short) currency.getNumericCode();
+    }
+
+    @Override
+    public Currency convertToEntityAttribute(Short code) {
+        return code == null ? null : fromCode(code);
+    }
+
+    /**
+     * Looks up a currency by its stored numeric code
+     * @throws IllegalArgumentException if no storable currency has the code
+     */
+    public static Currency fromCode(int code) {
+        Currency currency = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (currency == null) {
+            throw new IllegalArgumentException("Unknown currency code " + code);
+        }
+        return currency;
+    }
+
+    /**
+     * Parses a three-letter currency code, case-insensitively
+     * @return The currency, or null if the code is not a currency that can be stored
+     */
+    public static Currency parse(String currencyCode) {
+        if (currencyCode == null || currencyCode.length() != 3) {
+            return null;
+        }
+        Currency currency;
+        try {
+            currency = Currency.getInstance(currencyCode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int code = currency.getNumericCode();
+        return code > 0 && code < BY_CODE.length && BY_CODE[code] == currency ? currency : null;
+    }
+}
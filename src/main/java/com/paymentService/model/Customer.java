@@ -4,8 +4,7 @@ package com.paymentService.model;
 import lombok.Data;
 import java.util.UUID;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import com.paymentService.id.GeneratedId;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
@@ -16,7 +15,7 @@ import java.time.LocalDateTime;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
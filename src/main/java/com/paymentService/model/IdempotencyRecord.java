@@ -0,0 +1,45 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent record of a request made with an {@code Idempotency-Key} header and, once finished, its response.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    /** Endpoint scope, hashed client subject and client-supplied key, e.g. {@code make-payment:9a0e...:3f1c...} */
+    @Id
+    @Column(length = 300)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(nullable = true)
+    private Integer responseStatus;
+
+    @Column(nullable = true, columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = true)
+    private String location;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+}
@@ -1,11 +1,11 @@
 package com.paymentService.model;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import com.paymentService.id.GeneratedId;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import java.util.UUID;
 import java.time.LocalDateTime;
@@ -13,11 +13,11 @@ import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = @UniqueConstraint(name = "uk_payments_customer_id", columnNames = "customer_id"))
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedId
     private UUID id;
 
     @Column(nullable = false)
@@ -0,0 +1,57 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model holding per-payment transaction counts and amounts by status.
+ * Maintained incrementally alongside every transaction insert and status change, and rebuildable
+ * from the transactions table and the {@link ArchivedPaymentSummary} totals of archived partitions at any time.
+ */
+@Data
+@Entity
+@Table(name = "payment_summaries")
+public class PaymentSummary {
+
+    @Id
+    private UUID paymentId;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private long pendingCount;
+
+    @Column(nullable = false)
+    private BigDecimal pendingAmount;
+
+    @Column(nullable = false)
+    private long processingCount;
+
+    @Column(nullable = false)
+    private BigDecimal processingAmount;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private BigDecimal completedAmount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Column(nullable = false)
+    private BigDecimal failedAmount;
+
+    private LocalDateTime lastActivityAt;
+}
@@ -1,24 +1,35 @@
 package com.paymentService.model;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import com.paymentService.id.GeneratedId;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Currency;
 import java.util.UUID;
 
+/**
+ * One movement of money against a payment. Rows are kept narrow because this is the largest table:
+ * status and currency are stored as two-byte codes, and the destination account of a bank transfer
+ * is stored once in counterparty_accounts and referenced by id. See db/transactions_compact_storage.sql
+ * for the migration from the earlier layout.
+ */
 @Data
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // Serves keyset-paginated and streamed history reads in (createdAt, id) order
+    @Index(name = "idx_transactions_payment_created", columnList = "payment_id, created_at, id")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -30,24 +41,24 @@ public class Transaction {
     @Column(nullable = false)
     private BigDecimal amount;
 
-    @Column(nullable = false)
-    private String currency;
-
-    @Column(nullable = false)
-    private String accountNumber;
-
-    @Column(nullable = false)
-    private String routingNumber;
+    /** Null for card payments, which carry no currency, and for bank transfers submitted without one */
+    @Convert(converter = CurrencyConverter.class)
+    @Column(nullable = true)
+    private Currency currency;
 
-    @Column(nullable = false)
-    private String accountHolderName;
+    /** Destination account of a bank transfer; null for card payments */
+    @Column(nullable = true)
+    private Long counterpartyAccountId;
 
+    @Convert(converter = TransferStatusConverter.class)
     @Column(nullable = false)
-    private String status;
+    private TransferStatus status;
 
     @Column(nullable = true)
     private String description;
 
+    /** Partition key when the table is partitioned by month; see db/transactions_partitioning.sql */
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
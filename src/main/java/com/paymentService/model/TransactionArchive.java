@@ -0,0 +1,46 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A monthly transactions partition that has been exported to a compressed archive file.
+ */
+@Data
+@Entity
+@Table(name = "transaction_archives")
+public class TransactionArchive {
+
+    /** Name of the exported partition, e.g. {@code transactions_p202401} */
+    @Id
+    @Column(length = 63)
+    private String partitionName;
+
+    /** Inclusive lower bound of the partition's created_at range */
+    @Column(nullable = false)
+    private LocalDateTime rangeStart;
+
+    /** Exclusive upper bound of the partition's created_at range */
+    @Column(nullable = false)
+    private LocalDateTime rangeEnd;
+
+    @Column(nullable = false, length = 1024)
+    private String dataFile;
+
+    @Column(nullable = false, length = 1024)
+    private String indexFile;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /** When the partition was detached from the transactions table; null while it is still attached */
+    private LocalDateTime detachedAt;
+}
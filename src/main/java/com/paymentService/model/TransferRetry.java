@@ -0,0 +1,38 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A PROCESSING transfer whose bank call failed transiently and that is waiting to be submitted again.
+ * {@code attempts} counts the bank calls made so far, including the one in progress while the row is leased.
+ */
+@Data
+@Entity
+@Table(name = "transfer_retries", indexes = {
+    @Index(name = "idx_transfer_retries_next_attempt", columnList = "next_attempt_at")
+})
+public class TransferRetry {
+
+    @Id
+    private String transferId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /** When the transfer is due; while a worker holds the row, when its lease expires */
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime enqueuedAt;
+
+    @Column(nullable = true, length = 500)
+    private String lastError;
+}
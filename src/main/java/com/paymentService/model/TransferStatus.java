@@ -0,0 +1,88 @@
+package com.paymentService.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of a bank transfer.
+ * PENDING and PROCESSING are in-flight states; COMPLETED and FAILED are terminal.
+ * Transactions store the status as its numeric code (see {@link TransferStatusConverter}); codes must never be reused.
+ */
+public enum TransferStatus {
+    PENDING(1),
+    PROCESSING(2),
+    COMPLETED(3),
+    FAILED(4);
+
+    private static final TransferStatus[] BY_CODE = new TransferStatus[5];
+
+    static {
+        for (TransferStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final short code;
+
+    TransferStatus(int code) {
+        this.code = (short) code;
+    }
+
+    /**
+     * @return The code stored in the transactions.status column
+     */
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Checks whether a transfer in this status may move to the given status
+     * @param target The requested next status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(TransferStatus target) {
+        return allowedTargets().contains(target);
+    }
+
+    /**
+     * @return true if no further transitions are possible
+     */
+    public boolean isTerminal() {
+        return allowedTargets().isEmpty();
+    }
+
+    private Set<TransferStatus> allowedTargets() {
+        switch (this) {
+            case PENDING:
+                return EnumSet.of(PROCESSING, COMPLETED, FAILED);
+            case PROCESSING:
+                return EnumSet.of(COMPLETED, FAILED);
+            default:
+                return EnumSet.noneOf(TransferStatus.class);
+        }
+    }
+
+    /**
+     * Parses a stored status, tolerating the lower-case spelling used by older rows
+     * @param value The stored status
+     * @return The matching status
+     * @throws IllegalArgumentException if the value is not a known status
+     */
+    public static TransferStatus fromValue(String value) {
+        return TransferStatus.valueOf(value.trim().toUpperCase());
+    }
+
+    /**
+     * Looks up a status by its stored code
+     * @param code The stored code
+     * @return The matching status
+     * @throws IllegalArgumentException if the code is not a known status
+     */
+    public static TransferStatus fromCode(int code) {
+        TransferStatus status = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown transfer status code " + code);
+        }
+        return status;
+    }
+}
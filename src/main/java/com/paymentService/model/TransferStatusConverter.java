@@ -0,0 +1,21 @@
+package com.paymentService.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link TransferStatus} as its two-byte code rather than its name.
+ */
+@Converter
+public class TransferStatusConverter implements AttributeConverter<TransferStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TransferStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public TransferStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : TransferStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,49 @@
+package com.paymentService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox row recording one transfer status change, written in the same transaction as the change itself.
+ * The sequence id orders the feed; {@code publishedAt} is set once the relay has handed the event on.
+ */
+@Data
+@Entity
+@Table(name = "transfer_status_outbox", indexes = {
+    @Index(name = "idx_transfer_status_outbox_unpublished", columnList = "published_at, id")
+})
+public class TransferStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_status_outbox_seq")
+    @SequenceGenerator(name = "transfer_status_outbox_seq", sequenceName = "transfer_status_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String transferId;
+
+    @Column(nullable = false)
+    private UUID paymentId;
+
+    @Column(nullable = true)
+    private String fromStatus;
+
+    @Column(nullable = false)
+    private String toStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = true)
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,26 @@
+package com.paymentService.model.repository;
+
+import com.paymentService.model.CounterpartyAccount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CounterpartyAccountRepository extends JpaRepository<CounterpartyAccount, Long> {
+
+    /**
+     * Resolves the id of a counterparty account, inserting it if it doesn't exist yet.
+     * Relies on the unique constraint on (routing_number, account_number, account_holder_name), so concurrent
+     * callers never create duplicates.
+     * @return The id of the new or existing account
+     */
+    @Transactional
+    @Query(value = "INSERT INTO counterparty_accounts (routing_number, account_number, account_holder_name) "
+        + "VALUES (:routingNumber, :accountNumber, :accountHolderName) "
+        + "ON CONFLICT (routing_number, account_number, account_holder_name) "
+        + "DO UPDATE SET account_holder_name = EXCLUDED.account_holder_name "
+        + "RETURNING id", nativeQuery = true)
+    Long upsert(@Param("routingNumber") String routingNumber,
+                @Param("accountNumber") String accountNumber,
+                @Param("accountHolderName") String accountHolderName);
+}
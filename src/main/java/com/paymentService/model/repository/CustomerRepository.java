@@ -1,8 +1,31 @@
 package com.paymentService.model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.paymentService.model.Customer;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     Customer findByCustomerId(UUID customerId);
+
+    List<Customer> findAllByCustomerIdIn(Collection<UUID> customerIds);
+
+    /**
+     * Resolves the internal id of a customer, inserting the customer if it doesn't exist yet.
+     * Concurrent callers for the same customer wait on the unique index and all receive the same id;
+     * the no-op update is what makes RETURNING yield the existing row on conflict.
+     * @param id The id to use if the customer is inserted
+     * @return The internal id of the new or existing customer
+     */
+    @Transactional
+    @Query(value = "INSERT INTO customers (id, customer_id, created_at) VALUES (:id, :customerId, :createdAt) "
+        + "ON CONFLICT (customer_id) DO UPDATE SET customer_id = EXCLUDED.customer_id "
+        + "RETURNING id", nativeQuery = true)
+    UUID upsertByCustomerId(@Param("id") UUID id,
+                            @Param("customerId") UUID customerId,
+                            @Param("createdAt") LocalDateTime createdAt);
 }
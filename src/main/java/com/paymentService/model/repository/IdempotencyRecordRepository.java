@@ -0,0 +1,57 @@
+package com.paymentService.model.repository;
+
+import com.paymentService.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Atomically claims a key for execution
+     * @return 1 if this caller claimed the key, 0 if it already exists
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, status, created_at, expires_at) "
+        + "VALUES (:key, :requestHash, 'IN_PROGRESS', :createdAt, :expiresAt) "
+        + "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = 'COMPLETED', r.responseStatus = :responseStatus, "
+        + "r.responseBody = :responseBody, r.location = :location where r.idempotencyKey = :key")
+    int complete(@Param("key") String key,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("location") String location);
+
+    /**
+     * Releases a claim whose execution failed so the client can retry
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.status = 'IN_PROGRESS'")
+    int release(@Param("key") String key);
+
+    /**
+     * Takes over a claim left behind by an instance that died mid-request
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.status = 'IN_PROGRESS' and r.createdAt < :claimedBefore")
+    int releaseStale(@Param("key") String key, @Param("claimedBefore") LocalDateTime claimedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,9 +1,39 @@
 package com.paymentService.model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.paymentService.model.Payment;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     Payment findByCustomerId(UUID customerId);
+
+    List<Payment> findAllByCustomerIdIn(Collection<UUID> customerIds);
+
+    /**
+     * Resolves the id of a customer's payment record, inserting it if it doesn't exist yet.
+     * Relies on the unique constraint on payments.customer_id, so concurrent callers never create duplicates.
+     * @param id The id to use if the payment is inserted
+     * @param customerId The internal customer id
+     * @return The id of the new or existing payment
+     */
+    @Transactional
+    @Query(value = "INSERT INTO payments (id, customer_id, created_at) VALUES (:id, :customerId, :createdAt) "
+        + "ON CONFLICT (customer_id) DO UPDATE SET customer_id = EXCLUDED.customer_id "
+        + "RETURNING id", nativeQuery = true)
+    UUID upsertByCustomerId(@Param("id") UUID id,
+                            @Param("customerId") UUID customerId,
+                            @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("update Payment p set p.transferStatus = :transferStatus, p.updatedAt = :updatedAt where p.id = :id")
+    int updateTransferStatus(@Param("id") UUID id,
+                             @Param("transferStatus") String transferStatus,
+                             @Param("updatedAt") LocalDateTime updatedAt);
 }
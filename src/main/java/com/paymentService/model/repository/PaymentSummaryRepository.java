@@ -0,0 +1,108 @@
+package com.paymentService.model.repository;
+
+import com.paymentService.model.PaymentSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PaymentSummaryRepository extends JpaRepository<PaymentSummary, UUID> {
+
+    /**
+     * Adds the given deltas to a payment's summary, creating the summary row if needed.
+     * Must run inside the transaction that made the corresponding change to the transactions table.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO payment_summaries (payment_id, transaction_count, total_amount, "
+        + "pending_count, pending_amount, processing_count, processing_amount, "
+        + "completed_count, completed_amount, failed_count, failed_amount, last_activity_at) "
+        + "VALUES (:paymentId, :transactionCount, :totalAmount, :pendingCount, :pendingAmount, "
+        + ":processingCount, :processingAmount, :completedCount, :completedAmount, :failedCount, :failedAmount, :activityAt) "
+        + "ON CONFLICT (payment_id) DO UPDATE SET "
+        + "transaction_count = payment_summaries.transaction_count + EXCLUDED.transaction_count, "
+        + "total_amount = payment_summaries.total_amount + EXCLUDED.total_amount, "
+        + "pending_count = payment_summaries.pending_count + EXCLUDED.pending_count, "
+        + "pending_amount = payment_summaries.pending_amount + EXCLUDED.pending_amount, "
+        + "processing_count = payment_summaries.processing_count + EXCLUDED.processing_count, "
+        + "processing_amount = payment_summaries.processing_amount + EXCLUDED.processing_amount, "
+        + "completed_count = payment_summaries.completed_count + EXCLUDED.completed_count, "
+        + "completed_amount = payment_summaries.completed_amount + EXCLUDED.completed_amount, "
+        + "failed_count = payment_summaries.failed_count + EXCLUDED.failed_count, "
+        + "failed_amount = payment_summaries.failed_amount + EXCLUDED.failed_amount, "
+        + "last_activity_at = GREATEST(payment_summaries.last_activity_at, EXCLUDED.last_activity_at)",
+        nativeQuery = true)
+    int applyDelta(@Param("paymentId") UUID paymentId,
+                   @Param("transactionCount") long transactionCount,
+                   @Param("totalAmount") BigDecimal totalAmount,
+                   @Param("pendingCount") long pendingCount,
+                   @Param("pendingAmount") BigDecimal pendingAmount,
+                   @Param("processingCount") long processingCount,
+                   @Param("processingAmount") BigDecimal processingAmount,
+                   @Param("completedCount") long completedCount,
+                   @Param("completedAmount") BigDecimal completedAmount,
+                   @Param("failedCount") long failedCount,
+                   @Param("failedAmount") BigDecimal failedAmount,
+                   @Param("activityAt") LocalDateTime activityAt);
+
+    /**
+     * Blocks concurrent summary updates until the current transaction ends, so a rebuild cannot
+     * overwrite deltas committed while it reads the transactions table
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "LOCK TABLE payment_summaries IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * Recomputes every summary in a single aggregate pass over the transactions table and the per-payment totals
+     * of archived partitions. Rows in a month that has an archive are counted from its totals only, whether or not
+     * the partition is still attached, so a month is never counted twice or dropped once it is detached.
+     * Statuses are matched by their stored codes, see {@link com.paymentService.model.TransferStatus#getCode()}
+     * @return The number of summaries written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO payment_summaries (payment_id, transaction_count, total_amount, "
+        + "pending_count, pending_amount, processing_count, processing_amount, "
+        + "completed_count, completed_amount, failed_count, failed_amount, last_activity_at) "
+        + "SELECT payment_id, sum(transaction_count), sum(total_amount), sum(pending_count), sum(pending_amount), "
+        + "sum(processing_count), sum(processing_amount), sum(completed_count), sum(completed_amount), "
+        + "sum(failed_count), sum(failed_amount), max(last_activity_at) FROM ("
+        + "SELECT payment_id, count(*) AS transaction_count, coalesce(sum(amount), 0) AS total_amount, "
+        + "count(*) FILTER (WHERE status = 1) AS pending_count, coalesce(sum(amount) FILTER (WHERE status = 1), 0) AS pending_amount, "
+        + "count(*) FILTER (WHERE status = 2) AS processing_count, coalesce(sum(amount) FILTER (WHERE status = 2), 0) AS processing_amount, "
+        + "count(*) FILTER (WHERE status = 3) AS completed_count, coalesce(sum(amount) FILTER (WHERE status = 3), 0) AS completed_amount, "
+        + "count(*) FILTER (WHERE status = 4) AS failed_count, coalesce(sum(amount) FILTER (WHERE status = 4), 0) AS failed_amount, "
+        + "max(coalesce(updated_at, created_at)) AS last_activity_at "
+        + "FROM transactions t WHERE payment_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM transaction_archives a "
+        + "WHERE t.created_at >= a.range_start AND t.created_at < a.range_end) GROUP BY payment_id "
+        + "UNION ALL SELECT payment_id, transaction_count, total_amount, pending_count, pending_amount, "
+        + "processing_count, processing_amount, completed_count, completed_amount, failed_count, failed_amount, "
+        + "last_activity_at FROM archived_payment_summaries) totals GROUP BY payment_id "
+        + "ON CONFLICT (payment_id) DO UPDATE SET "
+        + "transaction_count = EXCLUDED.transaction_count, total_amount = EXCLUDED.total_amount, "
+        + "pending_count = EXCLUDED.pending_count, pending_amount = EXCLUDED.pending_amount, "
+        + "processing_count = EXCLUDED.processing_count, processing_amount = EXCLUDED.processing_amount, "
+        + "completed_count = EXCLUDED.completed_count, completed_amount = EXCLUDED.completed_amount, "
+        + "failed_count = EXCLUDED.failed_count, failed_amount = EXCLUDED.failed_amount, "
+        + "last_activity_at = EXCLUDED.last_activity_at", nativeQuery = true)
+    int rebuildFromTransactions();
+
+    /**
+     * Removes summaries whose payment no longer has any transactions, neither live nor archived
+     * @return The number of summaries removed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "DELETE FROM payment_summaries s "
+        + "WHERE NOT EXISTS (SELECT 1 FROM transactions t WHERE t.payment_id = s.payment_id) "
+        + "AND NOT EXISTS (SELECT 1 FROM archived_payment_summaries a WHERE a.payment_id = s.payment_id)", nativeQuery = true)
+    int deleteOrphaned();
+}
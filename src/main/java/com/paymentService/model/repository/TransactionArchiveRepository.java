@@ -0,0 +1,10 @@
+package com.paymentService.model.repository;
+
+import com.paymentService.model.TransactionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TransactionArchiveRepository extends JpaRepository<TransactionArchive, String> {
+    List<TransactionArchive> findAllByOrderByRangeStartAsc();
+}
@@ -1,11 +1,154 @@
 package com.paymentService.model.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import com.paymentService.dto.response.MakePaymentResponse;
+import com.paymentService.id.TimeOrderedIdGenerator;
 import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import jakarta.persistence.QueryHint;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
-    List<Transaction> findAllByPaymentId(UUID paymentId);
+    List<Transaction> findAllByPaymentIdAndCreatedAtGreaterThanEqual(UUID paymentId, LocalDateTime createdFrom);
+
+    /**
+     * Looks up a transfer by its transfer id.
+     * Time-ordered ids carry their creation time, which bounds created_at to a window around it that a partitioned
+     * table can restrict to one or two partitions. Other ids, and rows outside the window, are found by probing
+     * every partition.
+     */
+    default Transaction findByTransactionId(String transactionId) {
+        long millis = TimeOrderedIdGenerator.timestampMillis(transactionId);
+        if (millis >= 0) {
+            Transaction transaction = findByTransactionIdCreatedBetween(transactionId,
+                createdAround(millis).minus(CREATED_AT_SLACK), createdAround(millis).plus(CREATED_AT_SLACK));
+            if (transaction != null) {
+                return transaction;
+            }
+        }
+        return findFirstByTransactionId(transactionId);
+    }
+
+    /**
+     * Looks up transfers by their transfer ids, bounding created_at by the earliest and latest creation times
+     * embedded in the ids like {@link #findByTransactionId}
+     */
+    default List<Transaction> findAllByTransactionIdIn(Collection<String> transactionIds) {
+        long earliest = Long.MAX_VALUE;
+        long latest = Long.MIN_VALUE;
+        for (String transactionId : transactionIds) {
+            long millis = TimeOrderedIdGenerator.timestampMillis(transactionId);
+            if (millis < 0) {
+                return findAllByTransactionIdInAnyPartition(transactionIds);
+            }
+            earliest = Math.min(earliest, millis);
+            latest = Math.max(latest, millis);
+        }
+        if (transactionIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Transaction> found = findAllByTransactionIdInCreatedBetween(transactionIds,
+            createdAround(earliest).minus(CREATED_AT_SLACK), createdAround(latest).plus(CREATED_AT_SLACK));
+        if (found.size() < transactionIds.size()) {
+            Set<String> missing = new HashSet<>(transactionIds);
+            for (Transaction transaction : found) {
+                missing.remove(transaction.getTransactionId());
+            }
+            if (!missing.isEmpty()) {
+                found = new ArrayList<>(found);
+                found.addAll(findAllByTransactionIdInAnyPartition(missing));
+            }
+        }
+        return found;
+    }
+
+    /** How far created_at may lie from the time embedded in a transfer id, including a time-zone change */
+    Duration CREATED_AT_SLACK = Duration.ofDays(1);
+
+    private static LocalDateTime createdAround(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    Transaction findFirstByTransactionId(String transactionId);
+
+    @Query("select t from Transaction t where t.transactionId = :transferId "
+        + "and t.createdAt >= :createdFrom and t.createdAt < :createdTo")
+    Transaction findByTransactionIdCreatedBetween(@Param("transferId") String transferId,
+                                                  @Param("createdFrom") LocalDateTime createdFrom,
+                                                  @Param("createdTo") LocalDateTime createdTo);
+
+    @Query("select t from Transaction t where t.transactionId in :transferIds")
+    List<Transaction> findAllByTransactionIdInAnyPartition(@Param("transferIds") Collection<String> transferIds);
+
+    @Query("select t from Transaction t where t.transactionId in :transferIds "
+        + "and t.createdAt >= :createdFrom and t.createdAt < :createdTo")
+    List<Transaction> findAllByTransactionIdInCreatedBetween(@Param("transferIds") Collection<String> transferIds,
+                                                            @Param("createdFrom") LocalDateTime createdFrom,
+                                                            @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * First page of a payment's history in (createdAt, id) order, projected straight into responses.
+     * The createdFrom bound lets a partitioned table skip partitions that cannot match.
+     */
+    @Query("select new com.paymentService.dto.response.MakePaymentResponse(t.id, t.amount, t.status, t.createdAt) "
+        + "from Transaction t where t.paymentId = :paymentId and t.createdAt >= :createdFrom order by t.createdAt, t.id")
+    List<MakePaymentResponse> findHistoryPage(@Param("paymentId") UUID paymentId,
+                                              @Param("createdFrom") LocalDateTime createdFrom,
+                                              Pageable page);
+
+    /**
+     * Next page of a payment's history strictly after the given keyset position.
+     * createdFrom must not be later than createdAt; it repeats the bound in a form partition pruning understands.
+     */
+    @Query("select new com.paymentService.dto.response.MakePaymentResponse(t.id, t.amount, t.status, t.createdAt) "
+        + "from Transaction t where t.paymentId = :paymentId and t.createdAt >= :createdFrom "
+        + "and (t.createdAt, t.id) > (:createdAt, :id) "
+        + "order by t.createdAt, t.id")
+    List<MakePaymentResponse> findHistoryPageAfter(@Param("paymentId") UUID paymentId,
+                                                   @Param("createdFrom") LocalDateTime createdFrom,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") UUID id,
+                                                   Pageable page);
+
+    /**
+     * History of a payment from createdFrom on, read through a server-side cursor; must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.paymentService.dto.response.MakePaymentResponse(t.id, t.amount, t.status, t.createdAt) "
+        + "from Transaction t where t.paymentId = :paymentId and t.createdAt >= :createdFrom order by t.createdAt, t.id")
+    Stream<MakePaymentResponse> streamHistory(@Param("paymentId") UUID paymentId,
+                                              @Param("createdFrom") LocalDateTime createdFrom);
+
+    /**
+     * Moves a transfer to a new status only if it is still in the expected one.
+     * The created-at window around the transfer's known creation time limits a partitioned table to one partition.
+     * @return 1 if the transition was applied, 0 if the transfer was not in the expected status
+     */
+    @Modifying
+    @Query("update Transaction t set t.status = :toStatus, t.updatedAt = :updatedAt "
+        + "where t.transactionId = :transferId and t.status = :fromStatus "
+        + "and t.createdAt >= :createdFrom and t.createdAt < :createdTo")
+    int updateStatus(@Param("transferId") String transferId,
+                     @Param("fromStatus") TransferStatus fromStatus,
+                     @Param("toStatus") TransferStatus toStatus,
+                     @Param("updatedAt") LocalDateTime updatedAt,
+                     @Param("createdFrom") LocalDateTime createdFrom,
+                     @Param("createdTo") LocalDateTime createdTo);
 }
@@ -0,0 +1,27 @@
+package com.paymentService.model.repository;
+
+import com.paymentService.model.TransferRetry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransferRetryRepository extends JpaRepository<TransferRetry, String> {
+
+    /**
+     * Leases the retries that are due longest: counts the attempt and hides the rows from other workers until
+     * the lease expires. Rows being claimed by another worker at the same moment are skipped, and the lease is
+     * committed before the bank is called, so no database transaction spans the call.
+     */
+    @Transactional
+    @Query(value = "UPDATE transfer_retries r SET attempts = r.attempts + 1, next_attempt_at = :leaseUntil "
+        + "FROM (SELECT transfer_id FROM transfer_retries WHERE next_attempt_at <= :now "
+        + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) due "
+        + "WHERE r.transfer_id = due.transfer_id RETURNING r.*", nativeQuery = true)
+    List<TransferRetry> claimDue(@Param("now") LocalDateTime now,
+                                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                                 @Param("limit") int limit);
+}
@@ -0,0 +1,35 @@
+package com.paymentService.model.repository;
+
+import com.paymentService.model.TransferStatusEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TransferStatusEventRepository extends JpaRepository<TransferStatusEvent, Long> {
+
+    /**
+     * Claims the oldest unpublished events; rows locked by another relay instance are skipped
+     */
+    @Query(value = "SELECT * FROM transfer_status_outbox WHERE published_at IS NULL ORDER BY id "
+        + "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TransferStatusEvent> lockUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update TransferStatusEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("delete from TransferStatusEvent e where e.publishedAt < :publishedBefore")
+    int deletePublishedBefore(@Param("publishedBefore") LocalDateTime publishedBefore);
+
+    /**
+     * Reads the feed in sequence order, for consumers replaying from a known position
+     */
+    List<TransferStatusEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable page);
+}
@@ -0,0 +1,20 @@
+package com.paymentService.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default publisher: delivers status changes as Spring application events to in-process listeners.
+ * Replace with a broker-backed implementation to feed external consumers.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationTransferEventPublisher implements TransferEventPublisher {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(TransferStatusChangedEvent event) {
+        applicationEventPublisher.publishEvent(event);
+    }
+}
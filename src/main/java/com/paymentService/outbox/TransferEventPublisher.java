@@ -0,0 +1,10 @@
+package com.paymentService.outbox;
+
+/**
+ * Destination of the transfer status feed drained from the outbox.
+ * Implementations must be idempotent per sequence number: an event may be delivered again
+ * if the relay fails after publishing but before recording it as published.
+ */
+public interface TransferEventPublisher {
+    void publish(TransferStatusChangedEvent event);
+}
@@ -0,0 +1,97 @@
+package com.paymentService.outbox;
+
+import com.paymentService.model.TransferStatusEvent;
+import com.paymentService.model.repository.TransferStatusEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background relay draining the transfer status outbox in batches.
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, so several instances can relay concurrently
+ * without publishing the same event twice; a batch whose publishing fails is rolled back and retried.
+ */
+@Component
+public class TransferOutboxRelay {
+    private final TransferStatusEventRepository repository;
+    private final TransferEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long retentionDays;
+
+    public TransferOutboxRelay(TransferStatusEventRepository repository,
+                               TransferEventPublisher publisher,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${payment.outbox.batch-size:500}") int batchSize,
+                               @Value("${payment.outbox.retention-days:7}") long retentionDays) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Publishes pending events until the outbox is drained
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval-ms:500}")
+    public void relay() {
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published != null && published == batchSize);
+    }
+
+    /**
+     * Removes published events older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        transactionTemplate.executeWithoutResult(status ->
+            repository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+    }
+
+    /**
+     * Reads the retained feed in sequence order, for consumers replaying from a known position
+     * @param afterSequence The last sequence number the consumer has seen; 0 to start from the oldest retained event
+     * @param limit The maximum number of events to return
+     * @return Up to {@code limit} events with a sequence greater than {@code afterSequence}
+     */
+    public List<TransferStatusChangedEvent> readFeed(long afterSequence, int limit) {
+        List<TransferStatusChangedEvent> feed = new ArrayList<>();
+        for (TransferStatusEvent event : repository.findByIdGreaterThanOrderByIdAsc(afterSequence, PageRequest.of(0, limit))) {
+            feed.add(toChange(event));
+        }
+        return feed;
+    }
+
+    private int relayBatch() {
+        List<TransferStatusEvent> batch = repository.lockUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (TransferStatusEvent event : batch) {
+            publisher.publish(toChange(event));
+            ids.add(event.getId());
+        }
+        repository.markPublished(ids, LocalDateTime.now());
+        return batch.size();
+    }
+
+    private static TransferStatusChangedEvent toChange(TransferStatusEvent event) {
+        return new TransferStatusChangedEvent(
+            event.getId(),
+            event.getTransferId(),
+            event.getPaymentId(),
+            event.getFromStatus(),
+            event.getToStatus(),
+            event.getOccurredAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.paymentService.outbox;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transfer status change as handed to downstream consumers.
+ */
+@Value
+public class TransferStatusChangedEvent {
+    long sequence;
+    String transferId;
+    UUID paymentId;
+    String fromStatus;
+    String toStatus;
+    LocalDateTime occurredAt;
+}
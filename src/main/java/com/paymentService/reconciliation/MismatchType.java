@@ -0,0 +1,17 @@
+package com.paymentService.reconciliation;
+
+/**
+ * Kinds of differences between the ledger and a settlement file.
+ */
+public enum MismatchType {
+    /** Settled by the bank but not found in the ledger for the business date */
+    MISSING_IN_LEDGER,
+    /** Recorded in the ledger for the business date but absent from the settlement file */
+    MISSING_IN_SETTLEMENT,
+    /** Present in both with different amounts */
+    AMOUNT_MISMATCH,
+    /** Present in both with different statuses */
+    STATUS_MISMATCH,
+    /** Listed more than once in the settlement file; only the last occurrence is matched */
+    DUPLICATE_IN_SETTLEMENT
+}
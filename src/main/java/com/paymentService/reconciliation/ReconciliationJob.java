@@ -0,0 +1,79 @@
+package com.paymentService.reconciliation;
+
+import com.paymentService.dto.response.ReconciliationJobResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and results of one reconciliation run. Counters are updated concurrently by the partition workers.
+ */
+class ReconciliationJob {
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    final String id;
+    final LocalDate businessDate;
+    final boolean correctStatuses;
+    final Path workDirectory;
+    final Path settlementFile;
+    final Path reportFile;
+
+    final LongAdder settlementRows = new LongAdder();
+    final LongAdder ledgerRows = new LongAdder();
+    final LongAdder matched = new LongAdder();
+    final LongAdder corrected = new LongAdder();
+    private final Map<MismatchType, LongAdder> mismatches = new EnumMap<>(MismatchType.class);
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    ReconciliationJob(String id, LocalDate businessDate, boolean correctStatuses, Path workDirectory) {
+        this.id = id;
+        this.businessDate = businessDate;
+        this.correctStatuses = correctStatuses;
+        this.workDirectory = workDirectory;
+        this.settlementFile = workDirectory.resolve("settlement.csv");
+        this.reportFile = workDirectory.resolve("report.csv");
+        for (MismatchType type : MismatchType.values()) {
+            mismatches.put(type, new LongAdder());
+        }
+    }
+
+    void mismatch(MismatchType type) {
+        mismatches.get(type).increment();
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(Exception e) {
+        error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    ReconciliationJobResponse toResponse() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        mismatches.forEach((type, count) -> counts.put(type.name(), count.sum()));
+        return new ReconciliationJobResponse(id, businessDate, status.name(), correctStatuses,
+            settlementRows.sum(), ledgerRows.sum(), matched.sum(), counts, corrected.sum(), error, startedAt, finishedAt);
+    }
+}
@@ -0,0 +1,434 @@
+package com.paymentService.reconciliation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentService.csv.CsvReader;
+import com.paymentService.csv.CsvWriter;
+import com.paymentService.dto.response.ReconciliationJobResponse;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.service.implementations.TransferStateMachine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles the ledger against the bank's daily settlement file.
+ * Both sides are streamed to disk in hash partitions keyed by transfer id: the settlement file through
+ * an NIO channel, the day's transactions through a fetch-size cursor, concurrently. Partitions are then
+ * matched in parallel on the reconciliation worker pool, so memory use is bounded by the largest partitions
+ * being matched at once rather than by the size of the day. Mismatches are written to a CSV report and, if
+ * requested, status differences that the transfer state machine allows are corrected in batches.
+ */
+@Service
+public class ReconciliationService {
+    private static final String[] REPORT_COLUMNS = {"transaction_id", "mismatch", "ledger_amount", "settlement_amount",
+        "ledger_status", "settlement_status", "corrected"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransferStateMachine transferStateMachine;
+    private final TaskExecutor jobExecutor;
+    private final TaskExecutor workerExecutor;
+    private final Path directory;
+    private final int partitions;
+    private final int fetchSize;
+    private final int correctionBatchSize;
+    /** Queued and running jobs; never evicted, since their work directory is in use */
+    private final Map<String, ReconciliationJob> unfinished = new ConcurrentHashMap<>();
+    /** Completed and failed jobs, of which the most recent are retained */
+    private final Cache<String, ReconciliationJob> jobs;
+
+    public ReconciliationService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 TransferStateMachine transferStateMachine,
+                                 @Qualifier("reconciliationJobExecutor") TaskExecutor jobExecutor,
+                                 @Qualifier("reconciliationWorkerExecutor") TaskExecutor workerExecutor,
+                                 @Value("${payment.reconciliation.directory:./reconciliation}") String directory,
+                                 @Value("${payment.reconciliation.partitions:64}") int partitions,
+                                 @Value("${payment.reconciliation.fetch-size:5000}") int fetchSize,
+                                 @Value("${payment.reconciliation.correction-batch-size:500}") int correctionBatchSize,
+                                 @Value("${payment.reconciliation.retained-jobs:50}") long retainedJobs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transferStateMachine = transferStateMachine;
+        this.jobExecutor = jobExecutor;
+        this.workerExecutor = workerExecutor;
+        this.directory = Paths.get(directory);
+        this.partitions = partitions;
+        this.fetchSize = fetchSize;
+        this.correctionBatchSize = correctionBatchSize;
+        // Evicted jobs take their settlement copy and report with them; only finished jobs are ever in here
+        this.jobs = Caffeine.newBuilder()
+            .maximumSize(retainedJobs)
+            .<String, ReconciliationJob>removalListener((id, job, cause) -> {
+                if (job != null) {
+                    deleteDirectory(job.workDirectory);
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Stores a settlement file and queues its reconciliation
+     *
+     * @param settlementFile CSV with a header row containing at least transaction_id, amount and status
+     * @param businessDate The day whose transactions are reconciled
+     * @param correctStatuses Whether to move ledger transfers to the settled status where the state machine allows it
+     * @return The queued job
+     * @throws org.springframework.core.task.TaskRejectedException if too many reconciliations are already queued
+     */
+    public ReconciliationJobResponse submit(InputStream settlementFile, LocalDate businessDate, boolean correctStatuses) throws IOException {
+        String id = UUID.randomUUID().toString();
+        ReconciliationJob job = new ReconciliationJob(id, businessDate, correctStatuses, directory.resolve(id));
+        Files.createDirectories(job.workDirectory);
+        Files.copy(settlementFile, job.settlementFile);
+        unfinished.put(id, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            unfinished.remove(id);
+            deleteDirectory(job.workDirectory);
+            throw e;
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * @return The job's current progress, or null if the job is unknown
+     */
+    public ReconciliationJobResponse getJob(String jobId) {
+        ReconciliationJob job = findJob(jobId);
+        return job == null ? null : job.toResponse();
+    }
+
+    /**
+     * @return The mismatch report of a completed job, or null if the job is unknown or not completed
+     */
+    public Path getReport(String jobId) {
+        ReconciliationJob job = findJob(jobId);
+        return job == null || job.getStatus() != ReconciliationJob.Status.COMPLETED ? null : job.reportFile;
+    }
+
+    private ReconciliationJob findJob(String jobId) {
+        ReconciliationJob job = unfinished.get(jobId);
+        return job != null ? job : jobs.getIfPresent(jobId);
+    }
+
+    private void run(ReconciliationJob job) {
+        job.started();
+        List<SpillFiles> spills = new ArrayList<>();
+        try {
+            SpillFiles settlement = new SpillFiles(job.workDirectory, "settlement", partitions, 3);
+            spills.add(settlement);
+            SpillFiles ledger = new SpillFiles(job.workDirectory, "ledger", partitions, 5);
+            spills.add(ledger);
+
+            CompletableFuture<Void> ledgerLoad = CompletableFuture.runAsync(() -> spillLedger(job, ledger), workerExecutor);
+            spillSettlement(job, settlement);
+            settlement.close();
+            ledgerLoad.join();
+            ledger.close();
+
+            List<CompletableFuture<Void>> matches = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                matches.add(CompletableFuture.runAsync(() -> matchPartition(job, partition, settlement, ledger), workerExecutor));
+            }
+            CompletableFuture.allOf(matches.toArray(new CompletableFuture[0])).join();
+            mergeReports(job);
+            job.completed();
+        } catch (CompletionException e) {
+            job.failed(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } catch (Exception e) {
+            job.failed(e);
+        } finally {
+            for (SpillFiles spill : spills) {
+                try {
+                    spill.close();
+                    spill.delete();
+                } catch (IOException e) {
+                    // Leftovers are removed with the job directory
+                }
+            }
+            for (int i = 0; i < partitions; i++) {
+                try {
+                    Files.deleteIfExists(partReport(job, i));
+                } catch (IOException e) {
+                    // Leftovers are removed with the job directory
+                }
+            }
+            // Retained from now on, so it becomes evictable; it is in one map or the other throughout
+            jobs.put(job.id, job);
+            unfinished.remove(job.id);
+        }
+    }
+
+    private void spillSettlement(ReconciliationJob job, SpillFiles spill) throws IOException {
+        try (FileChannel channel = FileChannel.open(job.settlementFile, StandardOpenOption.READ);
+             Reader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), 1 << 16)) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                return;
+            }
+            int idColumn = column(header, "transaction_id");
+            int amountColumn = column(header, "amount");
+            int statusColumn = column(header, "status");
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0) == null) {
+                    continue;
+                }
+                if (record.size() != header.size() || record.get(idColumn) == null) {
+                    throw new IllegalArgumentException("Malformed settlement row " + (job.settlementRows.sum() + 2));
+                }
+                spill.write(record.get(idColumn).trim(), record.get(amountColumn), record.get(statusColumn));
+                job.settlementRows.increment();
+            }
+        }
+    }
+
+    /**
+     * Streams the business date's transactions into the ledger spill; package-private so the ledger can be stubbed
+     */
+    void spillLedger(ReconciliationJob job, SpillFiles spill) {
+        Timestamp from = Timestamp.valueOf(job.businessDate.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(job.businessDate.plusDays(1).atStartOfDay());
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT transaction_id, amount, status, payment_id, created_at "
+                + "FROM transactions WHERE created_at >= ? AND created_at < ?");
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, from);
+            statement.setTimestamp(2, to);
+            return statement;
+        }, rs -> {
+            try {
+                spill.write(rs.getString(1), rs.getBigDecimal(2).toPlainString(), TransferStatus.fromCode(rs.getShort(3)).name(),
+                    rs.getString(4), rs.getTimestamp(5).toLocalDateTime().toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            job.ledgerRows.increment();
+        }));
+    }
+
+    /**
+     * Matches one hash partition: the settlement side is held in memory, the ledger side is streamed past it
+     */
+    private void matchPartition(ReconciliationJob job, int partition, SpillFiles settlementSpill, SpillFiles ledgerSpill) {
+        try (Writer out = Files.newBufferedWriter(partReport(job, partition), StandardCharsets.UTF_8)) {
+            CsvWriter report = new CsvWriter(out);
+            Map<String, String[]> settled = new HashMap<>();
+            settlementSpill.read(partition, row -> {
+                if (settled.put(row[0], row) != null) {
+                    job.mismatch(MismatchType.DUPLICATE_IN_SETTLEMENT);
+                    write(report, row[0], MismatchType.DUPLICATE_IN_SETTLEMENT, null, row[1], null, row[2], false);
+                }
+            });
+
+            Map<TransferStatus, List<Transaction>> corrections = new EnumMap<>(TransferStatus.class);
+            ledgerSpill.read(partition, row -> {
+                String[] settlement = settled.remove(row[0]);
+                if (settlement == null) {
+                    job.mismatch(MismatchType.MISSING_IN_SETTLEMENT);
+                    write(report, row[0], MismatchType.MISSING_IN_SETTLEMENT, row[1], null, row[2], null, false);
+                    return;
+                }
+                boolean amountMatches = amountsEqual(row[1], settlement[1]);
+                if (!amountMatches) {
+                    job.mismatch(MismatchType.AMOUNT_MISMATCH);
+                    write(report, row[0], MismatchType.AMOUNT_MISMATCH, row[1], settlement[1], row[2], settlement[2], false);
+                }
+                TransferStatus ledgerStatus = ledgerStatus(row[2]);
+                TransferStatus settledStatus = settlementStatus(settlement[2]);
+                if (settledStatus == null || ledgerStatus != settledStatus) {
+                    job.mismatch(MismatchType.STATUS_MISMATCH);
+                    if (job.correctStatuses && amountMatches && ledgerStatus != null && settledStatus != null
+                            && ledgerStatus.canTransitionTo(settledStatus)) {
+                        List<Transaction> batch = corrections.computeIfAbsent(settledStatus, s -> new ArrayList<>());
+                        batch.add(toTransaction(row));
+                        if (batch.size() >= correctionBatchSize) {
+                            correct(job, report, batch, settledStatus);
+                        }
+                    } else {
+                        write(report, row[0], MismatchType.STATUS_MISMATCH, row[1], settlement[1], row[2], settlement[2], false);
+                    }
+                } else if (amountMatches) {
+                    job.matched.increment();
+                }
+            });
+            corrections.forEach((target, batch) -> correct(job, report, batch, target));
+
+            for (String[] settlement : settled.values()) {
+                job.mismatch(MismatchType.MISSING_IN_LEDGER);
+                write(report, settlement[0], MismatchType.MISSING_IN_LEDGER, null, settlement[1], null, settlement[2], false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies a batch of status corrections and reports each of them, noting which were applied
+     */
+    private void correct(ReconciliationJob job, CsvWriter report, List<Transaction> batch, TransferStatus target) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        String[] ledgerStatuses = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ledgerStatuses[i] = batch.get(i).getStatus().name();
+        }
+        Set<String> moved = new HashSet<>();
+        for (Transaction transaction : transferStateMachine.transitionAll(batch, target)) {
+            moved.add(transaction.getTransactionId());
+        }
+        job.corrected.add(moved.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Transaction transaction = batch.get(i);
+            String amount = transaction.getAmount().toPlainString();
+            write(report, transaction.getTransactionId(), MismatchType.STATUS_MISMATCH, amount, amount, ledgerStatuses[i],
+                target.name(), moved.contains(transaction.getTransactionId()));
+        }
+        batch.clear();
+    }
+
+    private void mergeReports(ReconciliationJob job) throws IOException {
+        try (Writer header = Files.newBufferedWriter(job.reportFile, StandardCharsets.UTF_8)) {
+            new CsvWriter(header).writeRecord(REPORT_COLUMNS);
+        }
+        try (FileChannel out = FileChannel.open(job.reportFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (int i = 0; i < partitions; i++) {
+                try (FileChannel part = FileChannel.open(partReport(job, i), StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = part.size();
+                    while (position < size) {
+                        position += part.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Path partReport(ReconciliationJob job, int partition) {
+        return job.workDirectory.resolve("report-" + partition + ".csv");
+    }
+
+    private static void write(CsvWriter report, String transactionId, MismatchType type, String ledgerAmount,
+                              String settlementAmount, String ledgerStatus, String settlementStatus, boolean corrected) {
+        try {
+            report.writeRecord(transactionId, type.name(), ledgerAmount, settlementAmount, ledgerStatus, settlementStatus,
+                Boolean.toString(corrected));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Transaction toTransaction(String[] ledgerRow) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(ledgerRow[0]);
+        transaction.setAmount(new BigDecimal(ledgerRow[1]));
+        transaction.setStatus(TransferStatus.fromValue(ledgerRow[2]));
+        transaction.setPaymentId(ledgerRow[3].isEmpty() ? null : UUID.fromString(ledgerRow[3]));
+        transaction.setCreatedAt(LocalDateTime.parse(ledgerRow[4]));
+        return transaction;
+    }
+
+    private static boolean amountsEqual(String ledgerAmount, String settlementAmount) {
+        try {
+            return new BigDecimal(ledgerAmount).compareTo(new BigDecimal(settlementAmount.trim())) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static TransferStatus ledgerStatus(String value) {
+        try {
+            return TransferStatus.fromValue(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Maps a settlement status to the ledger's vocabulary; banks report settled and returned transfers
+     */
+    private static TransferStatus settlementStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.trim().toUpperCase()) {
+            case "SETTLED":
+                return TransferStatus.COMPLETED;
+            case "RETURNED":
+            case "REJECTED":
+                return TransferStatus.FAILED;
+            default:
+                return ledgerStatus(value);
+        }
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i) != null && header.get(i).trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Settlement file has no " + name + " column");
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            // Best effort; the directory is reused by nothing else
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.paymentService.reconciliation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * A set of on-disk hash partitions of records with a fixed number of string fields, keyed by the first field.
+ * Rows with the same key always land in the same partition, so each partition can be matched
+ * independently and only one partition per worker needs to be held in memory.
+ */
+final class SpillFiles implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final String prefix;
+    private final int fieldCount;
+    private final DataOutputStream[] outputs;
+
+    SpillFiles(Path directory, String prefix, int partitions, int fieldCount) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.fieldCount = fieldCount;
+        this.outputs = new DataOutputStream[partitions];
+        Files.createDirectories(directory);
+        for (int i = 0; i < partitions; i++) {
+            outputs[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file(i)), BUFFER_SIZE));
+        }
+    }
+
+    /**
+     * @return The partition a key belongs to
+     */
+    static int partitionOf(String key, int partitions) {
+        return (key.hashCode() & 0x7fffffff) % partitions;
+    }
+
+    /**
+     * Appends a record to the partition of its first field
+     * @param fields Exactly {@code fieldCount} values; null is stored as an empty string
+     */
+    void write(String... fields) throws IOException {
+        DataOutputStream out = outputs[partitionOf(fields[0], outputs.length)];
+        for (String field : fields) {
+            out.writeUTF(field == null ? "" : field);
+        }
+    }
+
+    /**
+     * Reads every record of one partition in write order
+     */
+    void read(int partition, Consumer<String[]> consumer) throws IOException {
+        try (InputStream file = Files.newInputStream(file(partition))) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(file, BUFFER_SIZE));
+            while (true) {
+                String[] fields = new String[fieldCount];
+                try {
+                    fields[0] = in.readUTF();
+                } catch (EOFException e) {
+                    return;
+                }
+                for (int i = 1; i < fieldCount; i++) {
+                    fields[i] = in.readUTF();
+                }
+                consumer.accept(fields);
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the partition files for writing; they remain readable until deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataOutputStream out : outputs) {
+            out.close();
+        }
+    }
+
+    void delete() throws IOException {
+        for (int i = 0; i < outputs.length; i++) {
+            Files.deleteIfExists(file(i));
+        }
+    }
+
+    private Path file(int partition) {
+        return directory.resolve(prefix + "-" + partition + ".spill");
+    }
+}
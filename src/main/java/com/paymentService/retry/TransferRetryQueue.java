@@ -0,0 +1,214 @@
+package com.paymentService.retry;
+
+import com.paymentService.model.TransferRetry;
+import com.paymentService.model.repository.TransferRetryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable queue of transfers to submit to the bank again after a transient failure, in the transfer_retries table.
+ * Each attempt is delayed by an exponentially growing backoff with random jitter, so retries of a batch that
+ * failed together spread out instead of hitting a recovering bank at the same moment. Depth and age of the
+ * queue are published as gauges, refreshed periodically from the table so they cover all instances.
+ */
+@Component
+public class TransferRetryQueue {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final TransferRetryRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long leaseMs;
+
+    private volatile long depth;
+    private volatile long due;
+    private volatile double oldestAgeSeconds;
+    private volatile double dueLagSeconds;
+
+    public TransferRetryQueue(TransferRetryRepository repository,
+                              JdbcTemplate jdbcTemplate,
+                              MeterRegistry registry,
+                              @Value("${payment.retry.max-attempts:8}") int maxAttempts,
+                              @Value("${payment.retry.initial-backoff-ms:1000}") long initialBackoffMs,
+                              @Value("${payment.retry.max-backoff-ms:300000}") long maxBackoffMs,
+                              @Value("${payment.retry.lease-ms:60000}") long leaseMs) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        Gauge.builder("payment.transfer.retry.depth", this, queue -> queue.depth)
+            .description("Transfers waiting in the retry queue, including those being retried")
+            .register(registry);
+        Gauge.builder("payment.transfer.retry.due", this, queue -> queue.due)
+            .description("Transfers in the retry queue whose next attempt is due")
+            .register(registry);
+        Gauge.builder("payment.transfer.retry.oldest_age", this, queue -> queue.oldestAgeSeconds)
+            .description("Time since the oldest transfer in the retry queue first failed")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("payment.transfer.retry.due_lag", this, queue -> queue.dueLagSeconds)
+            .description("How long the longest-due retry has been waiting for a worker")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    /**
+     * @return Whether failed transfers are retried at all; with at most one attempt they fail immediately
+     */
+    public boolean isEnabled() {
+        return maxAttempts > 1;
+    }
+
+    /**
+     * @return The number of bank calls after which a transfer is given up and marked FAILED
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Queues transfers whose first bank call failed. Transfers already queued are left as they are.
+     *
+     * @param transferIds The transfer ids of the PROCESSING transactions
+     * @param error Why the call failed
+     * @param retryAfter How long the bank asked us to wait, or null; the first retry waits at least that long
+     */
+    public void schedule(Collection<String> transferIds, String error, Duration retryAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp enqueuedAt = Timestamp.valueOf(now);
+        String lastError = truncate(error);
+        jdbcTemplate.batchUpdate("INSERT INTO transfer_retries (transfer_id, attempts, next_attempt_at, enqueued_at, last_error) "
+                + "VALUES (?, 1, ?, ?, ?) ON CONFLICT (transfer_id) DO NOTHING",
+            transferIds, transferIds.size(), (ps, transferId) -> {
+                ps.setString(1, transferId);
+                ps.setTimestamp(2, Timestamp.valueOf(now.plus(delay(1, retryAfter))));
+                ps.setTimestamp(3, enqueuedAt);
+                ps.setString(4, lastError);
+            });
+    }
+
+    /**
+     * Leases due retries for one attempt; see {@link TransferRetryRepository#claimDue}
+     *
+     * @param limit The maximum number of retries to claim
+     * @return The claimed retries, with the attempt about to be made counted
+     */
+    public List<TransferRetry> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.claimDue(now, leaseUntil(now), limit);
+    }
+
+    /**
+     * Extends the lease of a claimed retry right before its attempt, provided this worker still holds it.
+     * Once a lease has run out another instance may have claimed the retry, and the attempt is then its to make.
+     *
+     * @param retry The retry as claimed or last renewed; updated with the extended lease
+     * @return Whether this worker still holds the retry
+     */
+    public boolean renew(TransferRetry retry) {
+        LocalDateTime leaseUntil = leaseUntil(LocalDateTime.now());
+        int updated = jdbcTemplate.update("UPDATE transfer_retries SET next_attempt_at = ? "
+                + "WHERE transfer_id = ? AND attempts = ? AND next_attempt_at = ?",
+            Timestamp.valueOf(leaseUntil), retry.getTransferId(), retry.getAttempts(),
+            Timestamp.valueOf(retry.getNextAttemptAt()));
+        if (updated == 0) {
+            return false;
+        }
+        retry.setNextAttemptAt(leaseUntil);
+        return true;
+    }
+
+    /**
+     * Releases claimed retries whose attempt failed again, due after the backoff for their attempt count.
+     * A retry claimed by another instance since, which has counted another attempt, is left to that instance.
+     *
+     * @param retries The retries as claimed
+     * @param error Why the call failed
+     * @param retryAfter How long the bank asked us to wait, or null; the next retry waits at least that long
+     */
+    public void reschedule(Collection<TransferRetry> retries, String error, Duration retryAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        String lastError = truncate(error);
+        jdbcTemplate.batchUpdate("UPDATE transfer_retries SET next_attempt_at = ?, last_error = ? "
+                + "WHERE transfer_id = ? AND attempts = ?",
+            retries, retries.size(), (ps, retry) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(now.plus(delay(retry.getAttempts(), retryAfter))));
+                ps.setString(2, lastError);
+                ps.setString(3, retry.getTransferId());
+                ps.setInt(4, retry.getAttempts());
+            });
+    }
+
+    /**
+     * Removes transfers that no longer need retrying
+     */
+    public void remove(Collection<String> transferIds) {
+        if (!transferIds.isEmpty()) {
+            repository.deleteAllByIdInBatch(transferIds);
+        }
+    }
+
+    /**
+     * Refreshes the depth and age gauges
+     */
+    @Scheduled(fixedDelayString = "${payment.retry.metrics-interval-ms:15000}")
+    public void refreshMetrics() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.query("SELECT count(*), count(*) FILTER (WHERE next_attempt_at <= ?), min(enqueued_at), "
+            + "min(next_attempt_at) FILTER (WHERE next_attempt_at <= ?) FROM transfer_retries", rs -> {
+                depth = rs.getLong(1);
+                due = rs.getLong(2);
+                oldestAgeSeconds = secondsBefore(now, rs.getTimestamp(3));
+                dueLagSeconds = secondsBefore(now, rs.getTimestamp(4));
+            }, now, now);
+    }
+
+    private Duration delay(int attempts, Duration retryAfter) {
+        Duration backoff = backoff(attempts);
+        return retryAfter != null && retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+    }
+
+    /**
+     * Delay before the attempt following the given number of attempts: the initial backoff doubled per attempt
+     * and capped, then randomized between half and all of it
+     */
+    Duration backoff(int attempts) {
+        long ceiling = initialBackoffMs << Math.min(attempts - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffMs) {
+            ceiling = maxBackoffMs;
+        }
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(ceiling - half + 1));
+    }
+
+    /**
+     * End of a lease taken now, at the microsecond precision the column stores, so it can be matched on renewal
+     */
+    private LocalDateTime leaseUntil(LocalDateTime now) {
+        return now.plus(Duration.ofMillis(leaseMs)).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static double secondsBefore(Timestamp now, Timestamp earlier) {
+        return earlier == null ? 0 : Math.max(0, now.getTime() - earlier.getTime()) / 1000.0;
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
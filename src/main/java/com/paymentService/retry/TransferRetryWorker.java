@@ -0,0 +1,110 @@
+package com.paymentService.retry;
+
+import com.paymentService.exception.BankGatewayException;
+import com.paymentService.model.TransferRetry;
+import com.paymentService.service.implementations.BankTransferProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background poller draining the transfer retry queue in batches.
+ * Every instance polls; a batch is leased with {@code FOR UPDATE SKIP LOCKED}, so instances never claim the
+ * same retry while its lease lasts. Without batching the lease is renewed before each call, and a retry whose
+ * lease is no longer held is left to the instance that claimed it since. If an instance dies mid-attempt the
+ * lease expires and another instance retries the transfer, which the bank recognizes by its transfer id.
+ */
+@Component
+public class TransferRetryWorker {
+    private final TransferRetryQueue queue;
+    private final BankTransferProcessor processor;
+    private final int batchSize;
+    private final boolean batched;
+
+    public TransferRetryWorker(TransferRetryQueue queue,
+                               BankTransferProcessor processor,
+                               @Value("${payment.retry.batch-size:100}") int batchSize,
+                               @Value("${payment.settlement.batching.enabled:true}") boolean batched) {
+        this.queue = queue;
+        this.processor = processor;
+        this.batchSize = batchSize;
+        this.batched = batched;
+    }
+
+    /**
+     * Retries due transfers until none are left
+     */
+    @Scheduled(fixedDelayString = "${payment.retry.poll-interval-ms:1000}")
+    public void poll() {
+        if (!queue.isEnabled()) {
+            return;
+        }
+        List<TransferRetry> claimed;
+        do {
+            claimed = queue.claimDue(batchSize);
+            if (!claimed.isEmpty()) {
+                attempt(claimed);
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    private void attempt(List<TransferRetry> claimed) {
+        if (batched) {
+            // One bank call, well within the lease taken by the claim
+            List<String> transferIds = new ArrayList<>(claimed.size());
+            for (TransferRetry retry : claimed) {
+                transferIds.add(retry.getTransferId());
+            }
+            record(claimed, processor.resubmit(transferIds, true));
+            return;
+        }
+        for (int i = 0; i < claimed.size(); i++) {
+            TransferRetry retry = claimed.get(i);
+            // One call at a time can outlast the claim's lease: renew it per call, and leave retries whose
+            // lease ran out and that another instance may have claimed meanwhile
+            if (!queue.renew(retry)) {
+                continue;
+            }
+            Map<String, BankGatewayException> failures = processor.resubmit(List.of(retry.getTransferId()), false);
+            record(List.of(retry), failures);
+            BankGatewayException failure = failures.get(retry.getTransferId());
+            if (failure != null && failure.getReason() == BankGatewayException.Reason.THROTTLED) {
+                // The bank asked us to back off: the rest of the batch waits too instead of being called now
+                List<TransferRetry> deferred = claimed.subList(i + 1, claimed.size());
+                if (!deferred.isEmpty()) {
+                    queue.reschedule(deferred, failure.getMessage(), failure.getRetryAfter());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Settles the retries of one attempt: removes the finished ones, fails the exhausted ones and reschedules the rest
+     */
+    private void record(List<TransferRetry> attempted, Map<String, BankGatewayException> failures) {
+        List<String> finished = new ArrayList<>(attempted.size());
+        List<String> exhausted = new ArrayList<>();
+        Map<BankGatewayException, List<TransferRetry>> retriesByError = new HashMap<>();
+        for (TransferRetry retry : attempted) {
+            if (!failures.containsKey(retry.getTransferId())) {
+                finished.add(retry.getTransferId());
+            } else if (retry.getAttempts() >= queue.getMaxAttempts()) {
+                exhausted.add(retry.getTransferId());
+            } else {
+                retriesByError.computeIfAbsent(failures.get(retry.getTransferId()), error -> new ArrayList<>()).add(retry);
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            processor.failAll(exhausted);
+            finished.addAll(exhausted);
+        }
+        retriesByError.forEach((error, retries) -> queue.reschedule(retries, error.getMessage(), error.getRetryAfter()));
+        queue.remove(finished);
+    }
+}
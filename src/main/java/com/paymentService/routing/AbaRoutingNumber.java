@@ -0,0 +1,45 @@
+package com.paymentService.routing;
+
+/**
+ * ABA routing transit number checks that run without allocating, for use on the request path.
+ */
+public final class AbaRoutingNumber {
+    /** Returned by {@link #parse} for text that is not nine digits */
+    public static final int MALFORMED = -1;
+    /** Returned by {@link #parse} for nine digits that fail the check digit */
+    public static final int BAD_CHECKSUM = -2;
+
+    private AbaRoutingNumber() {
+    }
+
+    /**
+     * Parses a routing number and verifies its check digit: 3(d1 + d4 + d7) + 7(d2 + d5 + d8) + (d3 + d6 + d9)
+     * must be a multiple of 10.
+     *
+     * @param text The routing number as entered
+     * @return The routing number as an int, {@link #MALFORMED} or {@link #BAD_CHECKSUM}
+     */
+    public static int parse(CharSequence text) {
+        return parse(text, 0, text == null ? 0 : text.length());
+    }
+
+    /**
+     * Parses the routing number in text[start, end), see {@link #parse(CharSequence)}
+     */
+    public static int parse(CharSequence text, int start, int end) {
+        if (text == null || end - start != 9) {
+            return MALFORMED;
+        }
+        int value = 0;
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            int digit = text.charAt(start + i) - '0';
+            if (digit < 0 || digit > 9) {
+                return MALFORMED;
+            }
+            value = value * 10 + digit;
+            sum += digit * (i % 3 == 0 ? 3 : i % 3 == 1 ? 7 : 1);
+        }
+        return sum % 10 == 0 ? value : BAD_CHECKSUM;
+    }
+}
@@ -0,0 +1,138 @@
+package com.paymentService.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * The set of routing numbers the bank accepts, loaded from a FedACH-style directory file.
+ * Only the first nine characters of each line are read, so both the FedACH fixed-width participant file and a
+ * plain list of one routing number per line can be used; lines without a valid routing number there are skipped.
+ * The numbers are held as a sorted {@code int[]} (4 bytes per bank) and looked up by binary search.
+ * The file is re-read when its modification time changes; the new table replaces the old one with a single
+ * reference swap, so lookups never wait for a reload. Replace the file atomically (write and rename), since
+ * a load that yields no routing numbers, or fails, keeps the previous table.
+ * Without a configured file every routing number with a valid check digit is accepted.
+ */
+@Component
+public class RoutingNumberDirectory {
+    private final Path file;
+
+    private volatile Table table;
+
+    public RoutingNumberDirectory(@Value("${payment.routing-directory.file:}") String file) {
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        if (this.file != null) {
+            try {
+                this.table = load(this.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load routing directory " + file, e);
+            }
+            if (this.table.routingNumbers.length == 0) {
+                throw new IllegalStateException("Routing directory " + file + " contains no routing numbers");
+            }
+        }
+    }
+
+    /**
+     * @param routingNumber A routing number as returned by {@link AbaRoutingNumber#parse}
+     * @return Whether the routing number is in the directory, or true if no directory is configured
+     */
+    public boolean contains(int routingNumber) {
+        Table current = table;
+        return current == null || Arrays.binarySearch(current.routingNumbers, routingNumber) >= 0;
+    }
+
+    /**
+     * @return The number of routing numbers in the directory, or -1 if no directory is configured
+     */
+    public int size() {
+        Table current = table;
+        return current == null ? -1 : current.routingNumbers.length;
+    }
+
+    /**
+     * @return When the current directory was loaded, or null if no directory is configured
+     */
+    public LocalDateTime loadedAt() {
+        Table current = table;
+        return current == null ? null : current.loadedAt;
+    }
+
+    /**
+     * Reloads the directory if its file has changed since it was last loaded
+     *
+     * @return Whether a new directory was loaded
+     * @throws IOException if the file cannot be read; the current directory stays in use
+     */
+    public synchronized boolean reload() throws IOException {
+        if (file == null || Files.getLastModifiedTime(file).equals(table.modified)) {
+            return false;
+        }
+        Table loaded = load(file);
+        if (loaded.routingNumbers.length == 0) {
+            return false;
+        }
+        table = loaded;
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.routing-directory.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            reload();
+        } catch (IOException e) {
+            // Keep serving the current directory; the next check retries
+        }
+    }
+
+    private static Table load(Path file) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        int[] numbers = new int[1 << 14];
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int routingNumber = line.length() < 9 ? AbaRoutingNumber.MALFORMED : AbaRoutingNumber.parse(line, 0, 9);
+                if (routingNumber < 0) {
+                    continue;
+                }
+                if (count == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, count * 2);
+                }
+                numbers[count++] = routingNumber;
+            }
+        }
+        Arrays.sort(numbers, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || numbers[i] != numbers[distinct - 1]) {
+                numbers[distinct++] = numbers[i];
+            }
+        }
+        return new Table(Arrays.copyOf(numbers, distinct), modified, LocalDateTime.now());
+    }
+
+    private static final class Table {
+        final int[] routingNumbers;
+        final FileTime modified;
+        final LocalDateTime loadedAt;
+
+        Table(int[] routingNumbers, FileTime modified, LocalDateTime loadedAt) {
+            this.routingNumbers = routingNumbers;
+            this.modified = modified;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
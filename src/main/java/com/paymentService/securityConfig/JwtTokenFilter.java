@@ -36,7 +36,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
     /**
      * Core filter method that processes each HTTP request.
-     * Validates JWT token from Authorization header and sets up Spring Security context.
+     * Verifies the JWT token from the Authorization header once and sets up Spring Security context.
      * 
      * @param request The HTTP request
      * @param response The HTTP response
@@ -53,12 +53,12 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.extractUsername(token);
-                List<SimpleGrantedAuthority> authorities = jwtUtil.extractRoles(token).stream()
+            VerifiedToken verified = jwtUtil.verify(token);
+            if (verified != null) {
+                List<SimpleGrantedAuthority> authorities = verified.getRoles().stream()
                     .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                     .collect(Collectors.toList());
-                User user = new User(username, "", authorities);
+                User user = new User(verified.getUsername(), "", authorities);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         user, null, user.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -1,38 +1,124 @@
 package com.paymentService.securityConfig;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import com.paymentService.metrics.PaymentMetrics;
+import com.paymentService.metrics.PaymentMetrics.Stage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
 
 /**
- * Utility class for handling JWT (JSON Web Token) operations
+ * Utility class for handling JWT (JSON Web Token) operations.
+ * The signing key and parser are built once and shared; tokens that verify successfully are
+ * remembered by their SHA-256 digest until they expire, so repeat callers skip signature checks.
  */
 @Service
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final PaymentMetrics paymentMetrics;
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
+    @Value("${security.jwt.token-cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    private JwtParser parser;
+
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
     /**
-     * Extracts the username from the JWT token
-     * @param token The JWT token string
-     * @return The username stored in the token's subject claim
+     * Builds the shared parser and the verified-token cache
      */
-    public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKey(SECRET_KEY.getBytes())
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0L, (token.getExpiresAt().toEpochMilli() - System.currentTimeMillis()) * 1_000_000L);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     /**
-     * Extracts the roles list from the JWT token
+     * Verifies the token once and returns its claims.
+     * Tokens seen before are answered from the cache without parsing or signature verification.
+     * Only tokens that carry an expiration are cached, and never beyond that expiration.
      * @param token The JWT token string
-     * @return List of roles stored in the token's claims
+     * @return The verified token, or null if the token is invalid or expired
      */
-    @SuppressWarnings("unchecked")
-    public List<String> extractRoles(String token) {
-        return (List<String>) extractClaims(token).get("roles", List.class);
+    public VerifiedToken verify(String token) {
+        long start = paymentMetrics.start();
+        try {
+            return verifyToken(token);
+        } finally {
+            paymentMetrics.record(Stage.TOKEN_VERIFICATION, start);
+        }
+    }
+
+    private VerifiedToken verifyToken(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) claims.get("roles", List.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                roles == null ? Collections.emptyList() : List.copyOf(roles),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+        if (verified.getExpiresAt() != null) {
+            verifiedTokens.put(digest, verified);
+        }
+        return verified;
     }
 
     /**
@@ -41,12 +127,7 @@ public class JwtUtil {
      * @return true if token is valid, false otherwise
      */
     public boolean validateToken(String token) {
-        try {
-            extractClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     /**
@@ -55,10 +136,17 @@ public class JwtUtil {
      * @return Claims object containing all the claims from the token
      */
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY.getBytes())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
+
+    /**
+     * Cache key for a token; the raw bearer token itself is never retained
+     */
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -1,4 +1,5 @@
 package com.paymentService.securityConfig;
+import com.paymentService.admission.AdmissionControlFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,22 +16,27 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtTokenFilter jwtTokenFilter;
+    private final AdmissionControlFilter admissionControlFilter;
 
     /**
      * Constructor for SecurityConfig.
      * @param jwtTokenFilter The JWT token filter to be used for authentication
+     * @param admissionControlFilter The rate and concurrency limiting filter for payment endpoints
      */
-    public SecurityConfig(JwtTokenFilter jwtTokenFilter) {
+    public SecurityConfig(JwtTokenFilter jwtTokenFilter, AdmissionControlFilter admissionControlFilter) {
         this.jwtTokenFilter = jwtTokenFilter;
+        this.admissionControlFilter = admissionControlFilter;
     }
 
     /**
      * Configures the security filter chain for HTTP requests.
      * This method:
      * - Disables CSRF protection
-     * - Requires authentication for payment-related endpoints
+     * - Requires authentication for payment-related endpoints and the transaction export
+     * - Restricts the operations endpoints under /api/admin to tokens carrying the ADMIN role
      * - Allows public access to all other endpoints
      * - Adds JWT token filter before username/password authentication
+     * - Adds admission control right after the JWT token filter, so limits are keyed by the token subject
      *
      * @param http The HttpSecurity object to be configured
      * @return The built SecurityFilterChain
@@ -42,9 +48,13 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/payment/transaction", "/payment/history").authenticated()
+                .requestMatchers("/api/payment/export/**").authenticated()
+                .requestMatchers("/api/payment/bank-transfer/files/**").authenticated()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().permitAll()
             )
-            .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(admissionControlFilter, JwtTokenFilter.class);
         return http.build();
     }
 }
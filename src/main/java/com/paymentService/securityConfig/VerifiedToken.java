@@ -0,0 +1,15 @@
+package com.paymentService.securityConfig;
+
+import lombok.Value;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and validity window have already been verified.
+ */
+@Value
+public class VerifiedToken {
+    String username;
+    List<String> roles;
+    Instant expiresAt;
+}
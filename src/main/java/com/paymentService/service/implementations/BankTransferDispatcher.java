@@ -0,0 +1,142 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.exception.TransferQueueFullException;
+import com.paymentService.metrics.PaymentMetrics;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands accepted transfers to the external bank: through the {@link SettlementBatcher} when batching is enabled,
+ * otherwise one call per transfer on the bounded bank-transfer worker pool.
+ */
+@Component
+public class BankTransferDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(BankTransferDispatcher.class);
+
+    private final ThreadPoolTaskExecutor executor;
+    private final BankTransferProcessor processor;
+    private final SettlementBatcher settlementBatcher;
+    private final PaymentMetrics paymentMetrics;
+    private final long syncTimeoutMs;
+
+    public BankTransferDispatcher(@Qualifier("bankTransferExecutor") ThreadPoolTaskExecutor executor,
+                                  BankTransferProcessor processor,
+                                  SettlementBatcher settlementBatcher,
+                                  PaymentMetrics paymentMetrics,
+                                  @Value("${payment.settlement.sync-timeout-ms:30000}") long syncTimeoutMs) {
+        this.executor = executor;
+        this.processor = processor;
+        this.settlementBatcher = settlementBatcher;
+        this.paymentMetrics = paymentMetrics;
+        this.syncTimeoutMs = syncTimeoutMs;
+    }
+
+    /**
+     * Sends a persisted transfer to the bank and waits for the outcome.
+     * With batching the transfer joins the next batch, which adds up to the batch window to its latency.
+     *
+     * @param transferId The transfer id of the persisted transaction
+     * @return BankTransferResponse describing the completed transfer, or the transfer still PROCESSING if the
+     *         bank call failed and the transfer was queued for retry, or no outcome arrived within the sync timeout
+     * @throws TransferQueueFullException if the settlement queue is full; the transfer is marked FAILED
+     * @throws RuntimeException if the bank rejects the transfer, or the call fails and retries are disabled, as for
+     *         {@link BankTransferProcessor#executeTransfer}
+     */
+    public BankTransferResponse execute(String transferId) {
+        if (!settlementBatcher.isEnabled()) {
+            return processor.executeTransfer(transferId);
+        }
+        CompletableFuture<Transaction> settlement = settlementBatcher.offer(transferId);
+        if (settlement == null) {
+            processor.markFailed(transferId);
+            throw new TransferQueueFullException("Settlement queue is full");
+        }
+        Transaction transaction;
+        try {
+            transaction = settlement.get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Bank transfer processing failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or in a batch call: report the transfer as it stands, it settles in the background
+            transaction = processor.findTransfer(transferId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for bank transfer " + transferId, e);
+        }
+        if (transaction.getStatus() == TransferStatus.FAILED) {
+            throw new RuntimeException("Bank transfer processing failed: External banking service rejected the transfer");
+        }
+        return processor.toResponse(transaction);
+    }
+
+    /**
+     * Queues a persisted transfer for execution off the request thread.
+     * If the pipeline is saturated the transfer is marked FAILED so it is never left dangling in PENDING.
+     *
+     * @param transferId The transfer id of the persisted transaction
+     * @throws TransferQueueFullException if the worker or settlement queue is full
+     */
+    public void dispatch(String transferId) {
+        if (!tryDispatch(transferId)) {
+            processor.markFailed(transferId);
+            throw new TransferQueueFullException("Bank transfer queue is full");
+        }
+    }
+
+    /**
+     * Queues a persisted transfer for execution if the worker or settlement queue has room.
+     * Unlike {@link #dispatch(String)} a full queue leaves the transfer PENDING, for callers that wait and retry.
+     *
+     * @param transferId The transfer id of the persisted transaction
+     * @return true if the transfer was queued
+     */
+    public boolean tryDispatch(String transferId) {
+        if (settlementBatcher.isEnabled()) {
+            CompletableFuture<Transaction> settlement = settlementBatcher.offer(transferId);
+            if (settlement == null) {
+                return false;
+            }
+            settlement.whenComplete((transaction, error) -> {
+                if (error != null) {
+                    failed(transferId, error);
+                }
+            });
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    processor.executeTransfer(transferId);
+                } catch (RuntimeException e) {
+                    // Nobody waits on a worker thread: report the failure here
+                    failed(transferId, e);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reports a transfer whose execution off the request thread failed. A rejection by the bank has already been
+     * recorded on the transfer; any other error may have left it PENDING or PROCESSING.
+     */
+    private void failed(String transferId, Throwable error) {
+        paymentMetrics.dispatchFailure();
+        log.warn("Bank transfer {} failed off the request thread: {}", transferId, error.getMessage(), error);
+    }
+}
@@ -0,0 +1,345 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.exception.BankGatewayException;
+import com.paymentService.gateway.BankTransferInstruction;
+import com.paymentService.gateway.BankTransferOutcome;
+import com.paymentService.gateway.BankingGateway;
+import com.paymentService.id.IdGenerator;
+import com.paymentService.metrics.PaymentMetrics;
+import com.paymentService.metrics.PaymentMetrics.Stage;
+import com.paymentService.model.CounterpartyAccount;
+import com.paymentService.model.CurrencyConverter;
+import com.paymentService.model.Payment;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.model.repository.TransactionRepository;
+import com.paymentService.retry.TransferRetryQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists bank transfers and drives them through the external banking call.
+ * Shared by the synchronous endpoint and the asynchronous worker pipeline so that both
+ * apply the same status transitions. All status changes go through {@link TransferStateMachine}.
+ * Transfers whose bank call fails transiently stay PROCESSING in the {@link TransferRetryQueue}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BankTransferProcessor {
+    private final TransactionRepository transactionRepository;
+    private final TransferStateMachine transferStateMachine;
+    private final BankingGateway bankingGateway;
+    private final PaymentMetrics paymentMetrics;
+    private final CounterpartyAccountResolver counterpartyAccountResolver;
+    private final IdGenerator idGenerator;
+    private final TransferRetryQueue transferRetryQueue;
+
+    /**
+     * Creates the payment and transaction records for a validated transfer request in one database transaction.
+     *
+     * @param request The validated bank transfer request
+     * @param transactionStatus The initial status of the transaction record
+     * @return The persisted transaction
+     */
+    public Transaction createTransfer(BankTransferRequest request, TransferStatus transactionStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        Currency currency = CurrencyConverter.parse(request.getCurrency());
+        Payment payment = new Payment();
+        payment.setAccountNumber(request.getAccountNumber());
+        payment.setRoutingNumber(request.getRoutingNumber());
+        payment.setAccountHolderName(request.getAccountHolderName());
+        payment.setAmount(request.getAmount());
+        payment.setCurrency(currency == null ? null : currency.getCurrencyCode());
+        payment.setDescription(request.getDescription());
+        payment.setTransferStatus(TransferStatus.PENDING.name());
+        payment.setCreatedAt(now);
+        payment.setUpdatedAt(now);
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(idGenerator.nextId().toString());
+        transaction.setAmount(request.getAmount());
+        transaction.setCurrency(currency);
+        transaction.setCounterpartyAccountId(counterpartyAccountResolver.resolve(
+            request.getRoutingNumber(), request.getAccountNumber(), request.getAccountHolderName()));
+        transaction.setStatus(transactionStatus);
+        transaction.setDescription(request.getDescription());
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+        long insertStart = paymentMetrics.start();
+        Transaction opened = transferStateMachine.open(payment, transaction);
+        paymentMetrics.record(Stage.TRANSACTION_INSERT, insertStart);
+        return opened;
+    }
+
+    /**
+     * Calls the external bank for a persisted transfer and records the outcome.
+     * No database transaction is held open while waiting for the bank.
+     *
+     * @param transferId The transfer id of the persisted transaction
+     * @return BankTransferResponse describing the completed transfer, or the transfer still PROCESSING if the call
+     *         failed and the transfer was queued for retry
+     * @throws RuntimeException if the bank rejects the transfer, or the call fails and retries are disabled;
+     *         the transfer is marked FAILED. Gateway failures keep their {@link BankGatewayException} as the cause
+     */
+    public BankTransferResponse executeTransfer(String transferId) {
+        Transaction transaction = transactionRepository.findByTransactionId(transferId);
+        if (transaction == null) {
+            throw new IllegalArgumentException("Unknown transfer: " + transferId);
+        }
+        if (transaction.getStatus() == TransferStatus.PENDING) {
+            transferStateMachine.transition(transaction, TransferStatus.PROCESSING);
+        }
+
+        BankTransferOutcome outcome;
+        long gatewayStart = paymentMetrics.start();
+        try {
+            outcome = bankingGateway.submitTransfer(instruction(transaction));
+        } catch (BankGatewayException e) {
+            paymentMetrics.record(Stage.BANK_GATEWAY_CALL, gatewayStart);
+            if (transferRetryQueue.isEnabled()) {
+                transferRetryQueue.schedule(List.of(transferId), e.getMessage(), e.getRetryAfter());
+                return toResponse(transaction);
+            }
+            transition(transaction, TransferStatus.FAILED);
+            throw new RuntimeException("Bank transfer processing failed: " + e.getMessage(), e);
+        }
+
+        paymentMetrics.record(Stage.BANK_GATEWAY_CALL, gatewayStart);
+
+        if (outcome != BankTransferOutcome.ACCEPTED) {
+            transition(transaction, TransferStatus.FAILED);
+            throw new RuntimeException("Bank transfer processing failed: External banking service rejected the transfer");
+        }
+
+        transition(transaction, TransferStatus.COMPLETED);
+        return toResponse(transaction);
+    }
+
+    /**
+     * Calls the external bank once for many persisted transfers and records each outcome.
+     * PENDING transfers are moved to PROCESSING, and afterwards to COMPLETED or FAILED, with one batched
+     * write per status; transfers already PROCESSING are submitted as they are. Transfers that are unknown,
+     * already terminal, or change status concurrently are left out.
+     *
+     * @param transferIds The transfer ids of the persisted transactions
+     * @return The submitted transfers by transfer id: in their terminal status, or still PROCESSING if the call
+     *         failed and they were queued for retry
+     * @throws BankGatewayException if the call failed and retries are disabled; the submitted transfers are marked FAILED
+     */
+    public Map<String, Transaction> executeBatch(List<String> transferIds) {
+        List<Transaction> pending = new ArrayList<>();
+        List<Transaction> submitted = new ArrayList<>();
+        for (Transaction transaction : transactionRepository.findAllByTransactionIdIn(transferIds)) {
+            if (transaction.getStatus() == TransferStatus.PENDING) {
+                pending.add(transaction);
+            } else if (transaction.getStatus() == TransferStatus.PROCESSING) {
+                submitted.add(transaction);
+            }
+        }
+        submitted.addAll(transferStateMachine.transitionAll(pending, TransferStatus.PROCESSING));
+        if (submitted.isEmpty()) {
+            return Map.of();
+        }
+
+        List<BankTransferInstruction> instructions = new ArrayList<>(submitted.size());
+        for (Transaction transaction : submitted) {
+            instructions.add(instruction(transaction));
+        }
+        List<BankTransferOutcome> outcomes;
+        long gatewayStart = paymentMetrics.start();
+        try {
+            outcomes = bankingGateway.submitBatch(instructions);
+        } catch (BankGatewayException e) {
+            paymentMetrics.record(Stage.BANK_GATEWAY_CALL, gatewayStart);
+            if (!transferRetryQueue.isEnabled()) {
+                transitionAll(submitted, TransferStatus.FAILED);
+                throw e;
+            }
+            Map<String, Transaction> queued = new HashMap<>(submitted.size() * 2);
+            for (Transaction transaction : submitted) {
+                queued.put(transaction.getTransactionId(), transaction);
+            }
+            transferRetryQueue.schedule(queued.keySet(), e.getMessage(), e.getRetryAfter());
+            return queued;
+        }
+        paymentMetrics.record(Stage.BANK_GATEWAY_CALL, gatewayStart);
+        return settle(submitted, outcomes);
+    }
+
+    /**
+     * Submits PROCESSING transfers from the retry queue to the bank again.
+     * Transfers that are no longer PROCESSING, e.g. settled meanwhile by reconciliation, are skipped.
+     *
+     * @param transferIds The transfer ids of the retried transactions
+     * @param batched Whether to submit all transfers in one batch call, or make one call per transfer
+     * @return The failure of each transfer whose call failed again, by transfer id; the others are settled or skipped.
+     *         Once the bank throttles us, the remaining transfers are not called and share that failure
+     */
+    public Map<String, BankGatewayException> resubmit(List<String> transferIds, boolean batched) {
+        List<Transaction> submitted = new ArrayList<>(transferIds.size());
+        List<BankTransferInstruction> instructions = new ArrayList<>(transferIds.size());
+        for (Transaction transaction : transactionRepository.findAllByTransactionIdIn(transferIds)) {
+            if (transaction.getStatus() == TransferStatus.PROCESSING) {
+                submitted.add(transaction);
+                instructions.add(instruction(transaction));
+            }
+        }
+        Map<String, BankGatewayException> failures = new HashMap<>();
+        if (submitted.isEmpty()) {
+            return failures;
+        }
+
+        List<Transaction> answered = new ArrayList<>(submitted.size());
+        List<BankTransferOutcome> outcomes = new ArrayList<>(submitted.size());
+        long gatewayStart = paymentMetrics.start();
+        if (batched) {
+            try {
+                outcomes.addAll(bankingGateway.submitBatch(instructions));
+                answered.addAll(submitted);
+            } catch (BankGatewayException e) {
+                for (Transaction transaction : submitted) {
+                    failures.put(transaction.getTransactionId(), e);
+                }
+            }
+        } else {
+            for (int i = 0; i < submitted.size(); i++) {
+                try {
+                    outcomes.add(bankingGateway.submitTransfer(instructions.get(i)));
+                    answered.add(submitted.get(i));
+                } catch (BankGatewayException e) {
+                    failures.put(submitted.get(i).getTransactionId(), e);
+                    if (e.getReason() == BankGatewayException.Reason.THROTTLED) {
+                        for (int j = i + 1; j < submitted.size(); j++) {
+                            failures.put(submitted.get(j).getTransactionId(), e);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        paymentMetrics.record(Stage.BANK_GATEWAY_CALL, gatewayStart);
+        settle(answered, outcomes);
+        return failures;
+    }
+
+    /**
+     * Gives up on PROCESSING transfers, e.g. after their last retry failed
+     *
+     * @param transferIds The transfer ids of the transactions to mark FAILED
+     */
+    public void failAll(List<String> transferIds) {
+        List<Transaction> processing = new ArrayList<>(transferIds.size());
+        for (Transaction transaction : transactionRepository.findAllByTransactionIdIn(transferIds)) {
+            if (transaction.getStatus() == TransferStatus.PROCESSING) {
+                processing.add(transaction);
+            }
+        }
+        transitionAll(processing, TransferStatus.FAILED);
+    }
+
+    /**
+     * Applies the bank's answers, one batched write per resulting status
+     *
+     * @return The transfers moved to their terminal status, by transfer id
+     */
+    private Map<String, Transaction> settle(List<Transaction> submitted, List<BankTransferOutcome> outcomes) {
+        List<Transaction> accepted = new ArrayList<>(submitted.size());
+        List<Transaction> rejected = new ArrayList<>();
+        for (int i = 0; i < submitted.size(); i++) {
+            (outcomes.get(i) == BankTransferOutcome.ACCEPTED ? accepted : rejected).add(submitted.get(i));
+        }
+        Map<String, Transaction> settled = new HashMap<>(submitted.size() * 2);
+        for (Transaction transaction : transitionAll(accepted, TransferStatus.COMPLETED)) {
+            settled.put(transaction.getTransactionId(), transaction);
+        }
+        for (Transaction transaction : transitionAll(rejected, TransferStatus.FAILED)) {
+            settled.put(transaction.getTransactionId(), transaction);
+        }
+        return settled;
+    }
+
+    private BankTransferInstruction instruction(Transaction transaction) {
+        CounterpartyAccount account = counterpartyAccountResolver.get(transaction.getCounterpartyAccountId());
+        return new BankTransferInstruction(
+            transaction.getTransactionId(),
+            account.getAccountNumber(),
+            account.getRoutingNumber(),
+            transaction.getAmount()
+        );
+    }
+
+    /**
+     * Loads a persisted transfer in its current status
+     *
+     * @param transferId The transfer id of the persisted transaction
+     * @return The transaction
+     * @throws IllegalStateException if no such transfer exists
+     */
+    public Transaction findTransfer(String transferId) {
+        Transaction transaction = transactionRepository.findByTransactionId(transferId);
+        if (transaction == null) {
+            throw new IllegalStateException("Unknown transfer: " + transferId);
+        }
+        return transaction;
+    }
+
+    /**
+     * Marks a persisted transfer as FAILED without calling the bank, e.g. when it could not be queued.
+     *
+     * @param transferId The transfer id of the persisted transaction
+     */
+    public void markFailed(String transferId) {
+        Transaction transaction = transactionRepository.findByTransactionId(transferId);
+        if (transaction == null || transaction.getStatus().isTerminal()) {
+            return;
+        }
+        transition(transaction, TransferStatus.FAILED);
+    }
+
+    /**
+     * Moves a transfer into a terminal status and counts the outcome once the change is committed.
+     */
+    private void transition(Transaction transaction, TransferStatus target) {
+        transferStateMachine.transition(transaction, target);
+        paymentMetrics.transferOutcome(target);
+    }
+
+    /**
+     * Moves transfers into a terminal status in one batch and counts the outcomes of those moved.
+     */
+    private List<Transaction> transitionAll(List<Transaction> transactions, TransferStatus target) {
+        List<Transaction> moved = transferStateMachine.transitionAll(transactions, target);
+        paymentMetrics.transferOutcomes(target, moved.size());
+        return moved;
+    }
+
+    /**
+     * Maps a transaction to the bank transfer response returned by the API.
+     *
+     * @param transaction The transaction to map
+     * @return The corresponding BankTransferResponse
+     */
+    public BankTransferResponse toResponse(Transaction transaction) {
+        CounterpartyAccount account = counterpartyAccountResolver.get(transaction.getCounterpartyAccountId());
+        return new BankTransferResponse(
+            transaction.getTransactionId(),
+            account.getAccountNumber(),
+            account.getRoutingNumber(),
+            account.getAccountHolderName(),
+            transaction.getAmount(),
+            transaction.getCurrency() == null ? null : transaction.getCurrency().getCurrencyCode(),
+            transaction.getStatus().name(),
+            transaction.getCreatedAt(),
+            transaction.getDescription()
+        );
+    }
+}
@@ -0,0 +1,62 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import com.paymentService.model.CurrencyConverter;
+import com.paymentService.routing.AbaRoutingNumber;
+import com.paymentService.routing.RoutingNumberDirectory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Validation rules shared by the transfer endpoints and file ingestion.
+ * Runs before anything is persisted, so a bad transfer never takes a database connection or reaches the bank.
+ */
+@Component
+@RequiredArgsConstructor
+public class BankTransferValidation {
+    private final RoutingNumberDirectory routingNumberDirectory;
+
+    /**
+     * Checks a transfer request
+     * @param request The request to check
+     * @return Why the request is invalid, or null if it is valid
+     */
+    public String rejectReason(BankTransferRequest request) {
+        if (request == null) {
+            return "Transfer request is missing";
+        }
+        if (isBlank(request.getAccountNumber())) {
+            return "Account number is required";
+        }
+        if (isBlank(request.getRoutingNumber())) {
+            return "Routing number is required";
+        }
+        if (isBlank(request.getAccountHolderName())) {
+            return "Account holder name is required";
+        }
+        if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be positive";
+        }
+        // Currency is optional, as it always was; when given it has to be one that can be stored
+        if (!isBlank(request.getCurrency()) && CurrencyConverter.parse(request.getCurrency()) == null) {
+            return "Unsupported currency";
+        }
+        int routingNumber = AbaRoutingNumber.parse(request.getRoutingNumber());
+        if (routingNumber == AbaRoutingNumber.MALFORMED) {
+            return "Invalid routing number format";
+        }
+        if (routingNumber == AbaRoutingNumber.BAD_CHECKSUM) {
+            return "Invalid routing number check digit";
+        }
+        if (!routingNumberDirectory.contains(routingNumber)) {
+            return "Unknown routing number";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
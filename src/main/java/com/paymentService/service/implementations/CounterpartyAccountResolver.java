@@ -0,0 +1,122 @@
+package com.paymentService.service.implementations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentService.model.CounterpartyAccount;
+import com.paymentService.model.repository.CounterpartyAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps counterparty account details to the ids transactions reference, and back.
+ * Account rows never change once written, so both directions are cached without expiry; only the
+ * first transfer to an account pays for the upsert, and reading a transfer back rarely needs a query.
+ */
+@Component
+public class CounterpartyAccountResolver {
+    private final CounterpartyAccountRepository counterpartyAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Long> idsByAccount;
+    private final Cache<Long, CounterpartyAccount> accountsById;
+
+    public CounterpartyAccountResolver(CounterpartyAccountRepository counterpartyAccountRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       @Value("${payment.cache.counterparty.maximum-size:100000}") long maximumSize) {
+        this.counterpartyAccountRepository = counterpartyAccountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idsByAccount = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.accountsById = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Returns the id of an account, creating the account row if needed
+     */
+    public long resolve(String routingNumber, String accountNumber, String accountHolderName) {
+        return idsByAccount.get(key(routingNumber, accountNumber, accountHolderName), key -> {
+            Long id = counterpartyAccountRepository.upsert(routingNumber, accountNumber, accountHolderName);
+            accountsById.put(id, account(id, routingNumber, accountNumber, accountHolderName));
+            return id;
+        });
+    }
+
+    /**
+     * Returns the ids of many accounts, creating the missing rows with one statement
+     *
+     * @param accounts Account details; ids are ignored
+     * @return The account ids, in the order of the given accounts
+     */
+    public List<Long> resolveAll(List<CounterpartyAccount> accounts) {
+        // Sorted, so that concurrent callers lock new rows of the unique index in the same order
+        Map<String, CounterpartyAccount> missing = new TreeMap<>();
+        for (CounterpartyAccount account : accounts) {
+            String key = key(account.getRoutingNumber(), account.getAccountNumber(), account.getAccountHolderName());
+            if (idsByAccount.getIfPresent(key) == null) {
+                missing.put(key, account);
+            }
+        }
+        if (!missing.isEmpty()) {
+            upsertAll(new ArrayList<>(missing.values()));
+        }
+        List<Long> ids = new ArrayList<>(accounts.size());
+        for (CounterpartyAccount account : accounts) {
+            ids.add(resolve(account.getRoutingNumber(), account.getAccountNumber(), account.getAccountHolderName()));
+        }
+        return ids;
+    }
+
+    /**
+     * @return The account with the given id
+     * @throws IllegalStateException if no such account exists
+     */
+    public CounterpartyAccount get(long id) {
+        return accountsById.get(id, key -> counterpartyAccountRepository.findById(key)
+            .orElseThrow(() -> new IllegalStateException("Unknown counterparty account " + key)));
+    }
+
+    private void upsertAll(List<CounterpartyAccount> accounts) {
+        String[] routingNumbers = new String[accounts.size()];
+        String[] accountNumbers = new String[accounts.size()];
+        String[] accountHolderNames = new String[accounts.size()];
+        for (int i = 0; i < accounts.size(); i++) {
+            routingNumbers[i] = accounts.get(i).getRoutingNumber();
+            accountNumbers[i] = accounts.get(i).getAccountNumber();
+            accountHolderNames[i] = accounts.get(i).getAccountHolderName();
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO counterparty_accounts "
+                + "(routing_number, account_number, account_holder_name) SELECT * FROM unnest(?, ?, ?) "
+                + "ON CONFLICT (routing_number, account_number, account_holder_name) "
+                + "DO UPDATE SET account_holder_name = EXCLUDED.account_holder_name "
+                + "RETURNING id, routing_number, account_number, account_holder_name");
+            statement.setArray(1, connection.createArrayOf("varchar", routingNumbers));
+            statement.setArray(2, connection.createArrayOf("varchar", accountNumbers));
+            statement.setArray(3, connection.createArrayOf("varchar", accountHolderNames));
+            return statement;
+        }, rs -> {
+            CounterpartyAccount account = account(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+            idsByAccount.put(key(account.getRoutingNumber(), account.getAccountNumber(), account.getAccountHolderName()),
+                account.getId());
+            accountsById.put(account.getId(), account);
+        });
+    }
+
+    private static CounterpartyAccount account(long id, String routingNumber, String accountNumber, String accountHolderName) {
+        CounterpartyAccount account = new CounterpartyAccount();
+        account.setId(id);
+        account.setRoutingNumber(routingNumber);
+        account.setAccountNumber(accountNumber);
+        account.setAccountHolderName(accountHolderName);
+        return account;
+    }
+
+    private static String key(String routingNumber, String accountNumber, String accountHolderName) {
+        return routingNumber + '\u0000' + accountNumber + '\u0000' + accountHolderName;
+    }
+}
@@ -14,15 +14,42 @@ import com.paymentService.model.Customer;
 import com.paymentService.model.Payment;
 import java.time.LocalDateTime;
 import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
 import java.util.ArrayList;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 import com.paymentService.dto.request.BankTransferRequest;
 import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.dto.response.BatchPaymentItemResponse;
+import com.paymentService.dto.response.BatchPaymentResponse;
+import com.paymentService.dto.response.TransactionPageResponse;
+import com.paymentService.dto.response.PaymentSummaryResponse;
+import com.paymentService.model.PaymentSummary;
+import com.paymentService.model.repository.PaymentSummaryRepository;
+import org.springframework.data.domain.PageRequest;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import jakarta.persistence.EntityManager;
+import com.paymentService.archive.ArchivedTransactionReader;
+import com.paymentService.cache.CustomerPaymentCache;
+import com.paymentService.cache.ResolvedCustomer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import com.paymentService.metrics.PaymentMetrics;
+import com.paymentService.metrics.PaymentMetrics.Stage;
+import com.paymentService.datasource.ConsistencyKey;
+import com.paymentService.datasource.DataSourceRole;
+import com.paymentService.datasource.DataSourceRoute;
+import com.paymentService.datasource.RecentWriteTracker;
+import com.paymentService.id.IdGenerator;
+import com.paymentService.velocity.VelocityChecker;
 
 @Service
 @RequiredArgsConstructor
@@ -30,210 +57,432 @@ public class PaymentServiceImpl implements PaymentService {
     private final CustomerRepository customerRepository;
     private final PaymentRepository paymentRepository;
     private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final BankTransferProcessor bankTransferProcessor;
+    private final BankTransferDispatcher bankTransferDispatcher;
+    private final CustomerPaymentCache customerPaymentCache;
+    private final PaymentMetrics paymentMetrics;
+    private final PaymentSummaryRepository paymentSummaryRepository;
+    private final PaymentSummaryUpdater paymentSummaryUpdater;
+    private final ArchivedTransactionReader archivedTransactionReader;
+    private final RecentWriteTracker recentWriteTracker;
+    private final BankTransferValidation bankTransferValidation;
+    private final VelocityChecker velocityChecker;
+    private final IdGenerator idGenerator;
+
+    @Value("${payment.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${payment.history.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${payment.history.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    /** Upper bound on the number of bind parameters used by a single IN-list lookup. */
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
 
     /**
      * Processes a payment request for a customer.
-     * If the customer doesn't exist, creates a new customer record along with associated payment and transaction.
-     * If the customer exists, creates or updates payment record and creates a new transaction.
+     * The customer's internal customer and payment ids are resolved through the customer/payment cache;
+     * on a miss the customer and payment records are upserted, one statement each.
+     * A new transaction is then recorded against the customer's payment, together with its payment summary update.
      *
      * @param request The payment request containing customer ID and payment amount
      * @return MakePaymentResponse containing transaction details (ID, amount, status, and timestamp)
      */
     @Override
     public MakePaymentResponse makePayment(MakePaymentRequest request) {
-        Customer customer = customerRepository.findByCustomerId(request.getCustomerId());
+        long lookupStart = paymentMetrics.start();
+        ResolvedCustomer resolved = customerPaymentCache.get(request.getCustomerId(), this::resolveOrCreateCustomer);
+        paymentMetrics.record(Stage.CUSTOMER_LOOKUP, lookupStart);
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(idGenerator.nextId().toString());
+        transaction.setPaymentId(resolved.getPaymentId());
+        transaction.setAmount(request.getAmount());
+        transaction.setStatus(TransferStatus.PENDING);
+        transaction.setCreatedAt(LocalDateTime.now());
+        long insertStart = paymentMetrics.start();
+        Transaction savedTransaction = paymentSummaryUpdater.insert(transaction);
+        paymentMetrics.record(Stage.TRANSACTION_INSERT, insertStart);
+        recentWriteTracker.recordWrite(request.getCustomerId());
+        return new MakePaymentResponse(savedTransaction.getId(), savedTransaction.getAmount(), savedTransaction.getStatus(), savedTransaction.getCreatedAt());
+    }
+
+    /**
+     * Resolves the internal customer and payment ids for an external customer id, creating the rows if needed.
+     * Each step is a single upsert, so concurrent first payments for the same customer, on this node or
+     * another, converge on the same rows without constraint violations or retries.
+     */
+    private ResolvedCustomer resolveOrCreateCustomer(UUID customerId) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID internalId = customerRepository.upsertByCustomerId(idGenerator.nextId(), customerId, now);
+        long upsertStart = paymentMetrics.start();
+        UUID paymentId = paymentRepository.upsertByCustomerId(idGenerator.nextId(), internalId, now);
+        paymentMetrics.record(Stage.PAYMENT_UPSERT, upsertStart);
+        return new ResolvedCustomer(internalId, paymentId);
+    }
 
+    /**
+     * Resolves the internal customer and payment ids for an existing customer without creating anything.
+     */
+    private ResolvedCustomer findCustomer(UUID customerId) {
+        Customer customer = customerRepository.findByCustomerId(customerId);
         if (customer == null) {
-           customer = new Customer();
-           customer.setCustomerId(request.getCustomerId());
-           customer.setCreatedAt(LocalDateTime.now());
-           Customer savedCustomer = customerRepository.save(customer);
-           Payment payment = new Payment();
-           payment.setCustomerId(savedCustomer.getId());
-           payment.setCreatedAt(LocalDateTime.now());
-           Payment savedPayment = paymentRepository.save(payment);
-           Transaction transaction = new Transaction();
-           transaction.setPaymentId(savedPayment.getId());
-           transaction.setAmount(request.getAmount());
-           transaction.setStatus("pending");
-           transaction.setCreatedAt(LocalDateTime.now());
-           Transaction savedTransaction = transactionRepository.save(transaction);
-           return new MakePaymentResponse(savedTransaction.getId(), savedTransaction.getAmount(), savedTransaction.getStatus(), savedTransaction.getCreatedAt());
+            return null;
         }
         Payment payment = paymentRepository.findByCustomerId(customer.getId());
-        Payment savedPayment = null;
         if (payment == null) {
-            payment = new Payment(); 
+            return null;
         }
-         payment.setCustomerId(customer.getId());
-        payment.setCreatedAt(LocalDateTime.now());
-        savedPayment = paymentRepository.save(payment);
-        Transaction transaction = new Transaction();
-        transaction.setPaymentId(savedPayment.getId());
-        transaction.setAmount(request.getAmount());
-        transaction.setStatus("pending");
-        transaction.setCreatedAt(LocalDateTime.now());
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return new MakePaymentResponse(savedTransaction.getId(), savedTransaction.getAmount(), savedTransaction.getStatus(), savedTransaction.getCreatedAt());
+        return new ResolvedCustomer(customer.getId(), payment.getId());
+    }
+
+    /**
+     * Processes a batch of payment requests.
+     * Invalid entries are reported individually and do not abort the batch. All customers referenced by the
+     * batch are resolved with IN-list queries, missing customers and payments are upserted, and the
+     * transactions are flushed in chunks of the configured Hibernate JDBC batch size so that each chunk is
+     * sent to the database as a single batched statement.
+     *
+     * @param requests The payment requests to process
+     * @return BatchPaymentResponse containing a per-item result for every request, in request order
+     */
+    @Override
+    @Transactional
+    public BatchPaymentResponse makePayments(List<MakePaymentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one payment request");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size exceeds the maximum of " + maxBatchSize);
+        }
+
+        BatchPaymentItemResponse[] results = new BatchPaymentItemResponse[requests.size()];
+        Set<UUID> customerIds = new LinkedHashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            MakePaymentRequest request = requests.get(i);
+            if (request == null || request.getCustomerId() == null) {
+                results[i] = new BatchPaymentItemResponse(i, null, null, "customerId is required");
+            } else if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                results[i] = new BatchPaymentItemResponse(i, request.getCustomerId(), null, "amount must be positive");
+            } else {
+                customerIds.add(request.getCustomerId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        // Customers already in the cache need no lookups at all
+        Map<UUID, ResolvedCustomer> cachedCustomers = new HashMap<>();
+        for (UUID customerId : customerIds) {
+            ResolvedCustomer resolved = customerPaymentCache.getIfPresent(customerId);
+            if (resolved != null) {
+                cachedCustomers.put(customerId, resolved);
+            }
+        }
+        Set<UUID> uncachedIds = new LinkedHashSet<>(customerIds);
+        uncachedIds.removeAll(cachedCustomers.keySet());
+
+        // Resolve existing customers and their payments with one IN-list query per chunk
+        Map<UUID, UUID> internalIdsByExternalId = new HashMap<>();
+        for (List<UUID> chunk : chunks(uncachedIds)) {
+            for (Customer customer : customerRepository.findAllByCustomerIdIn(chunk)) {
+                internalIdsByExternalId.put(customer.getCustomerId(), customer.getId());
+            }
+        }
+        Map<UUID, UUID> paymentIdsByInternalId = new HashMap<>();
+        for (List<UUID> chunk : chunks(internalIdsByExternalId.values())) {
+            for (Payment payment : paymentRepository.findAllByCustomerIdIn(chunk)) {
+                paymentIdsByInternalId.put(payment.getCustomerId(), payment.getId());
+            }
+        }
+
+        // Upsert whatever is still missing, so a concurrent request creating the same customer cannot fail the batch
+        Map<UUID, UUID> paymentIdsByExternalId = new HashMap<>();
+        for (Map.Entry<UUID, ResolvedCustomer> entry : cachedCustomers.entrySet()) {
+            paymentIdsByExternalId.put(entry.getKey(), entry.getValue().getPaymentId());
+        }
+        Map<UUID, ResolvedCustomer> newlyResolved = new HashMap<>();
+        for (UUID customerId : uncachedIds) {
+            UUID internalId = internalIdsByExternalId.get(customerId);
+            if (internalId == null) {
+                internalId = customerRepository.upsertByCustomerId(idGenerator.nextId(), customerId, now);
+            }
+            UUID paymentId = paymentIdsByInternalId.get(internalId);
+            if (paymentId == null) {
+                paymentId = paymentRepository.upsertByCustomerId(idGenerator.nextId(), internalId, now);
+            }
+            paymentIdsByExternalId.put(customerId, paymentId);
+            newlyResolved.put(customerId, new ResolvedCustomer(internalId, paymentId));
+        }
+        // Only publish the mappings once the rows are committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                newlyResolved.forEach(customerPaymentCache::put);
+            }
+        });
+
+        List<Transaction> pending = new ArrayList<>(jdbcBatchSize);
+        PaymentSummaryUpdater.Deltas summaryDeltas = new PaymentSummaryUpdater.Deltas();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            MakePaymentRequest request = requests.get(i);
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(idGenerator.nextId().toString());
+            transaction.setPaymentId(paymentIdsByExternalId.get(request.getCustomerId()));
+            transaction.setAmount(request.getAmount());
+            transaction.setStatus(TransferStatus.PENDING);
+            transaction.setCreatedAt(now);
+            entityManager.persist(transaction);
+            summaryDeltas.add(transaction);
+            results[i] = new BatchPaymentItemResponse(i, request.getCustomerId(),
+                new MakePaymentResponse(transaction.getId(), transaction.getAmount(), transaction.getStatus(), transaction.getCreatedAt()),
+                null);
+            pending.add(transaction);
+            if (pending.size() == jdbcBatchSize) {
+                flushAndClear(pending);
+            }
+        }
+        flushAndClear(pending);
+        paymentSummaryUpdater.apply(summaryDeltas);
+        recentWriteTracker.recordWrites(customerIds);
+
+        int failed = 0;
+        for (BatchPaymentItemResponse result : results) {
+            if (result.getError() != null) {
+                failed++;
+            }
+        }
+        return new BatchPaymentResponse(results.length, results.length - failed, failed, Arrays.asList(results));
+    }
+
+    /**
+     * Sends the pending inserts as one JDBC batch and detaches them so the persistence context stays small.
+     */
+    private void flushAndClear(List<Transaction> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        pending.clear();
+    }
+
+    /**
+     * Splits the given ids into lists small enough to be bound as a single IN-list.
+     */
+    private static List<List<UUID>> chunks(Collection<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        List<UUID> current = new ArrayList<>(Math.min(ids.size(), LOOKUP_CHUNK_SIZE));
+        for (UUID id : ids) {
+            current.add(id);
+            if (current.size() == LOOKUP_CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
     }
 
     /**
      * Retrieves all payment transactions for a specific customer.
-     * Looks up customer by customer ID, then finds associated payment and transactions.
+     * Resolves the customer's payment through the customer/payment cache, then loads its archived and live transactions.
+     * Served from the replica unless the customer made a payment within the read-your-writes window.
      *
      * @param customerId The UUID of the customer whose payments are to be retrieved
      * @return List of MakePaymentResponse containing all transaction details for the customer,
      *         or null if customer, payment, or transactions are not found
      */
     @Override
-    public List<MakePaymentResponse> getPaymentsByCustomerId(UUID customerId) {
-       Customer inHouseCustomer = customerRepository.findByCustomerId(customerId);
-       if (inHouseCustomer == null) {
-        return null;
-       }
-       Payment payment = paymentRepository.findByCustomerId(inHouseCustomer.getId());
-       if (payment == null) {
+    @DataSourceRoute(DataSourceRole.REPLICA)
+    public List<MakePaymentResponse> getPaymentsByCustomerId(@ConsistencyKey UUID customerId) {
+       ResolvedCustomer resolved = customerPaymentCache.get(customerId, this::findCustomer);
+       if (resolved == null) {
         return null;
        }
-       List<Transaction> transactions = transactionRepository.findAllByPaymentId(payment.getId());
+       ArchivedTransactionReader.Snapshot archives = archivedTransactionReader.snapshot();
+       List<MakePaymentResponse> responses = new ArrayList<>();
+       archives.readHistory(resolved.getPaymentId(), null, null, Integer.MAX_VALUE, responses::add);
+       List<Transaction> transactions = transactionRepository.findAllByPaymentIdAndCreatedAtGreaterThanEqual(resolved.getPaymentId(), archives.liveFrom());
        if (transactions == null) {
         return null;
        }
-       List<MakePaymentResponse> responses = new ArrayList<>();
        for (Transaction transaction : transactions) {
         responses.add(new MakePaymentResponse(transaction.getId(), transaction.getAmount(), transaction.getStatus(), transaction.getCreatedAt()));
        }
         return responses;
     }
 
+    /**
+     * Retrieves one page of a customer's payment history using keyset pagination on (createdAt, id).
+     * Each page is a single index range scan regardless of how deep into the history it is. Months that have
+     * been archived come first and are read from the archive files; the rest of the page comes from the live table.
+     *
+     * @param customerId The UUID of the customer whose payments are to be retrieved
+     * @param cursor The cursor of the previous page, or null for the first page
+     * @param limit The requested page size, or null for the default
+     * @return TransactionPageResponse with up to {@code limit} payments and the cursor of the next page,
+     *         or null if the customer or payment is not found
+     */
     @Override
-    public BankTransferResponse processBankTransfer(BankTransferRequest request) {
-        // Input validation
-        if (request == null || 
-            request.getAccountNumber() == null || request.getAccountNumber().trim().isEmpty() ||
-            request.getRoutingNumber() == null || request.getRoutingNumber().trim().isEmpty() ||
-            request.getAccountHolderName() == null || request.getAccountHolderName().trim().isEmpty() ||
-            request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Invalid bank transfer request parameters");
-        }
-
-        // Validate routing number format (assuming US routing numbers)
-        if (!request.getRoutingNumber().matches("^\\d{9}$")) {
-            throw new IllegalArgumentException("Invalid routing number format");
-        }
-
-        // Create payment record
-        Payment payment = new Payment();
-        payment.setAccountNumber(request.getAccountNumber());
-        payment.setRoutingNumber(request.getRoutingNumber());
-        payment.setAccountHolderName(request.getAccountHolderName());
-        payment.setAmount(request.getAmount());
-        payment.setCurrency(request.getCurrency());
-        payment.setDescription(request.getDescription());
-        payment.setTransferStatus("PENDING");
-        payment.setCreatedAt(LocalDateTime.now());
-        payment.setUpdatedAt(LocalDateTime.now());
-        Payment savedPayment = paymentRepository.save(payment);
-
-        // Create transaction record
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(UUID.randomUUID().toString());
-        transaction.setPaymentId(savedPayment.getId());
-        transaction.setAmount(request.getAmount());
-        transaction.setCurrency(request.getCurrency());
-        transaction.setAccountNumber(request.getAccountNumber());
-        transaction.setRoutingNumber(request.getRoutingNumber());
-        transaction.setAccountHolderName(request.getAccountHolderName());
-        transaction.setStatus("PROCESSING");
-        transaction.setDescription(request.getDescription());
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        Transaction savedTransaction = transactionRepository.save(transaction);
-
-        try {
-            // Mock external banking service call
-            boolean transferSuccess = mockExternalBankingService(
-                savedTransaction.getTransactionId(),
-                request.getAccountNumber(),
-                request.getRoutingNumber(),
-                request.getAmount()
-            );
-
-            if (!transferSuccess) {
-                throw new RuntimeException("External banking service rejected the transfer");
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getPaymentsPage(@ConsistencyKey UUID customerId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        ResolvedCustomer resolved = customerPaymentCache.get(customerId, this::findCustomer);
+        if (resolved == null) {
+            return null;
+        }
+        HistoryCursor position = cursor == null || cursor.isEmpty() ? null : HistoryCursor.decode(cursor);
+        ArchivedTransactionReader.Snapshot archives = archivedTransactionReader.snapshot();
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<MakePaymentResponse> items = new ArrayList<>(pageSize + 1);
+        archives.readHistory(resolved.getPaymentId(),
+            position == null ? null : position.getCreatedAt(), position == null ? null : position.getId(),
+            pageSize + 1, items::add);
+        int remaining = pageSize + 1 - items.size();
+        if (remaining > 0) {
+            PageRequest page = PageRequest.of(0, remaining);
+            LocalDateTime liveFrom = archives.liveFrom();
+            if (position == null) {
+                items.addAll(transactionRepository.findHistoryPage(resolved.getPaymentId(), liveFrom, page));
+            } else {
+                LocalDateTime createdFrom = position.getCreatedAt().isAfter(liveFrom) ? position.getCreatedAt() : liveFrom;
+                items.addAll(transactionRepository.findHistoryPageAfter(resolved.getPaymentId(), createdFrom,
+                    position.getCreatedAt(), position.getId(), page));
             }
+        }
 
-            // Update transaction status
-            savedTransaction.setStatus("COMPLETED");
-            savedTransaction.setUpdatedAt(LocalDateTime.now());
-            savedTransaction = transactionRepository.save(savedTransaction);
-
-            // Update payment status
-            savedPayment.setTransferStatus("COMPLETED");
-            savedPayment.setUpdatedAt(LocalDateTime.now());
-            paymentRepository.save(savedPayment);
-
-            return new BankTransferResponse(
-                savedTransaction.getTransactionId(),
-                savedTransaction.getAccountNumber(),
-                savedTransaction.getRoutingNumber(),
-                savedTransaction.getAccountHolderName(),
-                savedTransaction.getAmount(),
-                savedTransaction.getCurrency(),
-                savedTransaction.getStatus(),
-                savedTransaction.getCreatedAt(),
-                savedTransaction.getDescription()
-            );
-
-        } catch (Exception e) {
-            // Handle failure
-            savedTransaction.setStatus("FAILED");
-            savedTransaction.setUpdatedAt(LocalDateTime.now());
-            transactionRepository.save(savedTransaction);
-
-            savedPayment.setTransferStatus("FAILED");
-            savedPayment.setUpdatedAt(LocalDateTime.now());
-            paymentRepository.save(savedPayment);
-
-            throw new RuntimeException("Bank transfer processing failed: " + e.getMessage());
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            MakePaymentResponse last = items.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getTransactionId()).encode();
         }
+        return new TransactionPageResponse(items, nextCursor);
     }
 
     /**
-     * Mocks an external banking service call
-     * In a real implementation, this would be replaced with actual external service integration
+     * Retrieves a customer's payment totals from the summary read model.
+     * Reads a single row regardless of the length of the customer's history.
+     *
+     * @param customerId The UUID of the customer
+     * @return PaymentSummaryResponse with counts and amounts by status, or null if the customer is not found
      */
-    private boolean mockExternalBankingService(String transactionId, String accountNumber, 
-                                             String routingNumber, BigDecimal amount) {
-        // Create HTTP client
-        RestTemplate restTemplate = new RestTemplate();
-        String externalBankingUrl = "https://external-banking-api.example.com/transactions";
-
-        // Prepare request body
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("transactionId", transactionId);
-        requestBody.put("accountNumber", accountNumber);
-        requestBody.put("routingNumber", routingNumber);
-        requestBody.put("amount", amount);
-
-        try {
-            // Make HTTP POST request to external banking service
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                externalBankingUrl,
-                requestBody,
-                Map.class
-            );
-
-            // Check if request was successful (HTTP 200)
-            if (response.getStatusCode() == HttpStatus.OK) {
-                Map<String, Object> responseBody = response.getBody();
-                return responseBody != null && "SUCCESS".equals(responseBody.get("status"));
-            }
-            return false;
+    @Override
+    @DataSourceRoute(DataSourceRole.REPLICA)
+    public PaymentSummaryResponse getPaymentSummary(@ConsistencyKey UUID customerId) {
+        ResolvedCustomer resolved = customerPaymentCache.get(customerId, this::findCustomer);
+        if (resolved == null) {
+            return null;
+        }
+        PaymentSummary summary = paymentSummaryRepository.findById(resolved.getPaymentId()).orElse(null);
+        if (summary == null) {
+            return new PaymentSummaryResponse(customerId, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO,
+                0, BigDecimal.ZERO, 0, BigDecimal.ZERO, null);
+        }
+        return new PaymentSummaryResponse(customerId,
+            summary.getTransactionCount(), summary.getTotalAmount(),
+            summary.getPendingCount(), summary.getPendingAmount(),
+            summary.getProcessingCount(), summary.getProcessingAmount(),
+            summary.getCompletedCount(), summary.getCompletedAmount(),
+            summary.getFailedCount(), summary.getFailedAmount(),
+            summary.getLastActivityAt());
+    }
 
-        } catch (Exception e) {
-            // Log error and return false if external service call fails
-            return false;
+    @Override
+    @DataSourceRoute(DataSourceRole.REPLICA)
+    public boolean customerExists(@ConsistencyKey UUID customerId) {
+        return customerPaymentCache.get(customerId, this::findCustomer) != null;
+    }
+
+    /**
+     * Streams a customer's payment history: archived months first, then the live table through a server-side cursor.
+     * Rows are projected directly into responses and handed to the consumer one by one, so neither
+     * entities nor a result list accumulate in memory.
+     *
+     * @param customerId The UUID of the customer whose payments are to be streamed
+     * @param consumer Receives each payment in (createdAt, id) order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamPaymentsByCustomerId(@ConsistencyKey UUID customerId, Consumer<MakePaymentResponse> consumer) {
+        ResolvedCustomer resolved = customerPaymentCache.get(customerId, this::findCustomer);
+        if (resolved == null) {
+            return;
+        }
+        ArchivedTransactionReader.Snapshot archives = archivedTransactionReader.snapshot();
+        archives.readHistory(resolved.getPaymentId(), null, null, Integer.MAX_VALUE, consumer);
+        try (Stream<MakePaymentResponse> history = transactionRepository.streamHistory(resolved.getPaymentId(), archives.liveFrom())) {
+            history.forEach(consumer);
+        }
+    }
+
+    @Override
+    public BankTransferResponse processBankTransfer(BankTransferRequest request) {
+        validateBankTransfer(request);
+        Transaction transaction = bankTransferProcessor.createTransfer(request, TransferStatus.PROCESSING);
+        return bankTransferDispatcher.execute(transaction.getTransactionId());
+    }
+
+    /**
+     * Accepts a bank transfer for asynchronous processing.
+     * The PENDING payment and transaction are persisted before returning; the external bank call
+     * and the status updates happen on the bank-transfer worker pool.
+     *
+     * @param request The bank transfer request containing bank transfer details
+     * @return BankTransferResponse describing the accepted, still PENDING transfer
+     */
+    @Override
+    public BankTransferResponse submitBankTransfer(BankTransferRequest request) {
+        validateBankTransfer(request);
+        Transaction transaction = bankTransferProcessor.createTransfer(request, TransferStatus.PENDING);
+        bankTransferDispatcher.dispatch(transaction.getTransactionId());
+        return bankTransferProcessor.toResponse(transaction);
+    }
+
+    /**
+     * Looks up the current state of a bank transfer.
+     * Always read from the primary: clients poll this right after submitting, faster than a replica catches up.
+     *
+     * @param transferId The transfer id returned when the transfer was submitted
+     * @return BankTransferResponse with the current status, or null if the transfer does not exist
+     */
+    @Override
+    @DataSourceRoute(DataSourceRole.PRIMARY)
+    public BankTransferResponse getBankTransfer(String transferId) {
+        Transaction transaction = transactionRepository.findByTransactionId(transferId);
+        if (transaction == null) {
+            return null;
+        }
+        return bankTransferProcessor.toResponse(transaction);
+    }
+
+    /**
+     * Rejects an invalid transfer, then counts a valid one against its account's velocity limits.
+     * Runs before anything is written, so a refused transfer leaves no trace in the database.
+     */
+    private void validateBankTransfer(BankTransferRequest request) {
+        String rejectReason = bankTransferValidation.rejectReason(request);
+        if (rejectReason != null) {
+            throw new IllegalArgumentException(rejectReason);
         }
+        velocityChecker.check(request);
     }
 }
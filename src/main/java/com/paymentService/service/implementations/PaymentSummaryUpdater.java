@@ -0,0 +1,169 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.model.repository.PaymentSummaryRepository;
+import com.paymentService.model.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the per-payment summary read model in step with the transactions table.
+ * Every change is applied as a delta upsert in the same database transaction as the transaction
+ * insert or status change it describes, so the summary never reflects uncommitted or rolled-back work.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentSummaryUpdater {
+    private final TransactionRepository transactionRepository;
+    private final PaymentSummaryRepository paymentSummaryRepository;
+
+    /**
+     * Inserts a transaction and adds it to its payment's summary in one database transaction
+     *
+     * @param transaction The new transaction
+     * @return The persisted transaction
+     */
+    @Transactional
+    public Transaction insert(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        transactionInserted(saved);
+        return saved;
+    }
+
+    /**
+     * Adds a transaction inserted by the current database transaction to its payment's summary
+     *
+     * @param transaction The inserted transaction
+     */
+    public void transactionInserted(Transaction transaction) {
+        Deltas deltas = new Deltas();
+        deltas.add(transaction);
+        apply(deltas);
+    }
+
+    /**
+     * Moves a transaction's amount between status buckets after a status change made by the current database transaction
+     *
+     * @param transaction The transaction whose status changed
+     * @param from The previous status
+     * @param to The new status
+     * @param changedAt When the change happened
+     */
+    public void statusChanged(Transaction transaction, TransferStatus from, TransferStatus to, LocalDateTime changedAt) {
+        Deltas deltas = new Deltas();
+        deltas.statusChanged(transaction, from, to, changedAt);
+        apply(deltas);
+    }
+
+    /**
+     * Applies accumulated deltas with one upsert per payment
+     *
+     * @param deltas The deltas collected for the current database transaction
+     */
+    public void apply(Deltas deltas) {
+        deltas.byPayment.forEach(this::apply);
+    }
+
+    /**
+     * Recomputes all summaries from the transactions table and the totals recorded for archived partitions.
+     * Summary updates from concurrent writers wait for the rebuild to finish, so none are lost.
+     *
+     * @return The number of summaries written
+     */
+    @Transactional
+    public int rebuild() {
+        paymentSummaryRepository.lockForRebuild();
+        int written = paymentSummaryRepository.rebuildFromTransactions();
+        paymentSummaryRepository.deleteOrphaned();
+        return written;
+    }
+
+    /**
+     * Periodic rebuild; disabled unless {@code payment.summary.rebuild-cron} is set
+     */
+    @Scheduled(cron = "${payment.summary.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    private void apply(UUID paymentId, Delta delta) {
+        if (paymentId == null) {
+            return;
+        }
+        paymentSummaryRepository.applyDelta(paymentId,
+            delta.transactionCount, delta.totalAmount,
+            delta.counts[TransferStatus.PENDING.ordinal()], delta.amounts[TransferStatus.PENDING.ordinal()],
+            delta.counts[TransferStatus.PROCESSING.ordinal()], delta.amounts[TransferStatus.PROCESSING.ordinal()],
+            delta.counts[TransferStatus.COMPLETED.ordinal()], delta.amounts[TransferStatus.COMPLETED.ordinal()],
+            delta.counts[TransferStatus.FAILED.ordinal()], delta.amounts[TransferStatus.FAILED.ordinal()],
+            delta.lastActivityAt);
+    }
+
+    private static BigDecimal amountOf(Transaction transaction) {
+        return transaction.getAmount() == null ? BigDecimal.ZERO : transaction.getAmount();
+    }
+
+    /**
+     * Summary changes for a set of new or updated transactions, aggregated per payment so that bulk
+     * writes cost one upsert per distinct payment rather than one per transaction.
+     */
+    public static class Deltas {
+        private final Map<UUID, Delta> byPayment = new HashMap<>();
+
+        /**
+         * Adds a newly inserted transaction
+         */
+        public void add(Transaction transaction) {
+            Delta delta = byPayment.computeIfAbsent(transaction.getPaymentId(), id -> new Delta());
+            BigDecimal amount = amountOf(transaction);
+            delta.transactionCount++;
+            delta.totalAmount = delta.totalAmount.add(amount);
+            delta.add(transaction.getStatus(), 1, amount);
+            delta.touch(transaction.getCreatedAt());
+        }
+
+        /**
+         * Adds a status change of an existing transaction
+         */
+        public void statusChanged(Transaction transaction, TransferStatus from, TransferStatus to, LocalDateTime changedAt) {
+            Delta delta = byPayment.computeIfAbsent(transaction.getPaymentId(), id -> new Delta());
+            BigDecimal amount = amountOf(transaction);
+            delta.add(from, -1, amount.negate());
+            delta.add(to, 1, amount);
+            delta.touch(changedAt);
+        }
+    }
+
+    private static class Delta {
+        private long transactionCount;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private final long[] counts = new long[TransferStatus.values().length];
+        private final BigDecimal[] amounts = new BigDecimal[TransferStatus.values().length];
+        private LocalDateTime lastActivityAt;
+
+        private Delta() {
+            Arrays.fill(amounts, BigDecimal.ZERO);
+        }
+
+        private void add(TransferStatus status, long count, BigDecimal amount) {
+            counts[status.ordinal()] += count;
+            amounts[status.ordinal()] = amounts[status.ordinal()].add(amount);
+        }
+
+        private void touch(LocalDateTime at) {
+            if (at != null && (lastActivityAt == null || at.isAfter(lastActivityAt))) {
+                lastActivityAt = at;
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.archive.ArchivedTransactionReader;
+import com.paymentService.cache.CustomerPaymentCache;
+import com.paymentService.cache.ResolvedCustomer;
+import com.paymentService.dto.response.MakePaymentResponse;
+import com.paymentService.dto.response.PaymentSummaryResponse;
+import com.paymentService.model.TransferStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Non-blocking variants of the payment history and summary reads.
+ * Queries run over R2DBC against the same customers, payments, transactions and payment_summaries tables
+ * as the JPA path; the live history is fetched in portal-sized chunks as the subscriber requests them,
+ * so a slow client holds neither a thread nor more than one chunk of rows. Archived months are read
+ * from their files page by page on the bounded-elastic scheduler before the live rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactivePaymentQueryService {
+    private static final int FETCH_SIZE = 250;
+    private static final int ARCHIVE_PAGE_SIZE = 500;
+
+    private final DatabaseClient reactiveDatabaseClient;
+    private final CustomerPaymentCache customerPaymentCache;
+    private final ArchivedTransactionReader archivedTransactionReader;
+
+    /**
+     * Resolves a customer's internal ids, from the shared cache when present
+     * @param customerId The external customer id
+     * @return The ids, or empty if the customer or its payment record does not exist
+     */
+    public Mono<ResolvedCustomer> resolveCustomer(UUID customerId) {
+        ResolvedCustomer cached = customerPaymentCache.getIfPresent(customerId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveDatabaseClient.sql("SELECT c.id AS customer_row_id, p.id AS payment_id FROM customers c "
+                + "JOIN payments p ON p.customer_id = c.id WHERE c.customer_id = :customerId")
+            .bind("customerId", customerId)
+            .map(row -> new ResolvedCustomer(row.get("customer_row_id", UUID.class), row.get("payment_id", UUID.class)))
+            .first()
+            .doOnNext(resolved -> customerPaymentCache.put(customerId, resolved));
+    }
+
+    /**
+     * Streams a customer's payment history in (createdAt, id) order: archived months first, then the live table
+     * @param resolved The customer's ids
+     * @return The history, produced as the subscriber requests it
+     */
+    public Flux<MakePaymentResponse> streamHistory(ResolvedCustomer resolved) {
+        return Mono.fromCallable(archivedTransactionReader::snapshot)
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapMany(archives -> Flux.concat(
+                archivedHistory(archives, resolved.getPaymentId()),
+                liveHistory(resolved.getPaymentId(), archives.liveFrom())));
+    }
+
+    /**
+     * Reads a customer's payment totals from the summary read model
+     * @param customerId The external customer id, echoed in the response
+     * @param resolved The customer's ids
+     * @return The totals; zero totals if no transaction has been recorded yet
+     */
+    public Mono<PaymentSummaryResponse> getSummary(UUID customerId, ResolvedCustomer resolved) {
+        return reactiveDatabaseClient.sql("SELECT transaction_count, total_amount, pending_count, pending_amount, "
+                + "processing_count, processing_amount, completed_count, completed_amount, failed_count, failed_amount, "
+                + "last_activity_at FROM payment_summaries WHERE payment_id = :paymentId")
+            .bind("paymentId", resolved.getPaymentId())
+            .map(row -> new PaymentSummaryResponse(customerId,
+                row.get("transaction_count", Long.class), row.get("total_amount", BigDecimal.class),
+                row.get("pending_count", Long.class), row.get("pending_amount", BigDecimal.class),
+                row.get("processing_count", Long.class), row.get("processing_amount", BigDecimal.class),
+                row.get("completed_count", Long.class), row.get("completed_amount", BigDecimal.class),
+                row.get("failed_count", Long.class), row.get("failed_amount", BigDecimal.class),
+                row.get("last_activity_at", LocalDateTime.class)))
+            .first()
+            .defaultIfEmpty(new PaymentSummaryResponse(customerId, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, 0,
+                BigDecimal.ZERO, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, null));
+    }
+
+    private Flux<MakePaymentResponse> liveHistory(UUID paymentId, LocalDateTime liveFrom) {
+        return reactiveDatabaseClient.sql("SELECT id, amount, status, created_at FROM transactions "
+                + "WHERE payment_id = :paymentId AND created_at >= :createdFrom ORDER BY created_at, id")
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .bind("paymentId", paymentId)
+            .bind("createdFrom", liveFrom)
+            .map(ReactivePaymentQueryService::toResponse)
+            .all();
+    }
+
+    /**
+     * Reads archived history one page at a time, continuing after the last row of the previous page
+     */
+    private Flux<MakePaymentResponse> archivedHistory(ArchivedTransactionReader.Snapshot archives, UUID paymentId) {
+        return archivePage(archives, paymentId, null)
+            .expand(page -> page.size() < ARCHIVE_PAGE_SIZE
+                ? Mono.empty()
+                : archivePage(archives, paymentId, page.get(page.size() - 1)))
+            .concatMapIterable(page -> page);
+    }
+
+    private Mono<List<MakePaymentResponse>> archivePage(ArchivedTransactionReader.Snapshot archives, UUID paymentId,
+                                                        MakePaymentResponse after) {
+        return Mono.fromCallable(() -> {
+            List<MakePaymentResponse> page = new ArrayList<>(ARCHIVE_PAGE_SIZE);
+            archives.readHistory(paymentId,
+                after == null ? null : after.getCreatedAt(),
+                after == null ? null : after.getTransactionId(),
+                ARCHIVE_PAGE_SIZE, page::add);
+            return page;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static MakePaymentResponse toResponse(Readable row) {
+        return new MakePaymentResponse(row.get("id", UUID.class), row.get("amount", BigDecimal.class),
+            TransferStatus.fromCode(row.get("status", Short.class)), row.get("created_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,163 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.model.Transaction;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects persisted transfers into windows and submits each window to the external bank as one batch call.
+ * A window closes when it holds {@code payment.settlement.batch-size} transfers or {@code payment.settlement.max-wait-ms}
+ * after its first transfer arrived, whichever comes first. Windows are settled on the settlement batch pool; when
+ * every batch thread is busy the collector settles the window itself and stops draining, so the bounded queue
+ * fills up and {@link #offer} refuses new transfers until the bank catches up.
+ * Transfers still queued at shutdown stay PENDING.
+ */
+@Component
+public class SettlementBatcher implements InitializingBean, DisposableBean {
+    private final BankTransferProcessor processor;
+    private final TaskExecutor batchExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<QueuedTransfer> queue;
+
+    private volatile Thread collector;
+
+    public SettlementBatcher(BankTransferProcessor processor,
+                             @Qualifier("settlementBatchExecutor") TaskExecutor batchExecutor,
+                             @Value("${payment.settlement.batching.enabled:true}") boolean enabled,
+                             @Value("${payment.settlement.batch-size:500}") int batchSize,
+                             @Value("${payment.settlement.max-wait-ms:200}") long maxWaitMs,
+                             @Value("${payment.settlement.queue-capacity:10000}") int queueCapacity) {
+        this.processor = processor;
+        this.batchExecutor = batchExecutor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * @return Whether transfers are submitted in batches; otherwise each transfer is its own bank call
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a persisted transfer for the next batch
+     *
+     * @param transferId The transfer id of the persisted transaction
+     * @return A future completed with the transfer in its terminal status once its batch is settled, or completed
+     *         exceptionally if the batch call failed or the transfer was not submitted; null if the queue is full
+     */
+    public CompletableFuture<Transaction> offer(String transferId) {
+        QueuedTransfer transfer = new QueuedTransfer(transferId);
+        return queue.offer(transfer) ? transfer.result : null;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::collect, "settlement-batcher");
+        thread.setDaemon(true);
+        collector = thread;
+        thread.start();
+    }
+
+    @Override
+    public void destroy() {
+        Thread thread = collector;
+        collector = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        List<QueuedTransfer> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (QueuedTransfer transfer : abandoned) {
+            transfer.result.completeExceptionally(new IllegalStateException("Settlement stopped before transfer "
+                + transfer.transferId + " was submitted"));
+        }
+    }
+
+    private void collect() {
+        List<QueuedTransfer> window = new ArrayList<>(batchSize);
+        while (collector != null) {
+            try {
+                window.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (window.size() < batchSize) {
+                    queue.drainTo(window, batchSize - window.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (window.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    QueuedTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    window.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Transfers already taken are still settled below
+                Thread.currentThread().interrupt();
+            }
+            if (!window.isEmpty()) {
+                List<QueuedTransfer> batch = window;
+                window = new ArrayList<>(batchSize);
+                batchExecutor.execute(() -> settle(batch));
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private void settle(List<QueuedTransfer> batch) {
+        List<String> transferIds = new ArrayList<>(batch.size());
+        for (QueuedTransfer transfer : batch) {
+            transferIds.add(transfer.transferId);
+        }
+        Map<String, Transaction> settled;
+        try {
+            settled = processor.executeBatch(transferIds);
+        } catch (RuntimeException e) {
+            for (QueuedTransfer transfer : batch) {
+                transfer.result.completeExceptionally(e);
+            }
+            return;
+        }
+        for (QueuedTransfer transfer : batch) {
+            Transaction transaction = settled.get(transfer.transferId);
+            if (transaction != null) {
+                transfer.result.complete(transaction);
+            } else {
+                transfer.result.completeExceptionally(new IllegalStateException("Transfer " + transfer.transferId
+                    + " was not submitted: it is unknown or no longer pending"));
+            }
+        }
+    }
+
+    private static final class QueuedTransfer {
+        final String transferId;
+        final CompletableFuture<Transaction> result = new CompletableFuture<>();
+
+        QueuedTransfer(String transferId) {
+            this.transferId = transferId;
+        }
+    }
+}
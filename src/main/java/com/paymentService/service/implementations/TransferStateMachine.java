@@ -0,0 +1,216 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.model.CurrencyConverter;
+import com.paymentService.model.Payment;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.model.TransferStatusEvent;
+import com.paymentService.model.repository.PaymentRepository;
+import com.paymentService.model.repository.TransactionRepository;
+import com.paymentService.model.repository.TransferStatusEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies bank-transfer status transitions.
+ * Every transition is one database transaction that updates the transaction row with a
+ * compare-and-set on its current status, updates the payment when the transfer reaches a terminal
+ * status, applies the change to the payment summary, and appends it to the transfer status outbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferStateMachine {
+    private static final CurrencyConverter CURRENCY_CONVERTER = new CurrencyConverter();
+
+    private final PaymentRepository paymentRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransferStatusEventRepository transferStatusEventRepository;
+    private final PaymentSummaryUpdater paymentSummaryUpdater;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Persists a new transfer, adds it to the payment summary and records its initial status in the outbox, in one transaction
+     *
+     * @param payment The new payment record
+     * @param transaction The new transaction record, referencing the payment
+     * @return The persisted transaction
+     */
+    @Transactional
+    public Transaction open(Payment payment, Transaction transaction) {
+        Payment savedPayment = paymentRepository.save(payment);
+        transaction.setPaymentId(savedPayment.getId());
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        paymentSummaryUpdater.transactionInserted(savedTransaction);
+        transferStatusEventRepository.save(event(savedTransaction, null, savedTransaction.getStatus().name(), savedTransaction.getCreatedAt()));
+        return savedTransaction;
+    }
+
+    /**
+     * Persists many new transfers in one transaction, e.g. from an uploaded transfer file.
+     * Payments and transactions are inserted as JDBC batches; summary updates and initial status events
+     * are recorded as in {@link #open}.
+     *
+     * @param payments The new payment records, with ids assigned
+     * @param transactions The new transaction records, with ids assigned and referencing their payments
+     */
+    @Transactional
+    public void openAll(List<Payment> payments, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payments (id, customer_id, account_number, routing_number, account_holder_name, "
+                + "amount, currency, transfer_status, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            payments, payments.size(), (ps, payment) -> {
+                ps.setObject(1, payment.getId());
+                ps.setObject(2, payment.getCustomerId());
+                ps.setString(3, payment.getAccountNumber());
+                ps.setString(4, payment.getRoutingNumber());
+                ps.setString(5, payment.getAccountHolderName());
+                ps.setBigDecimal(6, payment.getAmount());
+                ps.setString(7, payment.getCurrency());
+                ps.setString(8, payment.getTransferStatus());
+                ps.setString(9, payment.getDescription());
+                ps.setTimestamp(10, Timestamp.valueOf(payment.getCreatedAt()));
+                ps.setTimestamp(11, Timestamp.valueOf(payment.getUpdatedAt()));
+            });
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, transaction_id, payment_id, amount, currency, "
+                + "counterparty_account_id, status, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            transactions, transactions.size(), (ps, transaction) -> {
+                ps.setObject(1, transaction.getId());
+                ps.setString(2, transaction.getTransactionId());
+                ps.setObject(3, transaction.getPaymentId());
+                ps.setBigDecimal(4, transaction.getAmount());
+                ps.setObject(5, CURRENCY_CONVERTER.convertToDatabaseColumn(transaction.getCurrency()), Types.SMALLINT);
+                ps.setObject(6, transaction.getCounterpartyAccountId(), Types.BIGINT);
+                ps.setShort(7, transaction.getStatus().getCode());
+                ps.setString(8, transaction.getDescription());
+                ps.setTimestamp(9, Timestamp.valueOf(transaction.getCreatedAt()));
+                ps.setTimestamp(10, Timestamp.valueOf(transaction.getUpdatedAt()));
+            });
+        PaymentSummaryUpdater.Deltas deltas = new PaymentSummaryUpdater.Deltas();
+        List<TransferStatusEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            deltas.add(transaction);
+            events.add(event(transaction, null, transaction.getStatus().name(), transaction.getCreatedAt()));
+        }
+        paymentSummaryUpdater.apply(deltas);
+        transferStatusEventRepository.saveAll(events);
+    }
+
+    /**
+     * Moves a transfer to the target status
+     *
+     * @param transaction The transfer in its last known state; updated in place on success
+     * @param target The status to move to
+     * @throws IllegalStateException if the transition is not allowed, or the transfer's status
+     *         was changed concurrently since it was read
+     */
+    @Transactional
+    public void transition(Transaction transaction, TransferStatus target) {
+        TransferStatus current = transaction.getStatus();
+        if (!current.canTransitionTo(target)) {
+            throw new IllegalStateException("Transfer " + transaction.getTransactionId()
+                + " cannot move from " + current + " to " + target);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // The in-memory creation time may carry more precision than the stored one, hence a window rather than equality
+        LocalDateTime createdAt = transaction.getCreatedAt();
+        int updated = transactionRepository.updateStatus(transaction.getTransactionId(), current, target, now,
+            createdAt.minusSeconds(1), createdAt.plusSeconds(1));
+        if (updated == 0) {
+            throw new IllegalStateException("Transfer " + transaction.getTransactionId() + " is no longer " + current);
+        }
+        if (target.isTerminal()) {
+            paymentRepository.updateTransferStatus(transaction.getPaymentId(), target.name(), now);
+        }
+        paymentSummaryUpdater.statusChanged(transaction, current, target, now);
+        transferStatusEventRepository.save(event(transaction, current.name(), target.name(), now));
+        transaction.setStatus(target);
+        transaction.setUpdatedAt(now);
+    }
+
+    /**
+     * Moves many transfers to the same target status in one database transaction, e.g. to apply
+     * reconciliation corrections. Status updates are sent as JDBC batches with the same compare-and-set
+     * as {@link #transition}; transfers that may not move to the target, or whose status changed
+     * concurrently, are skipped rather than failing the batch.
+     *
+     * @param transactions The transfers in their last known state; those moved are updated in place
+     * @param target The status to move to
+     * @return The transfers that were moved
+     */
+    @Transactional
+    public List<Transaction> transitionAll(List<Transaction> transactions, TransferStatus target) {
+        List<Transaction> eligible = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus().canTransitionTo(target)) {
+                eligible.add(transaction);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return eligible;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE transactions SET status = ?, updated_at = ? "
+                + "WHERE transaction_id = ? AND status = ? AND created_at >= ? AND created_at < ?",
+            eligible, eligible.size(), (ps, transaction) -> {
+                ps.setShort(1, target.getCode());
+                ps.setTimestamp(2, updatedAt);
+                ps.setString(3, transaction.getTransactionId());
+                ps.setShort(4, transaction.getStatus().getCode());
+                ps.setTimestamp(5, Timestamp.valueOf(transaction.getCreatedAt().minusSeconds(1)));
+                ps.setTimestamp(6, Timestamp.valueOf(transaction.getCreatedAt().plusSeconds(1)));
+            });
+
+        List<Transaction> moved = new ArrayList<>();
+        List<TransferStatusEvent> events = new ArrayList<>();
+        Set<UUID> paymentIds = new LinkedHashSet<>();
+        PaymentSummaryUpdater.Deltas deltas = new PaymentSummaryUpdater.Deltas();
+        int[] results = counts.length == 0 ? new int[0] : counts[0];
+        for (int i = 0; i < eligible.size(); i++) {
+            if (results[i] != 1) {
+                continue;
+            }
+            Transaction transaction = eligible.get(i);
+            events.add(event(transaction, transaction.getStatus().name(), target.name(), now));
+            deltas.statusChanged(transaction, transaction.getStatus(), target, now);
+            paymentIds.add(transaction.getPaymentId());
+            transaction.setStatus(target);
+            transaction.setUpdatedAt(now);
+            moved.add(transaction);
+        }
+        if (target.isTerminal() && !paymentIds.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE payments SET transfer_status = ?, updated_at = ? WHERE id = ?",
+                paymentIds, paymentIds.size(), (ps, paymentId) -> {
+                    ps.setString(1, target.name());
+                    ps.setTimestamp(2, updatedAt);
+                    ps.setObject(3, paymentId);
+                });
+        }
+        paymentSummaryUpdater.apply(deltas);
+        transferStatusEventRepository.saveAll(events);
+        return moved;
+    }
+
+    private static TransferStatusEvent event(Transaction transaction, String fromStatus, String toStatus, LocalDateTime occurredAt) {
+        TransferStatusEvent event = new TransferStatusEvent();
+        event.setTransferId(transaction.getTransactionId());
+        event.setPaymentId(transaction.getPaymentId());
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setOccurredAt(occurredAt);
+        return event;
+    }
+}
@@ -5,6 +5,10 @@ import java.util.UUID;
 import java.util.List;
 import com.paymentService.dto.request.BankTransferRequest;
 import com.paymentService.dto.response.BankTransferResponse;
+import com.paymentService.dto.response.BatchPaymentResponse;
+import com.paymentService.dto.response.TransactionPageResponse;
+import com.paymentService.dto.response.PaymentSummaryResponse;
+import java.util.function.Consumer;
 
 public interface PaymentService {
     /**
@@ -14,6 +18,14 @@ public interface PaymentService {
      */
     MakePaymentResponse makePayment(MakePaymentRequest request);
 
+    /**
+     * Processes a batch of payment requests in a single unit of work.
+     * Customers and payments are resolved with set-based lookups and transactions are written with JDBC batching.
+     * @param requests The payment requests to process
+     * @return BatchPaymentResponse containing one result per request, in request order
+     */
+    BatchPaymentResponse makePayments(List<MakePaymentRequest> requests);
+
     /**
      * Retrieves all payments associated with a specific customer
      * @param customerId The unique identifier of the customer
@@ -21,10 +33,56 @@ public interface PaymentService {
      */
     List<MakePaymentResponse> getPaymentsByCustomerId(UUID customerId);
 
+    /**
+     * Retrieves one page of a customer's payment history, oldest first
+     * @param customerId The unique identifier of the customer
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The requested page size, or null for the default; capped at the configured maximum
+     * @return The page of payments, or null if the customer has no payment history
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    TransactionPageResponse getPaymentsPage(UUID customerId, String cursor, Integer limit);
+
+    /**
+     * Retrieves a customer's transaction counts and amounts by status from the summary read model
+     * @param customerId The unique identifier of the customer
+     * @return The customer's payment summary, or null if the customer has no payment record
+     */
+    PaymentSummaryResponse getPaymentSummary(UUID customerId);
+
+    /**
+     * Checks whether a customer has a payment record
+     * @param customerId The unique identifier of the customer
+     * @return true if the customer and its payment exist
+     */
+    boolean customerExists(UUID customerId);
+
+    /**
+     * Streams a customer's full payment history, oldest first, through a database cursor.
+     * Memory use does not depend on the length of the history.
+     * @param customerId The unique identifier of the customer
+     * @param consumer Receives each payment in order
+     */
+    void streamPaymentsByCustomerId(UUID customerId, Consumer<MakePaymentResponse> consumer);
+
     /**
      * Processes a bank transfer request based on the provided bank transfer request
      * @param request The bank transfer request containing bank transfer details
      * @return BankTransferResponse containing the result of the bank transfer transaction
      */
     BankTransferResponse processBankTransfer(BankTransferRequest request);
+
+    /**
+     * Accepts a bank transfer for asynchronous processing
+     * @param request The bank transfer request containing bank transfer details
+     * @return BankTransferResponse describing the accepted transfer in PENDING status
+     */
+    BankTransferResponse submitBankTransfer(BankTransferRequest request);
+
+    /**
+     * Retrieves the current state of a bank transfer
+     * @param transferId The transfer id returned when the transfer was created
+     * @return BankTransferResponse with the current status, or null if no such transfer exists
+     */
+    BankTransferResponse getBankTransfer(String transferId);
 }
@@ -0,0 +1,58 @@
+package com.paymentService.velocity;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import com.paymentService.exception.VelocityLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory velocity checks on bank transfers, run before anything is written.
+ * Each transfer counts against its counterparty account (routing and account number) under every configured
+ * {@link VelocityRule}; a transfer that would break any rule is refused and counts against none. Counts are
+ * kept per instance, so behind a load balancer each rule applies per instance.
+ */
+@Component
+public class VelocityChecker {
+    private final VelocityWindows windows;
+    private final Map<VelocityRule, Counter> rejections = new HashMap<>();
+
+    public VelocityChecker(MeterRegistry registry,
+                           @Value("${payment.velocity.enabled:true}") boolean enabled,
+                           @Value("${payment.velocity.rules:}") String rules,
+                           @Value("${payment.velocity.max-accounts:100000}") int maxAccounts) {
+        List<VelocityRule> parsed = enabled ? VelocityRule.parseAll(rules) : List.of();
+        this.windows = parsed.isEmpty() ? null
+            : new VelocityWindows(parsed, maxAccounts, () -> System.nanoTime() / 1_000_000);
+        for (VelocityRule rule : parsed) {
+            rejections.put(rule, Counter.builder("payment.velocity.rejected")
+                .description("Bank transfers refused by a velocity rule")
+                .tag("rule", rule.getName())
+                .register(registry));
+        }
+    }
+
+    /**
+     * Counts a transfer against its account's velocity limits
+     *
+     * @param request A validated bank transfer request
+     * @throws VelocityLimitExceededException if the transfer would break a rule; it is not counted
+     */
+    public void check(BankTransferRequest request) {
+        if (windows == null) {
+            return;
+        }
+        VelocityRule broken = windows.tryRecord(
+            VelocityWindows.key(request.getRoutingNumber(), request.getAccountNumber()),
+            VelocityRule.toCents(request.getAmount()));
+        if (broken != null) {
+            rejections.get(broken).increment();
+            throw new VelocityLimitExceededException(broken.getName(), Math.max(1, (broken.getWindowMillis() + 999) / 1000));
+        }
+    }
+}
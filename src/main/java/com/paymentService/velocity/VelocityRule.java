@@ -0,0 +1,109 @@
+package com.paymentService.velocity;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A limit on the transfers to one counterparty account within a sliding window: at most {@code maxCount}
+ * transfers, and at most {@code maxAmount} in total, where either limit may be absent.
+ * <p>
+ * Rules are configured as {@code name:window:limit=value[,limit=value]}, separated by semicolons, e.g.
+ * {@code burst:1m:count=5;hourly:1h:count=30,amount=25000.00}. Windows take an {@code ms}, {@code s}, {@code m},
+ * {@code h} or {@code d} suffix; amounts are in the transfer's currency, to the cent.
+ */
+@Value
+public class VelocityRule {
+    String name;
+    long windowMillis;
+    /** Maximum transfers in the window, or 0 for no count limit */
+    int maxCount;
+    /** Maximum total amount in the window in cents, or 0 for no amount limit */
+    long maxAmountCents;
+
+    /**
+     * Parses a rule list
+     * @param spec Rules in the format described on the class, or blank for none
+     * @return The rules in configuration order
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public static List<VelocityRule> parseAll(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<VelocityRule> rules = new ArrayList<>();
+        for (String rule : spec.split(";")) {
+            if (!rule.isBlank()) {
+                rules.add(parse(rule.trim()));
+            }
+        }
+        return rules;
+    }
+
+    private static VelocityRule parse(String rule) {
+        String[] parts = rule.split(":");
+        if (parts.length != 3 || parts[0].isBlank()) {
+            throw new IllegalArgumentException("Velocity rule '" + rule + "' is not name:window:limits");
+        }
+        long windowMillis = parseWindow(parts[1].trim(), rule);
+        int maxCount = 0;
+        long maxAmountCents = 0;
+        for (String limit : parts[2].split(",")) {
+            String[] pair = limit.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Velocity rule '" + rule + "' has a malformed limit '" + limit + "'");
+            }
+            String value = pair[1].trim();
+            try {
+                switch (pair[0].trim().toLowerCase(Locale.ROOT)) {
+                    case "count" -> maxCount = Integer.parseInt(value);
+                    case "amount" -> maxAmountCents = toCents(new BigDecimal(value));
+                    default -> throw new IllegalArgumentException("Velocity rule '" + rule
+                        + "' has an unknown limit '" + pair[0].trim() + "'");
+                }
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Velocity rule '" + rule + "' has a malformed limit '" + limit + "'", e);
+            }
+        }
+        if (maxCount < 0 || maxAmountCents < 0 || maxCount == 0 && maxAmountCents == 0) {
+            throw new IllegalArgumentException("Velocity rule '" + rule + "' needs a positive count or amount limit");
+        }
+        return new VelocityRule(parts[0].trim(), windowMillis, maxCount, maxAmountCents);
+    }
+
+    private static long parseWindow(String window, String rule) {
+        int unitStart = 0;
+        while (unitStart < window.length() && Character.isDigit(window.charAt(unitStart))) {
+            unitStart++;
+        }
+        long unitMillis = switch (window.substring(unitStart)) {
+            case "ms" -> 1;
+            case "s" -> 1_000;
+            case "m" -> 60_000;
+            case "h" -> 3_600_000;
+            case "d" -> 86_400_000;
+            default -> throw new IllegalArgumentException("Velocity rule '" + rule + "' has an unknown window unit");
+        };
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("Velocity rule '" + rule + "' has no window length");
+        }
+        long millis = Long.parseLong(window.substring(0, unitStart)) * unitMillis;
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Velocity rule '" + rule + "' needs a positive window");
+        }
+        return millis;
+    }
+
+    /**
+     * Converts an amount to whole cents, rounding fractions of a cent up and saturating at {@link Long#MAX_VALUE}
+     */
+    static long toCents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, RoundingMode.CEILING);
+        return cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : cents.longValue();
+    }
+}
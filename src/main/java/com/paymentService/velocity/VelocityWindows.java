@@ -0,0 +1,202 @@
+package com.paymentService.velocity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window transfer counts and amounts per counterparty account, held in primitive arrays.
+ * <p>
+ * Accounts are keyed by a 64-bit hash of their routing and account number and spread over independently
+ * locked stripes, each an open-addressing table probed linearly, so a check allocates nothing and contends
+ * only with checks for accounts in the same stripe. Every rule keeps, per account, the count and amount of its
+ * current and previous fixed window; the sliding total is the current window plus the share of the previous one
+ * that still overlaps the sliding window, which assumes the previous window's transfers were spread evenly.
+ * <p>
+ * Accounts idle for two of the longest windows hold no counts any more, and their slots are reused by new
+ * accounts as these are inserted. When no slot within the probe limit is free, the least recently active
+ * account in range is forgotten, which can only let transfers through, never block them.
+ */
+final class VelocityWindows {
+    private static final int STRIPES = 64;
+    private static final int MAX_PROBES = 16;
+    /** Marks a slot's windows as holding nothing, whatever the current epoch */
+    private static final long NO_EPOCH = Long.MIN_VALUE;
+
+    private final VelocityRule[] rules;
+    private final long[] windowMillis;
+    private final boolean sumsAmounts;
+    private final long idleMillis;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    /**
+     * @param rules The rules to enforce, none of them empty
+     * @param maxAccounts Number of accounts to track, rounded up to fill whole stripes
+     * @param clock Monotonic milliseconds
+     */
+    VelocityWindows(List<VelocityRule> rules, int maxAccounts, LongSupplier clock) {
+        this.rules = rules.toArray(new VelocityRule[0]);
+        this.windowMillis = new long[this.rules.length];
+        long longestWindow = 0;
+        boolean sumsAmounts = false;
+        for (int r = 0; r < this.rules.length; r++) {
+            windowMillis[r] = this.rules[r].getWindowMillis();
+            longestWindow = Math.max(longestWindow, windowMillis[r]);
+            sumsAmounts |= this.rules[r].getMaxAmountCents() > 0;
+        }
+        this.sumsAmounts = sumsAmounts;
+        this.idleMillis = 2 * longestWindow;
+        this.clock = clock;
+        int slotsPerStripe = Math.max(MAX_PROBES, Integer.highestOneBit(Math.max(1, maxAccounts / STRIPES - 1)) << 1);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(slotsPerStripe, this.rules.length, sumsAmounts);
+        }
+    }
+
+    /**
+     * Records a transfer to an account unless it would break a rule
+     * @param key The account key, from {@link #key}
+     * @param amountCents The transfer amount in cents
+     * @return null if the transfer was recorded, otherwise the first rule it would break
+     */
+    VelocityRule tryRecord(long key, long amountCents) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripes[(int) (key >>> 58)];
+        synchronized (stripe) {
+            int slot = stripe.slotFor(key, now, idleMillis);
+            int base = slot * rules.length;
+            for (int r = 0; r < rules.length; r++) {
+                VelocityRule rule = rules[r];
+                int i = base + r;
+                stripe.roll(i, Math.floorDiv(now, windowMillis[r]));
+                double overlap = 1 - (double) Math.floorMod(now, windowMillis[r]) / windowMillis[r];
+                if (rule.getMaxCount() > 0
+                    && stripe.previousCounts[i] * overlap + stripe.currentCounts[i] + 1 > rule.getMaxCount()) {
+                    return rule;
+                }
+                if (rule.getMaxAmountCents() > 0
+                    && stripe.previousSums[i] * overlap + stripe.currentSums[i] + amountCents > rule.getMaxAmountCents()) {
+                    return rule;
+                }
+            }
+            for (int r = 0; r < rules.length; r++) {
+                int i = base + r;
+                stripe.currentCounts[i]++;
+                if (sumsAmounts) {
+                    long sum = stripe.currentSums[i] + amountCents;
+                    stripe.currentSums[i] = sum < 0 ? Long.MAX_VALUE : sum;
+                }
+            }
+            stripe.lastSeen[slot] = now;
+        }
+        return null;
+    }
+
+    /**
+     * Hashes a counterparty account to a non-zero key; its top six bits select the stripe
+     */
+    static long key(String routingNumber, String accountNumber) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, routingNumber);
+        hash = (hash ^ ':') * 0x100000001b3L;
+        hash = fnv(hash, accountNumber);
+        // Finalizer from MurmurHash3, so that both the stripe and the slot bits depend on every input byte
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * One lock's share of the accounts. Per-rule state of the account in slot s is at index s * rules + r.
+     */
+    private static final class Stripe {
+        final int mask;
+        final int ruleCount;
+        /** Account keys; 0 marks a slot never used, which ends a probe sequence */
+        final long[] keys;
+        final long[] lastSeen;
+        final long[] epochs;
+        final int[] previousCounts;
+        final int[] currentCounts;
+        final long[] previousSums;
+        final long[] currentSums;
+
+        Stripe(int slots, int ruleCount, boolean sumsAmounts) {
+            this.mask = slots - 1;
+            this.ruleCount = ruleCount;
+            this.keys = new long[slots];
+            this.lastSeen = new long[slots];
+            this.epochs = new long[slots * ruleCount];
+            this.previousCounts = new int[slots * ruleCount];
+            this.currentCounts = new int[slots * ruleCount];
+            this.previousSums = new long[sumsAmounts ? slots * ruleCount : 0];
+            this.currentSums = new long[sumsAmounts ? slots * ruleCount : 0];
+        }
+
+        /**
+         * Finds the account's slot, claiming an idle or the least recently active slot in range if it has none.
+         * Slots are never emptied again, so a probe sequence stays intact when its slots change hands.
+         */
+        int slotFor(long key, long now, long idleMillis) {
+            int home = (int) (key ^ key >>> 32) & mask;
+            int free = -1;
+            int oldest = home;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (home + probe) & mask;
+                long slotKey = keys[slot];
+                if (slotKey == key) {
+                    return slot;
+                }
+                if (slotKey == 0) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                    break;
+                }
+                if (free < 0 && now - lastSeen[slot] >= idleMillis) {
+                    free = slot;
+                }
+                if (lastSeen[slot] < lastSeen[oldest]) {
+                    oldest = slot;
+                }
+            }
+            int slot = free >= 0 ? free : oldest;
+            keys[slot] = key;
+            lastSeen[slot] = now;
+            for (int i = slot * ruleCount; i < (slot + 1) * ruleCount; i++) {
+                epochs[i] = NO_EPOCH;
+            }
+            return slot;
+        }
+
+        /**
+         * Moves one rule's windows forward to the given epoch, dropping windows that no longer overlap it
+         */
+        void roll(int i, long epoch) {
+            long stored = epochs[i];
+            if (stored == epoch) {
+                return;
+            }
+            boolean adjacent = stored == epoch - 1;
+            previousCounts[i] = adjacent ? currentCounts[i] : 0;
+            currentCounts[i] = 0;
+            if (currentSums.length > 0) {
+                previousSums[i] = adjacent ? currentSums[i] : 0;
+                currentSums[i] = 0;
+            }
+            epochs[i] = epoch;
+        }
+    }
+}
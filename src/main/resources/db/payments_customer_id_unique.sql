@@ -0,0 +1,28 @@
+-- One-off migration adding the unique constraint that the customer payment upsert relies on.
+-- Earlier find-then-insert code could create several payment rows for the same customer under
+-- concurrency; their transactions are moved to the oldest payment before the duplicates are removed.
+-- Run once before deploying the upsert; schema auto-update cannot add the constraint while duplicates exist.
+
+BEGIN;
+
+CREATE TEMP TABLE payment_survivors ON COMMIT DROP AS
+SELECT DISTINCT ON (customer_id) customer_id, id AS survivor_id
+FROM payments
+WHERE customer_id IS NOT NULL
+ORDER BY customer_id, created_at, id;
+
+UPDATE transactions t
+SET payment_id = s.survivor_id
+FROM payments p
+JOIN payment_survivors s ON s.customer_id = p.customer_id
+WHERE t.payment_id = p.id
+  AND p.id <> s.survivor_id;
+
+DELETE FROM payments p
+USING payment_survivors s
+WHERE p.customer_id = s.customer_id
+  AND p.id <> s.survivor_id;
+
+ALTER TABLE payments ADD CONSTRAINT uk_payments_customer_id UNIQUE (customer_id);
+
+COMMIT;
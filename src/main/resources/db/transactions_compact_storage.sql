@@ -0,0 +1,80 @@
+-- One-off migration to the compact transactions layout:
+--   * status becomes a smallint code (1 PENDING, 2 PROCESSING, 3 COMPLETED, 4 FAILED; see TransferStatus);
+--   * currency becomes the smallint ISO 4217 numeric code (see CurrencyConverter), null for card payments;
+--   * account_number, routing_number and account_holder_name move to counterparty_accounts, referenced by
+--     counterparty_account_id (null for card payments).
+-- Run with the application stopped, after transactions_partitioning.sql if that is used; ALTER TABLE on the
+-- partitioned parent applies to every partition. Currencies outside the mapping below abort the migration;
+-- add them (alphabetic code, numeric code) and run it again. Archive files are not affected: the archiver
+-- still writes the readable values.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS counterparty_accounts (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    routing_number varchar(255) NOT NULL,
+    account_number varchar(255) NOT NULL,
+    account_holder_name varchar(255) NOT NULL,
+    CONSTRAINT uk_counterparty_accounts_account UNIQUE (routing_number, account_number, account_holder_name)
+);
+
+INSERT INTO counterparty_accounts (routing_number, account_number, account_holder_name)
+SELECT DISTINCT routing_number, account_number, account_holder_name
+FROM transactions
+WHERE routing_number IS NOT NULL AND account_number IS NOT NULL AND account_holder_name IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+CREATE TEMP TABLE currency_codes (alphabetic char(3) PRIMARY KEY, numeric smallint NOT NULL) ON COMMIT DROP;
+INSERT INTO currency_codes VALUES
+    ('AUD', 36), ('BRL', 986), ('CAD', 124), ('CHF', 756), ('CNY', 156), ('CZK', 203), ('DKK', 208),
+    ('EUR', 978), ('GBP', 826), ('HKD', 344), ('HUF', 348), ('ILS', 376), ('INR', 356), ('JPY', 392),
+    ('KRW', 410), ('MXN', 484), ('NOK', 578), ('NZD', 554), ('PHP', 608), ('PLN', 985), ('SEK', 752),
+    ('SGD', 702), ('THB', 764), ('TRY', 949), ('USD', 840), ('ZAR', 710);
+
+DO $$
+DECLARE
+    unmapped text;
+BEGIN
+    SELECT string_agg(DISTINCT t.currency, ', ') INTO unmapped
+      FROM transactions t
+     WHERE t.currency IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM currency_codes c WHERE c.alphabetic = upper(trim(t.currency)));
+    IF unmapped IS NOT NULL THEN
+        RAISE EXCEPTION 'No numeric code for currencies: %', unmapped;
+    END IF;
+    IF EXISTS (SELECT 1 FROM transactions WHERE upper(trim(status)) NOT IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED')) THEN
+        RAISE EXCEPTION 'transactions contains unknown statuses';
+    END IF;
+END $$;
+
+ALTER TABLE transactions
+    ADD COLUMN counterparty_account_id bigint,
+    ADD COLUMN status_code smallint,
+    ADD COLUMN currency_code smallint;
+
+-- One pass rewrites every row once
+UPDATE transactions t
+SET counterparty_account_id = (SELECT a.id FROM counterparty_accounts a
+                                WHERE a.routing_number = t.routing_number
+                                  AND a.account_number = t.account_number
+                                  AND a.account_holder_name = t.account_holder_name),
+    status_code = CASE upper(trim(t.status))
+                      WHEN 'PENDING' THEN 1 WHEN 'PROCESSING' THEN 2 WHEN 'COMPLETED' THEN 3 WHEN 'FAILED' THEN 4 END,
+    currency_code = (SELECT c.numeric FROM currency_codes c WHERE c.alphabetic = upper(trim(t.currency)));
+
+ALTER TABLE transactions
+    DROP COLUMN status,
+    DROP COLUMN currency,
+    DROP COLUMN account_number,
+    DROP COLUMN routing_number,
+    DROP COLUMN account_holder_name;
+ALTER TABLE transactions RENAME COLUMN status_code TO status;
+ALTER TABLE transactions RENAME COLUMN currency_code TO currency;
+ALTER TABLE transactions ALTER COLUMN status SET NOT NULL;
+
+COMMIT;
+
+-- Dropped columns keep their space until rows are rewritten. Reclaim it now (takes an exclusive lock), or let
+-- it be reused gradually by later writes:
+-- VACUUM (FULL, ANALYZE) transactions;
+-- VACUUM (FULL, ANALYZE) counterparty_accounts;
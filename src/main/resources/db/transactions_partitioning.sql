@@ -0,0 +1,50 @@
+-- One-off migration converting transactions into a table range-partitioned by month on created_at.
+-- Run with the application stopped. Afterwards:
+--   * set payment.partitioning.enabled=true so that upcoming months are created ahead of time;
+--   * set spring.jpa.hibernate.ddl-auto=validate (or none). Schema auto-update would try to add the
+--     global unique constraint on transaction_id, which a partitioned table cannot enforce because
+--     unique constraints must include the partition key.
+-- Uniqueness of transaction_id therefore rests on how ids are issued: time-ordered UUIDv7 ids from
+-- TimeOrderedIdGenerator, distinct per node by their node and sequence bits (random UUIDs before that).
+-- The (transaction_id, created_at) unique key below enforces what the database can, and is the lookup
+-- index: TransactionRepository bounds created_at by the creation time embedded in a UUIDv7 id, so a lookup
+-- by transfer id reads one or two partitions. Ids without an embedded time still probe every partition.
+-- Partitions are named transactions_pYYYYMM, the scheme TransactionPartitionManager expects.
+
+BEGIN;
+
+UPDATE transactions SET created_at = coalesce(updated_at, now()) WHERE created_at IS NULL;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+ALTER INDEX idx_transactions_payment_created RENAME TO idx_transactions_unpartitioned_payment_created;
+
+CREATE TABLE transactions (LIKE transactions_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+ALTER TABLE transactions ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, created_at);
+CREATE UNIQUE INDEX uk_transactions_transaction_id ON transactions (transaction_id, created_at);
+CREATE INDEX idx_transactions_payment_created ON transactions (payment_id, created_at, id);
+
+-- One partition per month from the oldest row up to three months ahead
+DO $$
+DECLARE
+    month_start date;
+    last_month date;
+BEGIN
+    SELECT date_trunc('month', coalesce(min(created_at), now()))::date,
+           (date_trunc('month', greatest(coalesce(max(created_at), now()), now())) + interval '3 months')::date
+      INTO month_start, last_month
+      FROM transactions_unpartitioned;
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+            'transactions_p' || to_char(month_start, 'YYYYMM'), month_start, (month_start + interval '1 month')::date);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO transactions SELECT * FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+COMMIT;
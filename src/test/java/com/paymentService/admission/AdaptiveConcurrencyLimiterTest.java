@@ -0,0 +1,93 @@
+package com.paymentService.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void admitsUpToTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2, Long.MAX_VALUE);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(2, limiter.getInFlight());
+		limiter.release(FAST);
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void growsWhileLatencyHoldsAndTrafficReachesTheLimit() {
+		// A zero window adjusts the limit on every release
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.5, 1.0, 0);
+
+		saturate(limiter, FAST);
+		int grown = limiter.getLimit();
+		assertTrue(grown > 10, "limit " + grown);
+		saturate(limiter, FAST);
+		assertTrue(limiter.getLimit() > grown, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void doesNotGrowOnTrafficFarBelowTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.5, 1.0, 0);
+
+		for (int i = 0; i < 50; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(FAST);
+		}
+		assertEquals(10, limiter.getLimit());
+	}
+
+	@Test
+	void shrinksWhenLatencyRisesButNotBelowTheMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, 1.5, 1.0, 0);
+		for (int i = 0; i < 20; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(FAST);
+		}
+		assertEquals(20, limiter.getLimit());
+
+		assertTrue(limiter.tryAcquire());
+		limiter.release(SLOW);
+		int shrunk = limiter.getLimit();
+		assertTrue(shrunk < 20 && shrunk >= 10, "limit " + shrunk);
+		for (int i = 0; i < 50; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(SLOW);
+		}
+		assertEquals(5, limiter.getLimit());
+	}
+
+	@Test
+	void neverExceedsTheMaximum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 12, 1.5, 1.0, 0);
+
+		for (int i = 0; i < 5; i++) {
+			saturate(limiter, FAST);
+		}
+		assertEquals(12, limiter.getLimit());
+	}
+
+	/**
+	 * Takes every permit the limit allows, then returns them all with the given latency
+	 */
+	private static void saturate(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+		int acquired = 0;
+		while (limiter.tryAcquire()) {
+			acquired++;
+		}
+		for (int i = 0; i < acquired; i++) {
+			limiter.release(latencyNanos);
+		}
+	}
+}
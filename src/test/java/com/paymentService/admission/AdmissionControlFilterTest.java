@@ -0,0 +1,67 @@
+package com.paymentService.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControlFilterTest {
+
+	private SimpleMeterRegistry registry;
+	private AdmissionControlFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		filter = new AdmissionControlFilter(registry, true, "/api/payment/", 1, 1, 1, 1.5, 0.2, 100, 1_000, 1_000, 1_000);
+	}
+
+	@Test
+	void synchronousRequestReleasesItsPermitWhenTheChainReturns() throws Exception {
+		MockHttpServletRequest request = request();
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertEquals(0, inFlight());
+	}
+
+	@Test
+	void asyncRequestHoldsItsPermitUntilTheResponseCompletes() throws Exception {
+		MockHttpServletRequest request = request();
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+				req.startAsync();
+			}
+		}));
+		assertEquals(1, inFlight());
+
+		// The only permit is still taken by the streaming response
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(request(), rejected, new MockFilterChain());
+		assertEquals(429, rejected.getStatus());
+
+		request.getAsyncContext().complete();
+		assertEquals(0, inFlight());
+		MockHttpServletResponse admitted = new MockHttpServletResponse();
+		filter.doFilter(request(), admitted, new MockFilterChain());
+		assertEquals(200, admitted.getStatus());
+		assertEquals(0, inFlight());
+	}
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payment/customer/1/payments/stream");
+		request.setAsyncSupported(true);
+		return request;
+	}
+
+	private double inFlight() {
+		return registry.get("payment.admission.in_flight").gauge().value();
+	}
+}
@@ -0,0 +1,45 @@
+package com.paymentService.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTest {
+
+	@Test
+	void idleClientMayUseItsWholeBurstThenWaitsForTheNextToken() {
+		ClientRateLimiter limiter = new ClientRateLimiter(1, 3, 100);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("client"));
+		}
+		long wait = limiter.tryAcquire("client");
+		assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "wait " + wait);
+		// A rejected request takes no token, so the wait only shrinks
+		assertTrue(limiter.tryAcquire("client") <= wait);
+	}
+
+	@Test
+	void clientsHaveSeparateBuckets() {
+		ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100);
+
+		assertEquals(0, limiter.tryAcquire("a"));
+		assertTrue(limiter.tryAcquire("a") > 0);
+		assertEquals(0, limiter.tryAcquire("b"));
+	}
+
+	@Test
+	void tokenIsAvailableAfterTheReportedWait() throws InterruptedException {
+		ClientRateLimiter limiter = new ClientRateLimiter(100, 2, 100);
+		assertEquals(0, limiter.tryAcquire("client"));
+		assertEquals(0, limiter.tryAcquire("client"));
+
+		long wait = limiter.tryAcquire("client");
+		assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(10), "wait " + wait);
+		TimeUnit.NANOSECONDS.sleep(wait);
+		assertEquals(0, limiter.tryAcquire("client"));
+	}
+}
@@ -0,0 +1,103 @@
+package com.paymentService.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoutingDataSourceTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+	private RecentWriteTracker recentWriteTracker;
+	private HistoryReader historyReader;
+
+	@BeforeEach
+	void setUp() {
+		DataSource routing = RoutingDataSource.lazy(database("primary"), database("replica"));
+		jdbcTemplate = new JdbcTemplate(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		recentWriteTracker = new RecentWriteTracker(60_000, 100);
+		ProxyFactory proxyFactory = new ProxyFactory(new HistoryReader(jdbcTemplate, readOnly));
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvisor(new DefaultPointcutAdvisor(DataSourceRouteInterceptor.pointcut(),
+			new DataSourceRouteInterceptor(recentWriteTracker)));
+		historyReader = (HistoryReader) proxyFactory.getProxy();
+	}
+
+	@Test
+	void routesByTransactionReadOnlyFlag() {
+		assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+		assertEquals("primary", readWrite.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class)));
+		assertEquals("replica", readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class)));
+	}
+
+	@Test
+	void annotatedMethodsOverrideDefaultRouting() {
+		UUID customerId = UUID.randomUUID();
+		assertEquals("replica", historyReader.history(customerId));
+		assertEquals("primary", historyReader.transferStatus());
+		assertEquals("replica", historyReader.history(customerId));
+	}
+
+	@Test
+	void recentWriteRoutesReadsToPrimary() {
+		UUID customerId = UUID.randomUUID();
+		readWrite.executeWithoutResult(status -> recentWriteTracker.recordWrite(customerId));
+
+		assertEquals("primary", historyReader.history(customerId));
+		assertEquals("replica", historyReader.history(UUID.randomUUID()));
+	}
+
+	@Test
+	void readWriteTransactionIsNotRedirected() {
+		assertEquals("primary", readWrite.execute(status -> historyReader.history(UUID.randomUUID())));
+	}
+
+	private static DataSource database(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+		jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+
+	static class HistoryReader {
+		private final JdbcTemplate jdbcTemplate;
+		private final TransactionTemplate readOnly;
+
+		HistoryReader() {
+			this(null, null);
+		}
+
+		HistoryReader(JdbcTemplate jdbcTemplate, TransactionTemplate readOnly) {
+			this.jdbcTemplate = jdbcTemplate;
+			this.readOnly = readOnly;
+		}
+
+		@DataSourceRoute(DataSourceRole.REPLICA)
+		public String history(@ConsistencyKey UUID customerId) {
+			return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+		}
+
+		@DataSourceRoute(DataSourceRole.PRIMARY)
+		public String transferStatus() {
+			return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.paymentService.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedIdGeneratorTest {
+
+	@Test
+	void idsAreVersion7WithTheClockInTheFirst48Bits() {
+		long millis = 1_790_000_000_000L;
+		UUID id = new TimeOrderedIdGenerator(5, () -> millis).nextId();
+		assertEquals(7, id.version());
+		assertEquals(2, id.variant());
+		assertEquals(millis, id.getMostSignificantBits() >>> 16);
+		assertEquals(5, (id.getLeastSignificantBits() >>> 46) & 0x3FF);
+	}
+
+	@Test
+	void idsIncreaseWithinAMillisecondAndAsStrings() {
+		TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, () -> 1_790_000_000_000L);
+		UUID previous = generator.nextId();
+		for (int i = 0; i < 10_000; i++) {
+			UUID next = generator.nextId();
+			assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0
+				|| next.getMostSignificantBits() == previous.getMostSignificantBits()
+				&& Long.compareUnsigned(next.getLeastSignificantBits(), previous.getLeastSignificantBits()) > 0);
+			assertTrue(next.toString().compareTo(previous.toString()) > 0);
+			previous = next;
+		}
+	}
+
+	@Test
+	void idsKeepIncreasingWhenTheClockMovesBackwards() {
+		AtomicLong clock = new AtomicLong(1_790_000_000_000L);
+		TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock::get);
+		String before = generator.nextId().toString();
+		clock.addAndGet(-5_000);
+		String after = generator.nextId().toString();
+		assertTrue(after.compareTo(before) > 0);
+	}
+
+	@Test
+	void exhaustedSequenceCarriesIntoTheNextMillisecond() {
+		long millis = 1_790_000_000_000L;
+		TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, () -> millis);
+		UUID id = null;
+		for (int i = 0; i <= 1 << TimeOrderedIdGenerator.SEQUENCE_BITS; i++) {
+			id = generator.nextId();
+		}
+		assertEquals(millis + 1, id.getMostSignificantBits() >>> 16);
+	}
+
+	@Test
+	void nodeIdMustFitInTenBits() {
+		assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(1024));
+		assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1));
+	}
+
+	@Test
+	void embeddedTimestampIsReadBackOnlyFromVersion7Ids() {
+		long millis = 1_790_000_000_000L;
+		UUID id = new TimeOrderedIdGenerator(3, () -> millis).nextId();
+		assertEquals(millis, TimeOrderedIdGenerator.timestampMillis(id.toString()));
+		assertEquals(-1, TimeOrderedIdGenerator.timestampMillis(UUID.randomUUID().toString()));
+		assertEquals(-1, TimeOrderedIdGenerator.timestampMillis("not-a-uuid"));
+		assertEquals(-1, TimeOrderedIdGenerator.timestampMillis(null));
+	}
+}
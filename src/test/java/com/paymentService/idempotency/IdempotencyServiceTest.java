@@ -0,0 +1,132 @@
+package com.paymentService.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentService.exception.IdempotencyConflictException;
+import com.paymentService.model.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+	private static final Map<String, String> REQUEST = Map.of("amount", "10.00");
+
+	private IdempotencyRecordRepository repository;
+	private IdempotencyService service;
+	private final Set<String> claimed = new HashSet<>();
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(IdempotencyRecordRepository.class);
+		when(repository.claim(anyString(), anyString(), any(), any()))
+			.thenAnswer(invocation -> claimed.add(invocation.getArgument(0)) ? 1 : 0);
+		when(repository.release(anyString()))
+			.thenAnswer(invocation -> claimed.remove(invocation.<String>getArgument(0)) ? 1 : 0);
+		when(repository.findById(anyString())).thenReturn(Optional.empty());
+		service = new IdempotencyService(repository, new ObjectMapper(), 24, 1_000, 600, 1_000, 120);
+	}
+
+	@Test
+	void retryReplaysTheFirstResponseWithoutExecutingAgain() {
+		ResponseEntity<String> first = service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t1"));
+		ResponseEntity<String> retry = service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t2"));
+
+		assertEquals(1, executions.get());
+		assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+		assertEquals(first.getBody(), retry.getBody());
+		assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+		assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+	}
+
+	@Test
+	void sameKeyFromAnotherClientExecutesSeparately() {
+		ResponseEntity<String> alice = service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t1"));
+		ResponseEntity<String> bob = service.execute("transfer", "bob", "key-1", REQUEST, String.class, created("t2"));
+
+		assertEquals(2, executions.get());
+		assertNotEquals(alice.getBody(), bob.getBody());
+		assertEquals(2, claimed.size());
+		// The subject is hashed into the record id rather than stored as given
+		claimed.forEach(id -> assertEquals(-1, id.indexOf("alice")));
+	}
+
+	@Test
+	void sameKeyForAnotherEndpointExecutesSeparately() {
+		service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t1"));
+		service.execute("payment", "alice", "key-1", REQUEST, String.class, created("t2"));
+
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	void keyReusedForADifferentRequestIsAConflict() {
+		service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t1"));
+
+		assertThrows(IdempotencyConflictException.class, () -> service.execute("transfer", "alice", "key-1",
+			Map.of("amount", "99.00"), String.class, created("t2")));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void serverErrorIsNotRecordedSoTheRetryExecutesAgain() {
+		ResponseEntity<String> failed = service.execute("transfer", "alice", "key-1", REQUEST, String.class, () -> {
+			executions.incrementAndGet();
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		});
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, failed.getStatusCode());
+
+		ResponseEntity<String> retry = service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t2"));
+
+		assertEquals(2, executions.get());
+		assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+	}
+
+	@Test
+	void failedActionReleasesTheKey() {
+		assertThrows(IllegalArgumentException.class, () -> service.execute("transfer", "alice", "key-1", REQUEST,
+			String.class, () -> {
+				throw new IllegalArgumentException("Invalid routing number");
+			}));
+
+		service.execute("transfer", "alice", "key-1", REQUEST, String.class, created("t1"));
+		assertEquals(1, executions.get());
+		verify(repository).complete(anyString(), anyInt(), anyString(), any());
+	}
+
+	@Test
+	void requestWithoutKeyAlwaysExecutes() {
+		service.execute("transfer", "alice", null, REQUEST, String.class, created("t1"));
+		service.execute("transfer", "alice", null, REQUEST, String.class, created("t2"));
+
+		assertEquals(2, executions.get());
+		verify(repository, never()).claim(anyString(), anyString(), any(), any());
+	}
+
+	private Supplier<ResponseEntity<String>> created(String transferId) {
+		return () -> {
+			executions.incrementAndGet();
+			return ResponseEntity.status(HttpStatus.CREATED).body(transferId);
+		};
+	}
+}
@@ -0,0 +1,169 @@
+package com.paymentService.ingestion;
+
+import com.paymentService.dto.request.BankTransferRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferRecordReaderTest {
+
+	@Test
+	void fixedWidthRecordIsReadFromItsColumns() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.FIXED_WIDTH,
+			fixed("021000021", "123456789", "000000012345", "eur", "Jane Doe", "Invoice 42") + "\n");
+
+		assertEquals(1, records.size());
+		assertNull(records.get(0).getError());
+		BankTransferRequest request = records.get(0).getRequest();
+		assertEquals("021000021", request.getRoutingNumber());
+		assertEquals("123456789", request.getAccountNumber());
+		assertEquals(new BigDecimal("123.45"), request.getAmount());
+		assertEquals("EUR", request.getCurrency());
+		assertEquals("Jane Doe", request.getAccountHolderName());
+		assertEquals("Invoice 42", request.getDescription());
+	}
+
+	@Test
+	void fixedWidthDescriptionAndCurrencyAreOptional() throws IOException {
+		String record = fixed("021000021", "123456789", "000000000001", "", "Jane Doe", null);
+		assertEquals(63, record.length());
+
+		BankTransferRequest request = read(TransferFileFormat.FIXED_WIDTH, record).get(0).getRequest();
+
+		assertEquals(new BigDecimal("0.01"), request.getAmount());
+		assertEquals(TransferRecordReader.DEFAULT_CURRENCY, request.getCurrency());
+		assertNull(request.getDescription());
+	}
+
+	@Test
+	void fixedWidthRecordsOfTheWrongLengthAreRejectedWithTheirLine() throws IOException {
+		String valid = fixed("021000021", "123456789", "000000012345", "USD", "Jane Doe", null);
+		List<TransferRecord> records = read(TransferFileFormat.FIXED_WIDTH,
+			valid.substring(0, 62) + "\n\n" + valid + "x".repeat(81) + "\n" + valid + "x".repeat(80) + "\n");
+
+		assertEquals(3, records.size());
+		assertEquals(1, records.get(0).getLine());
+		assertEquals("Record must be 63 to 143 characters long", records.get(0).getError());
+		// The blank line is skipped but still counted
+		assertEquals(3, records.get(1).getLine());
+		assertEquals("Record must be 63 to 143 characters long", records.get(1).getError());
+		assertEquals(4, records.get(2).getLine());
+		assertNull(records.get(2).getError());
+	}
+
+	@Test
+	void fixedWidthAmountMustBeZeroPaddedCents() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.FIXED_WIDTH,
+			fixed("021000021", "123456789", "      012345", "USD", "Jane Doe", null) + "\n"
+				+ fixed("021000021", "123456789", "0000000123.4", "USD", "Jane Doe", null));
+
+		assertEquals("Amount is not a zero-padded number of cents", records.get(0).getError());
+		assertEquals("Amount is not a zero-padded number of cents", records.get(1).getError());
+	}
+
+	@Test
+	void csvColumnsAreFoundByHeaderNameInAnyOrder() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.CSV,
+			"Amount,description,account_holder_name,ROUTING_NUMBER,account_number,currency\n"
+				+ " 125.50 ,Rent,Jane Doe,021000021,123456789,gbp\n");
+
+		assertEquals(1, records.size());
+		assertEquals(2, records.get(0).getLine());
+		BankTransferRequest request = records.get(0).getRequest();
+		assertEquals(new BigDecimal("125.50"), request.getAmount());
+		assertEquals("Rent", request.getDescription());
+		assertEquals("Jane Doe", request.getAccountHolderName());
+		assertEquals("021000021", request.getRoutingNumber());
+		assertEquals("123456789", request.getAccountNumber());
+		assertEquals("GBP", request.getCurrency());
+	}
+
+	@Test
+	void csvCurrencyAndDescriptionAreOptional() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.CSV,
+			"account_number,routing_number,account_holder_name,amount,currency,description\n"
+				+ "123456789,021000021,Jane Doe,10,,\n");
+		BankTransferRequest request = records.get(0).getRequest();
+		assertEquals(TransferRecordReader.DEFAULT_CURRENCY, request.getCurrency());
+		assertNull(request.getDescription());
+
+		request = read(TransferFileFormat.CSV, "account_number,routing_number,account_holder_name,amount\n"
+			+ "123456789,021000021,Jane Doe,10\n").get(0).getRequest();
+		assertEquals(TransferRecordReader.DEFAULT_CURRENCY, request.getCurrency());
+		assertNull(request.getDescription());
+	}
+
+	@Test
+	void csvWithoutARequiredColumnIsRefused() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> read(TransferFileFormat.CSV,
+			"account_number,account_holder_name,amount\n123456789,Jane Doe,10\n"));
+		assertEquals("Transfer file has no routing_number column", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> read(TransferFileFormat.CSV, ""));
+	}
+
+	@Test
+	void csvAmountMustBeANumberWithAtMostTwoDecimals() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.CSV,
+			"account_number,routing_number,account_holder_name,amount\n"
+				+ "123456789,021000021,Jane Doe,ten\n"
+				+ "123456789,021000021,Jane Doe,\n"
+				+ "123456789,021000021,Jane Doe,1.005\n"
+				+ "123456789,021000021,Jane Doe,1.500\n");
+
+		assertEquals("Amount is not a number", records.get(0).getError());
+		assertEquals("Amount is not a number", records.get(1).getError());
+		assertEquals("Amount has more than two decimal places", records.get(2).getError());
+		// Trailing zeros do not count as decimals
+		assertEquals(new BigDecimal("1.500"), records.get(3).getRequest().getAmount());
+	}
+
+	@Test
+	void csvRecordWithTheWrongNumberOfFieldsIsRejected() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.CSV,
+			"account_number,routing_number,account_holder_name,amount\n123456789,021000021,10\n");
+
+		assertEquals("Expected 4 fields but found 3", records.get(0).getError());
+	}
+
+	@Test
+	void csvRejectsReportThePhysicalLineTheRecordStartsOn() throws IOException {
+		List<TransferRecord> records = read(TransferFileFormat.CSV,
+			"account_number,routing_number,account_holder_name,amount,description\n"
+				+ "123456789,021000021,Jane Doe,10,\"first line\nsecond line\nthird line\"\n"
+				+ "\n"
+				+ "123456789,021000021,Jane Doe,ten,\n");
+
+		assertEquals(2, records.size());
+		assertEquals(2, records.get(0).getLine());
+		assertEquals("first line\nsecond line\nthird line", records.get(0).getRequest().getDescription());
+		assertEquals(6, records.get(1).getLine());
+		assertEquals("Amount is not a number", records.get(1).getError());
+	}
+
+	private static List<TransferRecord> read(TransferFileFormat format, String content) throws IOException {
+		TransferRecordReader reader = TransferRecordReader.open(format, new BufferedReader(new StringReader(content)));
+		List<TransferRecord> records = new ArrayList<>();
+		TransferRecord record;
+		while ((record = reader.next()) != null) {
+			records.add(record);
+		}
+		return records;
+	}
+
+	/**
+	 * Lays out a fixed-width record: routing 0-9, account 9-26, cents 26-38, currency 38-41, holder 41-63, description 63+
+	 */
+	private static String fixed(String routing, String account, String cents, String currency, String holder, String description) {
+		return String.format("%-9s%-17s%12s%-3s%-22s", routing, account, cents, currency, holder)
+			+ (description == null ? "" : description);
+	}
+}
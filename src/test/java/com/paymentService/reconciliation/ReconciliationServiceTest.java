@@ -0,0 +1,209 @@
+package com.paymentService.reconciliation;
+
+import com.paymentService.csv.CsvReader;
+import com.paymentService.dto.response.ReconciliationJobResponse;
+import com.paymentService.model.Transaction;
+import com.paymentService.model.TransferStatus;
+import com.paymentService.service.implementations.TransferStateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReconciliationServiceTest {
+
+	private static final LocalDate BUSINESS_DATE = LocalDate.of(2026, 3, 2);
+	private static final String SETTLEMENT_HEADER = "transaction_id,amount,status\n";
+
+	@TempDir
+	Path directory;
+
+	private TransferStateMachine transferStateMachine;
+	/** Ledger rows as the spill holds them: transaction id, amount, status, payment id, created at */
+	private final List<String[]> ledger = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		transferStateMachine = mock(TransferStateMachine.class);
+		when(transferStateMachine.transitionAll(anyList(), eq(TransferStatus.COMPLETED)))
+			.thenAnswer(invocation -> new ArrayList<>(invocation.<List<Transaction>>getArgument(0)));
+	}
+
+	@Test
+	void everyKindOfDifferenceIsClassifiedAndReportedOnce() throws IOException {
+		ledger("t-match", "10.00", "COMPLETED");
+		ledger("t-amount", "10.00", "COMPLETED");
+		ledger("t-status", "5.00", "PROCESSING");
+		ledger("t-unknown-status", "5.00", "COMPLETED");
+		ledger("t-duplicate", "7.50", "FAILED");
+		ledger("t-no-settlement", "3.00", "COMPLETED");
+		ReconciliationService service = service(4);
+
+		ReconciliationJobResponse job = service.submit(settlement(
+			"t-match,10.0,SETTLED",
+			"t-amount,12.00,settled",
+			"t-status,5.00,RETURNED",
+			"t-unknown-status,5.00,BOUNCED",
+			"t-duplicate,7.50,REJECTED",
+			"t-duplicate,7.50,REJECTED",
+			"t-no-ledger,1.00,SETTLED"), BUSINESS_DATE, false);
+
+		ReconciliationJobResponse result = service.getJob(job.getJobId());
+		assertEquals("COMPLETED", result.getStatus(), result.getError());
+		assertEquals(7, result.getSettlementRows());
+		assertEquals(6, result.getLedgerRows());
+		assertEquals(2, result.getMatched());
+		assertEquals(Map.of("MISSING_IN_LEDGER", 1L, "MISSING_IN_SETTLEMENT", 1L, "AMOUNT_MISMATCH", 1L,
+			"STATUS_MISMATCH", 2L, "DUPLICATE_IN_SETTLEMENT", 1L), result.getMismatches());
+
+		List<List<String>> report = report(service, job.getJobId());
+		assertEquals(List.of("transaction_id", "mismatch", "ledger_amount", "settlement_amount", "ledger_status",
+			"settlement_status", "corrected"), report.get(0));
+		Map<String, List<String>> rows = report.subList(1, report.size()).stream()
+			.collect(Collectors.toMap(row -> row.get(0) + "/" + row.get(1), row -> row));
+		assertEquals(6, rows.size());
+		assertEquals(List.of("t-amount", "AMOUNT_MISMATCH", "10.00", "12.00", "COMPLETED", "settled", "false"),
+			rows.get("t-amount/AMOUNT_MISMATCH"));
+		assertEquals(List.of("t-status", "STATUS_MISMATCH", "5.00", "5.00", "PROCESSING", "RETURNED", "false"),
+			rows.get("t-status/STATUS_MISMATCH"));
+		assertNotNull(rows.get("t-unknown-status/STATUS_MISMATCH"));
+		assertEquals(Arrays.asList("t-duplicate", "DUPLICATE_IN_SETTLEMENT", null, "7.50", null, "REJECTED", "false"),
+			rows.get("t-duplicate/DUPLICATE_IN_SETTLEMENT"));
+		assertEquals(Arrays.asList("t-no-settlement", "MISSING_IN_SETTLEMENT", "3.00", null, "COMPLETED", null, "false"),
+			rows.get("t-no-settlement/MISSING_IN_SETTLEMENT"));
+		assertEquals(Arrays.asList("t-no-ledger", "MISSING_IN_LEDGER", null, "1.00", null, "SETTLED", "false"),
+			rows.get("t-no-ledger/MISSING_IN_LEDGER"));
+		verify(transferStateMachine, never()).transitionAll(anyList(), eq(TransferStatus.COMPLETED));
+	}
+
+	@Test
+	void allowedStatusDifferencesAreCorrectedInBatches() throws IOException {
+		ledger("t1", "1.00", "PROCESSING");
+		ledger("t2", "2.00", "PENDING");
+		ledger("t3", "3.00", "PROCESSING");
+		// Not corrected: the amounts differ, and a failed transfer cannot complete
+		ledger("t4", "4.00", "PROCESSING");
+		ledger("t5", "5.00", "FAILED");
+		ReconciliationService service = service(1);
+
+		ReconciliationJobResponse job = service.submit(settlement(
+			"t1,1.00,SETTLED", "t2,2.00,SETTLED", "t3,3.00,SETTLED", "t4,4.01,SETTLED", "t5,5.00,SETTLED"),
+			BUSINESS_DATE, true);
+
+		ReconciliationJobResponse result = service.getJob(job.getJobId());
+		assertEquals("COMPLETED", result.getStatus(), result.getError());
+		assertEquals(3, result.getCorrected());
+		assertEquals(5, result.getMismatches().get("STATUS_MISMATCH"));
+		// Batch size 2: one full batch during the pass and the remainder at the end
+		verify(transferStateMachine, times(2)).transitionAll(anyList(), eq(TransferStatus.COMPLETED));
+
+		Map<String, List<String>> statusRows = report(service, job.getJobId()).stream()
+			.filter(row -> "STATUS_MISMATCH".equals(row.get(1)))
+			.collect(Collectors.toMap(row -> row.get(0), row -> row));
+		assertEquals(List.of("t1", "STATUS_MISMATCH", "1.00", "1.00", "PROCESSING", "COMPLETED", "true"), statusRows.get("t1"));
+		assertEquals(List.of("t2", "STATUS_MISMATCH", "2.00", "2.00", "PENDING", "COMPLETED", "true"), statusRows.get("t2"));
+		assertEquals("true", statusRows.get("t3").get(6));
+		assertEquals("false", statusRows.get("t4").get(6));
+		assertEquals("false", statusRows.get("t5").get(6));
+	}
+
+	@Test
+	void malformedSettlementFailsTheJobAndHasNoReport() throws IOException {
+		ReconciliationService service = service(4);
+
+		ReconciliationJobResponse job = service.submit(new ByteArrayInputStream(
+			"transaction_id,status\nt1,SETTLED\n".getBytes(StandardCharsets.UTF_8)), BUSINESS_DATE, false);
+
+		ReconciliationJobResponse result = service.getJob(job.getJobId());
+		assertEquals("FAILED", result.getStatus());
+		assertEquals("Settlement file has no amount column", result.getError());
+		assertNull(service.getReport(job.getJobId()));
+	}
+
+	@Test
+	void partitionFilesAreRemovedOnceTheReportIsMerged() throws IOException {
+		ledger("t1", "1.00", "COMPLETED");
+		ReconciliationService service = service(4);
+
+		ReconciliationJobResponse job = service.submit(settlement("t1,1.00,SETTLED"), BUSINESS_DATE, false);
+
+		try (var files = Files.list(directory.resolve(job.getJobId()))) {
+			assertEquals(List.of("report.csv", "settlement.csv"),
+				files.map(path -> path.getFileName().toString()).sorted().toList());
+		}
+		assertFalse(report(service, job.getJobId()).isEmpty());
+	}
+
+	/**
+	 * A service that runs jobs on the calling thread and reads the ledger from {@link #ledger} instead of the database
+	 */
+	private ReconciliationService service(int partitions) {
+		return new ReconciliationService(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+			transferStateMachine, Runnable::run, Runnable::run, directory.toString(), partitions, 100, 2, 10) {
+			@Override
+			void spillLedger(ReconciliationJob job, SpillFiles spill) {
+				for (String[] row : ledger) {
+					try {
+						spill.write(row);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					job.ledgerRows.increment();
+				}
+			}
+		};
+	}
+
+	private void ledger(String transactionId, String amount, String status) {
+		ledger.add(new String[]{transactionId, amount, status, UUID.randomUUID().toString(),
+			BUSINESS_DATE.atTime(12, 0).toString()});
+	}
+
+	private static ByteArrayInputStream settlement(String... rows) {
+		return new ByteArrayInputStream((SETTLEMENT_HEADER + String.join("\n", rows) + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<List<String>> report(ReconciliationService service, String jobId) throws IOException {
+		Path report = service.getReport(jobId);
+		assertNotNull(report);
+		List<List<String>> records = new ArrayList<>();
+		try (Reader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8)) {
+			CsvReader csv = new CsvReader(reader);
+			List<String> record;
+			while ((record = csv.readRecord()) != null) {
+				if (record.size() > 1) {
+					records.add(record);
+				}
+			}
+		}
+		return records;
+	}
+}
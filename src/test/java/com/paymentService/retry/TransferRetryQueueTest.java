@@ -0,0 +1,131 @@
+package com.paymentService.retry;
+
+import com.paymentService.exception.BankGatewayException;
+import com.paymentService.model.TransferRetry;
+import com.paymentService.model.repository.TransferRetryRepository;
+import com.paymentService.service.implementations.BankTransferProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransferRetryQueueTest {
+
+	private static final long LEASE_MS = 60_000;
+
+	private JdbcTemplate jdbcTemplate;
+	private TransferRetryRepository repository;
+	private TransferRetryQueue queue;
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE transfer_retries (transfer_id VARCHAR(64) PRIMARY KEY, attempts INT NOT NULL, "
+			+ "next_attempt_at TIMESTAMP(6) NOT NULL, enqueued_at TIMESTAMP(6) NOT NULL, last_error VARCHAR(500))");
+		repository = mock(TransferRetryRepository.class);
+		queue = new TransferRetryQueue(repository, jdbcTemplate, new SimpleMeterRegistry(), 8, 1_000, 300_000, LEASE_MS);
+	}
+
+	@Test
+	void renewExtendsTheLeaseWhileItIsHeld() {
+		TransferRetry retry = claimed("t1", 2, LocalDateTime.now().plusSeconds(5));
+
+		assertTrue(queue.renew(retry));
+		assertTrue(retry.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+		assertEquals(retry.getNextAttemptAt(), nextAttemptAt("t1"));
+		// The renewed lease is the one to match next time
+		assertTrue(queue.renew(retry));
+	}
+
+	@Test
+	void expiredLeaseClaimedByAnotherInstanceIsNotRenewedOrRescheduled() {
+		TransferRetry retry = claimed("t1", 2, LocalDateTime.now().minusSeconds(1));
+		// Another instance claims the retry once the lease has run out
+		LocalDateTime theirLease = LocalDateTime.now().plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+		jdbcTemplate.update("UPDATE transfer_retries SET attempts = attempts + 1, next_attempt_at = ? WHERE transfer_id = ?",
+			Timestamp.valueOf(theirLease), "t1");
+
+		assertFalse(queue.renew(retry));
+		queue.reschedule(List.of(retry), "still down", null);
+		assertEquals(theirLease, nextAttemptAt("t1"));
+		assertEquals(3, jdbcTemplate.queryForObject("SELECT attempts FROM transfer_retries WHERE transfer_id = 't1'", Integer.class));
+	}
+
+	@Test
+	void workerLeavesRetriesWhoseLeaseWasLost() {
+		TransferRetry held = claimed("held", 1, LocalDateTime.now().plusSeconds(30));
+		TransferRetry lost = claimed("lost", 1, LocalDateTime.now().minusSeconds(1));
+		jdbcTemplate.update("UPDATE transfer_retries SET attempts = 2 WHERE transfer_id = 'lost'");
+		when(repository.claimDue(any(), any(), eq(10)))
+			.thenReturn(List.of(held, lost));
+		BankTransferProcessor processor = mock(BankTransferProcessor.class);
+		when(processor.resubmit(anyList(), anyBoolean())).thenReturn(Map.of());
+
+		new TransferRetryWorker(queue, processor, 10, false).poll();
+
+		verify(processor).resubmit(List.of("held"), false);
+		verify(processor, never()).resubmit(List.of("lost"), false);
+		verify(repository).deleteAllByIdInBatch(List.of("held"));
+		verify(repository, never()).deleteAllByIdInBatch(List.of("lost"));
+	}
+
+	@Test
+	void throttledCallDefersTheRestOfThePassByRetryAfter() {
+		TransferRetry first = claimed("first", 1, LocalDateTime.now().plusSeconds(30));
+		TransferRetry second = claimed("second", 1, LocalDateTime.now().plusSeconds(30));
+		when(repository.claimDue(any(), any(), eq(10)))
+			.thenReturn(List.of(first, second));
+		BankTransferProcessor processor = mock(BankTransferProcessor.class);
+		BankGatewayException throttled = new BankGatewayException(BankGatewayException.Reason.THROTTLED,
+			"External bank returned 429", null, Duration.ofMinutes(10));
+		when(processor.resubmit(List.of("first"), false)).thenReturn(Map.of("first", throttled));
+
+		new TransferRetryWorker(queue, processor, 10, false).poll();
+
+		verify(processor, never()).resubmit(List.of("second"), false);
+		assertTrue(nextAttemptAt("first").isAfter(LocalDateTime.now().plusMinutes(9)));
+		assertTrue(nextAttemptAt("second").isAfter(LocalDateTime.now().plusMinutes(9)));
+	}
+
+	/**
+	 * Inserts a retry as a claim would have left it and returns it as the claim would have
+	 */
+	private TransferRetry claimed(String transferId, int attempts, LocalDateTime leaseUntil) {
+		LocalDateTime lease = leaseUntil.truncatedTo(ChronoUnit.MICROS);
+		jdbcTemplate.update("INSERT INTO transfer_retries VALUES (?, ?, ?, ?, NULL)", transferId, attempts,
+			Timestamp.valueOf(lease), Timestamp.valueOf(LocalDateTime.now()));
+		TransferRetry retry = new TransferRetry();
+		retry.setTransferId(transferId);
+		retry.setAttempts(attempts);
+		retry.setNextAttemptAt(lease);
+		return retry;
+	}
+
+	private LocalDateTime nextAttemptAt(String transferId) {
+		return jdbcTemplate.queryForObject("SELECT next_attempt_at FROM transfer_retries WHERE transfer_id = ?",
+			Timestamp.class, transferId).toLocalDateTime();
+	}
+}
@@ -0,0 +1,86 @@
+package com.paymentService.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingNumberDirectoryTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void parsesRoutingNumbersAndVerifiesTheCheckDigit() {
+		assertEquals(21000021, AbaRoutingNumber.parse("021000021"));
+		assertEquals(11000015, AbaRoutingNumber.parse("011000015"));
+		assertEquals(AbaRoutingNumber.BAD_CHECKSUM, AbaRoutingNumber.parse("021000022"));
+		assertEquals(AbaRoutingNumber.MALFORMED, AbaRoutingNumber.parse("02100002X"));
+		assertEquals(AbaRoutingNumber.MALFORMED, AbaRoutingNumber.parse("02100002"));
+		assertEquals(AbaRoutingNumber.MALFORMED, AbaRoutingNumber.parse(null));
+	}
+
+	@Test
+	void readsFedAchRecordsAndSkipsInvalidLines() throws Exception {
+		Path file = directory.resolve("FedACHdir.txt");
+		Files.write(file, List.of(
+			"011000015O0110000151020802000000000FEDERAL RESERVE BANK",
+			"021000021O0110000151072811000000000JPMORGAN CHASE BANK, NA",
+			"021000022O0110000151072811000000000BAD CHECK DIGIT",
+			"",
+			"021000021"));
+
+		RoutingNumberDirectory routingNumberDirectory = new RoutingNumberDirectory(file.toString());
+
+		assertEquals(2, routingNumberDirectory.size());
+		assertTrue(routingNumberDirectory.contains(11000015));
+		assertTrue(routingNumberDirectory.contains(21000021));
+		assertFalse(routingNumberDirectory.contains(21000022));
+	}
+
+	@Test
+	void reloadReplacesTheDirectoryOnlyWhenTheFileChanged() throws Exception {
+		Path file = directory.resolve("routing.txt");
+		Files.write(file, List.of("021000021"));
+		RoutingNumberDirectory routingNumberDirectory = new RoutingNumberDirectory(file.toString());
+		assertFalse(routingNumberDirectory.reload());
+
+		Path next = directory.resolve("routing.next");
+		Files.write(next, List.of("011000015"));
+		Files.setLastModifiedTime(next, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+		Files.move(next, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+		assertTrue(routingNumberDirectory.reload());
+		assertTrue(routingNumberDirectory.contains(11000015));
+		assertFalse(routingNumberDirectory.contains(21000021));
+	}
+
+	@Test
+	void keepsTheCurrentDirectoryWhenTheNewFileHasNoRoutingNumbers() throws Exception {
+		Path file = directory.resolve("routing.txt");
+		Files.write(file, List.of("021000021"));
+		RoutingNumberDirectory routingNumberDirectory = new RoutingNumberDirectory(file.toString());
+
+		Files.write(file, List.of(""));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+		assertFalse(routingNumberDirectory.reload());
+		assertTrue(routingNumberDirectory.contains(21000021));
+	}
+
+	@Test
+	void acceptsEveryRoutingNumberWithoutADirectory() {
+		RoutingNumberDirectory routingNumberDirectory = new RoutingNumberDirectory("");
+
+		assertEquals(-1, routingNumberDirectory.size());
+		assertTrue(routingNumberDirectory.contains(21000021));
+	}
+}
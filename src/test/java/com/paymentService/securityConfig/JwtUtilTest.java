@@ -0,0 +1,143 @@
+package com.paymentService.securityConfig;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.paymentService.metrics.PaymentMetrics;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+	private static final String SECRET = "test-secret-key-with-at-least-256-bits-of-key-material";
+
+	private JwtUtil jwtUtil;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = new JwtUtil(new PaymentMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+		ReflectionTestUtils.setField(jwtUtil, "tokenCacheMaximumSize", 100L);
+		jwtUtil.init();
+	}
+
+	@Test
+	void validTokenYieldsItsClaims() {
+		VerifiedToken verified = jwtUtil.verify(token(TimeUnit.HOURS.toMillis(1)).compact());
+
+		assertNotNull(verified);
+		assertEquals("alice", verified.getUsername());
+		assertEquals(List.of("USER", "ADMIN"), verified.getRoles());
+		assertTrue(jwtUtil.validateToken(token(TimeUnit.HOURS.toMillis(1)).compact()));
+	}
+
+	@Test
+	void repeatCallIsAnsweredFromTheCache() {
+		String token = token(TimeUnit.HOURS.toMillis(1)).compact();
+
+		VerifiedToken first = jwtUtil.verify(token);
+		assertEquals(1, cache().estimatedSize());
+		assertSame(first, jwtUtil.verify(token));
+	}
+
+	@Test
+	void tamperedSignatureIsRejectedAndNeverCached() {
+		String token = token(TimeUnit.HOURS.toMillis(1)).compact();
+		int signature = token.lastIndexOf('.') + 1;
+		char replaced = token.charAt(signature + 5) == 'A' ? 'B' : 'A';
+		String tampered = token.substring(0, signature + 5) + replaced + token.substring(signature + 6);
+
+		assertNull(jwtUtil.verify(tampered));
+		assertNull(jwtUtil.verify(tampered));
+		assertEquals(0, cache().estimatedSize());
+		// A forged token does not poison the entry of the genuine one either
+		assertNotNull(jwtUtil.verify(token));
+		assertNull(jwtUtil.verify(tampered));
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsRejected() {
+		String forged = token(TimeUnit.HOURS.toMillis(1))
+			.signWith(Keys.hmacShaKeyFor("another-secret-key-with-at-least-256-bits-of-material".getBytes(StandardCharsets.UTF_8)))
+			.compact();
+
+		assertNull(jwtUtil.verify(forged));
+		assertFalse(jwtUtil.validateToken(forged));
+		assertEquals(0, cache().estimatedSize());
+	}
+
+	@Test
+	void expiredTokenIsRejectedEvenAfterACacheHit() throws InterruptedException {
+		// Expirations have whole-second precision, so this one lies one to two seconds ahead
+		String token = token(2_000).compact();
+		VerifiedToken verified = jwtUtil.verify(token);
+		assertNotNull(verified);
+		assertSame(verified, jwtUtil.verify(token));
+
+		Thread.sleep(Math.max(0, verified.getExpiresAt().toEpochMilli() - System.currentTimeMillis()) + 50);
+
+		assertNull(jwtUtil.verify(token));
+	}
+
+	@Test
+	void alreadyExpiredTokenIsRejected() {
+		assertNull(jwtUtil.verify(token(-TimeUnit.MINUTES.toMillis(1)).compact()));
+		assertEquals(0, cache().estimatedSize());
+	}
+
+	@Test
+	void tokenWithoutExpirationVerifiesButIsNotCached() {
+		String token = Jwts.builder()
+			.setSubject("alice")
+			.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+			.compact();
+
+		VerifiedToken first = jwtUtil.verify(token);
+		assertNotNull(first);
+		assertEquals("alice", first.getUsername());
+		assertEquals(List.of(), first.getRoles());
+		assertNull(first.getExpiresAt());
+		assertEquals(0, cache().estimatedSize());
+		assertNotSame(first, jwtUtil.verify(token));
+	}
+
+	@Test
+	void malformedTokenIsRejected() {
+		assertNull(jwtUtil.verify("not-a-jwt"));
+		assertEquals(0, cache().estimatedSize());
+	}
+
+	/**
+	 * A token for alice signed with the service's key, expiring the given number of milliseconds from now
+	 */
+	private static JwtBuilder token(long expiresInMillis) {
+		return Jwts.builder()
+			.setSubject("alice")
+			.claim("roles", List.of("USER", "ADMIN"))
+			.setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+			.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Cache<String, VerifiedToken> cache() {
+		Cache<String, VerifiedToken> cache = (Cache<String, VerifiedToken>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+		cache.cleanUp();
+		return cache;
+	}
+}
@@ -0,0 +1,138 @@
+package com.paymentService.service.implementations;
+
+import com.paymentService.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SettlementBatcherTest {
+
+	private BankTransferProcessor processor;
+	private SettlementBatcher batcher;
+
+	@BeforeEach
+	void setUp() {
+		processor = mock(BankTransferProcessor.class);
+		when(processor.executeBatch(anyList())).thenAnswer(invocation -> {
+			Map<String, Transaction> settled = new HashMap<>();
+			for (String transferId : invocation.<List<String>>getArgument(0)) {
+				settled.put(transferId, transaction(transferId));
+			}
+			return settled;
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (batcher != null) {
+			batcher.destroy();
+		}
+	}
+
+	@Test
+	void fullWindowIsSettledWithoutWaitingForTheDeadline() throws Exception {
+		started(3, 60_000, 100);
+
+		CompletableFuture<Transaction> first = batcher.offer("t1");
+		CompletableFuture<Transaction> second = batcher.offer("t2");
+		CompletableFuture<Transaction> third = batcher.offer("t3");
+
+		assertEquals("t1", first.get(5, TimeUnit.SECONDS).getTransactionId());
+		assertEquals("t2", second.get(5, TimeUnit.SECONDS).getTransactionId());
+		assertEquals("t3", third.get(5, TimeUnit.SECONDS).getTransactionId());
+		verify(processor).executeBatch(List.of("t1", "t2", "t3"));
+	}
+
+	@Test
+	void partialWindowIsSettledAtTheDeadline() throws Exception {
+		started(100, 200, 100);
+
+		CompletableFuture<Transaction> first = batcher.offer("t1");
+		CompletableFuture<Transaction> second = batcher.offer("t2");
+
+		assertEquals("t1", first.get(5, TimeUnit.SECONDS).getTransactionId());
+		assertEquals("t2", second.get(5, TimeUnit.SECONDS).getTransactionId());
+		verify(processor).executeBatch(List.of("t1", "t2"));
+	}
+
+	@Test
+	void transfersMissingFromTheSettledBatchFail() throws Exception {
+		when(processor.executeBatch(anyList())).thenReturn(Map.of("t1", transaction("t1")));
+		started(2, 60_000, 100);
+
+		CompletableFuture<Transaction> settled = batcher.offer("t1");
+		CompletableFuture<Transaction> missing = batcher.offer("t2");
+
+		assertEquals("t1", settled.get(5, TimeUnit.SECONDS).getTransactionId());
+		ExecutionException e = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, e.getCause());
+	}
+
+	@Test
+	void failedBatchCallFailsEveryTransferInIt() {
+		RuntimeException failure = new IllegalStateException("bank down");
+		when(processor.executeBatch(anyList())).thenThrow(failure);
+		started(2, 60_000, 100);
+
+		CompletableFuture<Transaction> first = batcher.offer("t1");
+		CompletableFuture<Transaction> second = batcher.offer("t2");
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+		assertSame(failure, assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+	}
+
+	@Test
+	void fullQueueRefusesTransfers() {
+		// Not started, so nothing drains the queue
+		batcher = new SettlementBatcher(processor, Runnable::run, true, 10, 50, 2);
+
+		assertNotNull(batcher.offer("t1"));
+		assertNotNull(batcher.offer("t2"));
+		assertNull(batcher.offer("t3"));
+	}
+
+	@Test
+	void transfersStillQueuedAtShutdownFailWithoutBeingSubmitted() {
+		batcher = new SettlementBatcher(processor, Runnable::run, true, 10, 50, 10);
+		CompletableFuture<Transaction> queued = batcher.offer("t1");
+
+		batcher.destroy();
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, e.getCause());
+		verify(processor, never()).executeBatch(anyList());
+	}
+
+	/**
+	 * Starts a batcher that settles windows on the collector thread itself
+	 */
+	private void started(int batchSize, long maxWaitMs, int queueCapacity) {
+		batcher = new SettlementBatcher(processor, Runnable::run, true, batchSize, maxWaitMs, queueCapacity);
+		batcher.afterPropertiesSet();
+	}
+
+	private static Transaction transaction(String transferId) {
+		Transaction transaction = new Transaction();
+		transaction.setTransactionId(transferId);
+		return transaction;
+	}
+}
@@ -0,0 +1,114 @@
+package com.paymentService.velocity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VelocityWindowsTest {
+
+	private static final long MINUTE = 60_000;
+	/** Start of a window, so that offsets below line up with window boundaries */
+	private static final long START = 1_000 * MINUTE;
+
+	private final AtomicLong clock = new AtomicLong(START);
+	private final long account = VelocityWindows.key("021000021", "123456789");
+
+	@Test
+	void countLimitRejectsTheTransferThatWouldExceedIt() {
+		VelocityRule burst = new VelocityRule("burst", MINUTE, 3, 0);
+		VelocityWindows windows = windows(burst);
+
+		for (int i = 0; i < 3; i++) {
+			assertNull(windows.tryRecord(account, 100));
+		}
+		assertSame(burst, windows.tryRecord(account, 100));
+	}
+
+	@Test
+	void rejectedTransferIsNotCounted() {
+		VelocityRule daily = new VelocityRule("daily", 24 * 60 * MINUTE, 0, 10_000);
+		VelocityWindows windows = windows(daily);
+
+		assertNull(windows.tryRecord(account, 6_000));
+		assertSame(daily, windows.tryRecord(account, 5_000));
+		// Only the first transfer counts toward the limit, so the rest of it is still available
+		assertNull(windows.tryRecord(account, 4_000));
+		assertSame(daily, windows.tryRecord(account, 1));
+	}
+
+	@Test
+	void firstBrokenRuleIsReportedAndNoRuleRecordsTheTransfer() {
+		VelocityRule burst = new VelocityRule("burst", MINUTE, 1, 0);
+		VelocityRule hourly = new VelocityRule("hourly", 60 * MINUTE, 2, 0);
+		VelocityWindows windows = windows(burst, hourly);
+
+		assertNull(windows.tryRecord(account, 100));
+		assertSame(burst, windows.tryRecord(account, 100));
+		clock.addAndGet(2 * MINUTE);
+		// The burst rejection above did not count toward the hourly rule
+		assertNull(windows.tryRecord(account, 100));
+		clock.addAndGet(2 * MINUTE);
+		assertSame(hourly, windows.tryRecord(account, 100));
+	}
+
+	@Test
+	void previousWindowCountsInProportionToItsOverlap() {
+		VelocityRule burst = new VelocityRule("burst", MINUTE, 2, 0);
+		VelocityWindows windows = windows(burst);
+		assertNull(windows.tryRecord(account, 100));
+		assertNull(windows.tryRecord(account, 100));
+
+		// At the start of the next window the previous one still overlaps entirely
+		clock.set(START + MINUTE);
+		assertSame(burst, windows.tryRecord(account, 100));
+		// Halfway through it counts as one transfer
+		clock.set(START + MINUTE + MINUTE / 2);
+		assertNull(windows.tryRecord(account, 100));
+		assertSame(burst, windows.tryRecord(account, 100));
+	}
+
+	@Test
+	void windowsOlderThanThePreviousOneAreDropped() {
+		VelocityRule burst = new VelocityRule("burst", MINUTE, 1, 0);
+		VelocityWindows windows = windows(burst);
+		assertNull(windows.tryRecord(account, 100));
+		assertSame(burst, windows.tryRecord(account, 100));
+
+		clock.set(START + 2 * MINUTE);
+		assertNull(windows.tryRecord(account, 100));
+	}
+
+	@Test
+	void accountsAreLimitedSeparately() {
+		VelocityRule burst = new VelocityRule("burst", MINUTE, 1, 0);
+		VelocityWindows windows = windows(burst);
+		long other = VelocityWindows.key("021000021", "987654321");
+		assertNotEquals(account, other);
+
+		assertNull(windows.tryRecord(account, 100));
+		assertSame(burst, windows.tryRecord(account, 100));
+		assertNull(windows.tryRecord(other, 100));
+	}
+
+	@Test
+	void accountsBeyondCapacityAreForgottenRatherThanBlocked() {
+		VelocityRule burst = new VelocityRule("burst", MINUTE, 1, 0);
+		VelocityWindows windows = new VelocityWindows(List.of(burst), 64, clock::get);
+
+		for (int i = 0; i < 10_000; i++) {
+			long key = VelocityWindows.key("021000021", String.valueOf(100_000_000L + i));
+			assertNull(windows.tryRecord(key, 100));
+			// The account just recorded is the most recently active one in its range, so it is still tracked
+			assertSame(burst, windows.tryRecord(key, 100));
+		}
+	}
+
+	private VelocityWindows windows(VelocityRule... rules) {
+		return new VelocityWindows(List.of(rules), 1_024, clock::get);
+	}
+}